@@ -0,0 +1,25 @@
+#version 150
+
+// Per-instance attributes, one record for each sprite
+in vec4 in_rect;    // x, y, width, height
+in vec4 in_uvRect;  // u0, v0, u1, v1
+in vec4 in_tint;    // packed RGBA, normalized to 0..1
+
+uniform mat4 projection;
+uniform mat4 model;
+uniform mat4 view;
+
+out vec2 v_uv;
+out vec3 v_tint;
+
+void main(void) {
+    // Quad corners are generated from the vertex index, drawn as a triangle strip:
+    // 0 = (0, 0), 1 = (1, 0), 2 = (0, 1), 3 = (1, 1)
+    vec2 corner = vec2(gl_VertexID & 1, gl_VertexID >> 1);
+
+    mat4 mvp = projection * view * model;
+    gl_Position = mvp * vec4(in_rect.xy + corner * in_rect.zw, 0.0, 1.0);
+
+    v_uv = mix(in_uvRect.xy, in_uvRect.zw, corner);
+    v_tint = in_tint.rgb;
+}
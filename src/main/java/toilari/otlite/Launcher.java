@@ -3,11 +3,15 @@ package toilari.otlite;
 import lombok.NonNull;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
+import lombok.var;
 import toilari.otlite.dao.*;
 import toilari.otlite.dao.database.Database;
+import toilari.otlite.dao.util.FileHelper;
 import toilari.otlite.game.*;
 import toilari.otlite.game.profile.statistics.StatisticsManager;
 import toilari.otlite.game.world.entities.TurnObjectManager;
+import toilari.otlite.view.headless.HeadlessGameRunner;
+import toilari.otlite.view.headless.ScriptedInputHandler;
 import toilari.otlite.view.lwjgl.LWJGLGameRunner;
 import toilari.otlite.view.lwjgl.renderer.BestiaryGameStateRenderer;
 import toilari.otlite.view.lwjgl.renderer.MainMenuGameStateRenderer;
@@ -15,8 +19,14 @@ import toilari.otlite.view.lwjgl.renderer.PlayGameStateRenderer;
 import toilari.otlite.view.lwjgl.renderer.ProfileSelectGameStateRenderer;
 import toilari.otlite.view.renderer.IGameStateRenderer;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.sql.SQLException;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 
 /**
  * Vastaa sovelluksen käynnistämisestä ja komentoriviparametrien parsimisesta.
@@ -26,38 +36,103 @@ public class Launcher {
     /**
      * Main-metodi, parsii komentoriviparametrit ja käynnistää pelin.
      *
+     * Parametrilla <code>--headless</code> peliä simuloidaan ilman ikkunaa, ks. {@link HeadlessGameRunner}.
+     * Simulaatio tallentaa tietonsa väliaikaiseen hakemistoon, jottei se sotke pelaajan profiileja, ellei hakemistoa
+     * anneta parametrilla <code>--save-dir &lt;polku&gt;</code>. Simulaation kestoa voi rajoittaa parametreilla
+     * <code>--max-ticks &lt;n&gt;</code> ja <code>--max-games &lt;n&gt;</code>.
+     * Parametrilla <code>--render-on-demand</code> peli piirretään vain kun kuva muuttuu, ks.
+     * {@link AbstractGameRunner#setRenderOnDemand(boolean)}.
+     *
      * @param args Raa'at, parsimattomat kometoriviparametrit
      */
     public static void main(String[] args) {
-        val app = createRunner("data/", "1");
+        val arguments = Arrays.asList(args);
+        val headless = arguments.contains("--headless");
+
+        Path temporarySaveDir = null;
+        var saveDir = getOption(arguments, "--save-dir");
+        if (saveDir == null && headless) {
+            try {
+                temporarySaveDir = Files.createTempDirectory("otlite-headless");
+            } catch (IOException e) {
+                LOG.error("Could not create a temporary save directory: {}", e.getMessage());
+                return;
+            }
+            saveDir = temporarySaveDir.toString();
+            LOG.info("Headless run saves to temporary directory \"{}\"", saveDir);
+        }
+
+        try {
+            val app = createRunner(saveDir == null ? "data/" : saveDir + File.separator, "1", headless);
+            if (app == null) {
+                return;
+            }
+
+            if (app instanceof HeadlessGameRunner) {
+                ((HeadlessGameRunner) app).setMaxTicks(getLongOption(arguments, "--max-ticks"));
+                ((HeadlessGameRunner) app).setMaxGames(getLongOption(arguments, "--max-games"));
+            }
 
-        if (app != null) {
+            app.setRenderOnDemand(arguments.contains("--render-on-demand"));
             app.run();
+        } finally {
+            if (temporarySaveDir != null) {
+                FileHelper.deleteDirectoryAndChildren(temporarySaveDir);
+            }
         }
     }
 
-    private static AbstractGameRunner createRunner(@NonNull String savePath, @NonNull String initialLevelId) {
+    private static String getOption(@NonNull List<String> arguments, @NonNull String name) {
+        val index = arguments.indexOf(name);
+        return index == -1 || index + 1 >= arguments.size() ? null : arguments.get(index + 1);
+    }
+
+    private static long getLongOption(@NonNull List<String> arguments, @NonNull String name) {
+        val value = getOption(arguments, name);
+        if (value == null) {
+            return 0;
+        }
+
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            LOG.warn("Ignoring invalid value \"{}\" for {}", value, name);
+            return 0;
+        }
+    }
+
+    private static AbstractGameRunner createRunner(@NonNull String savePath, @NonNull String initialLevelId, boolean headless) {
+        Database database;
         ProfileDAO profiles;
         PlayerStatisticDAO statisticsDao;
+        RunHistoryDAO runHistoryDao;
         try {
-            val database = new Database(savePath + "profiles.db");
+            database = new Database(savePath + "profiles.db");
             profiles = new ProfileDAO(database, new SettingsDAO(savePath));
             statisticsDao = new PlayerStatisticDAO(database);
+            runHistoryDao = new RunHistoryDAO(database);
         } catch (SQLException e) {
             LOG.error("Could not initialize statistics. Shutting down.");
             LOG.error("Cause: {}", e.getMessage());
             return null;
         }
 
-        val statistics = new StatisticsManager(statisticsDao);
+        // Simulated runs would swamp the leaderboards and percentiles, so only real runs are kept in the history
+        val statistics = headless
+            ? new StatisticsManager(statisticsDao)
+            : new StatisticsManager(statisticsDao, runHistoryDao);
         val characterDao = new CharacterDAO("content/characters/");
         val tileDao = new TileDAO("content/tiles/");
         val levelDao = new LevelDAO("content/levels/");
 
-        val stateRenderers = createStateRenderers(characterDao);
         val game = new Game(new ProfileSelectGameState(), initialLevelId, tileDao, characterDao, levelDao, profiles, statistics, TurnObjectManager::new);
+        game.setDatabase(database);
+        if (headless) {
+            val seed = System.nanoTime();
+            return new HeadlessGameRunner(game, ScriptedInputHandler.randomWalk(seed), "headless", seed);
+        }
 
-        return new LWJGLGameRunner(game, stateRenderers);
+        return new LWJGLGameRunner(game, createStateRenderers(characterDao));
     }
 
     private static HashMap<Class, IGameStateRenderer> createStateRenderers(CharacterDAO characterDao) {
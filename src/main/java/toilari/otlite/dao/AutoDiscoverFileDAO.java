@@ -14,7 +14,7 @@ import java.util.Collection;
  */
 public abstract class AutoDiscoverFileDAO<T> extends CachingDAO<T, Path> implements IGetAllDAO<T> {
     private final Path contentRoot;
-    private boolean loaded = false;
+    private volatile boolean loaded = false;
 
     protected AutoDiscoverFileDAO(@NonNull String contentRoot) {
         this.contentRoot = Paths.get(contentRoot);
@@ -3,17 +3,18 @@ package toilari.otlite.dao;
 import lombok.val;
 
 import java.util.Collection;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
- * DAO joka säilöö ladatut oliot muistiin jotta niiden lataaminen myöhemmin olisi nopeampaa.
+ * DAO joka säilöö ladatut oliot muistiin jotta niiden lataaminen myöhemmin olisi nopeampaa. Säiliö on säieturvallinen,
+ * joten samaa DAO:ta voidaan käyttää rinnakkain simuloitavista pelimaailmoista.
  *
  * @param <T> ladattavan olion tyyppi
  * @param <K> oliojen tunnisteen tyyppi
  */
 public abstract class CachingDAO<T, K> implements IGetDAO<T, K>, IGetAllDAO<T> {
-    private final Map<K, T> loaded = new HashMap<>();
+    private final Map<K, T> loaded = new ConcurrentHashMap<>();
 
     @Override
     public Collection<T> getAll() {
@@ -22,16 +23,19 @@ public abstract class CachingDAO<T, K> implements IGetDAO<T, K>, IGetAllDAO<T> {
 
     @Override
     public T get(K key) {
-        if (!this.loaded.containsKey(key)) {
-            val loaded = load(key);
-            if (loaded == null) {
-                return null;
-            }
+        val cached = this.loaded.get(key);
+        if (cached != null) {
+            return cached;
+        }
 
-            this.loaded.put(key, loaded);
+        val loaded = load(key);
+        if (loaded == null) {
+            return null;
         }
 
-        return this.loaded.get(key);
+        // Another thread may have loaded the same key in the meantime, keep whichever got there first
+        val previous = this.loaded.putIfAbsent(key, loaded);
+        return previous != null ? previous : loaded;
     }
 
     protected abstract T load(K key);
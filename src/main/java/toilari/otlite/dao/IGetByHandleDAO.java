@@ -0,0 +1,35 @@
+package toilari.otlite.dao;
+
+/**
+ * DAO joka antaa ladatuille olioille kokonaislukukahvat. Kahva ratkaistaan tunnisteesta kerran, jonka jälkeen olion
+ * hakeminen kahvalla ei vaadi merkkijonojen käsittelyä.
+ *
+ * @param <T> ladattavan olion tyyppi
+ */
+public interface IGetByHandleDAO<T> {
+    /**
+     * Kahva jota ei ole vielä ratkaistu. Kutsujat voivat käyttää tätä arvoa merkitsemään puuttuvaa kahvaa.
+     */
+    int UNRESOLVED = 0;
+
+    /**
+     * Kahva joka ei viittaa mihinkään olioon. Palautetaan tunnisteille joita vastaavaa oliota ei löydy.
+     */
+    int MISSING = -1;
+
+    /**
+     * Ratkaisee annettua tunnistetta vastaavan kahvan. Samalle tunnisteelle palautetaan aina sama kahva.
+     *
+     * @param id olion tunniste
+     * @return {@link #MISSING} jos oliota ei löydy, muulloin olion kahva
+     */
+    int getHandle(String id);
+
+    /**
+     * Hakee kahvaa vastaavan olion.
+     *
+     * @param handle olion kahva
+     * @return <code>null</code> jos kahva ei viittaa mihinkään olioon, muulloin kahvaa vastaava olio
+     */
+    T getByHandle(int handle);
+}
@@ -7,6 +7,8 @@ import lombok.val;
 import toilari.otlite.dao.database.Database;
 
 import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
 
 /**
  * Lukee pelaajaprofiilien statistiikkadataa tietokannasta.
@@ -26,9 +28,8 @@ public class PlayerStatisticDAO {
     public PlayerStatisticDAO(@NonNull Database database) throws SQLException {
         this.database = database;
 
-        try (val connection = getDatabase().getConnection();
-             val statement = connection.createStatement()) {
-            statement.execute(
+        try (val connection = getDatabase().acquire()) {
+            connection.execute(
                 "CREATE TABLE IF NOT EXISTS PlayerStatistics (" +
                     "profile_id INTEGER," +
                     "statistic_id INTEGER," +
@@ -49,15 +50,49 @@ public class PlayerStatisticDAO {
      * @throws SQLException jos tietokannan käsittelyssä tapahtuu virhe
      */
     public void addButDoNotReplace(int profileId, int statisticId, double value) throws SQLException {
-        try (val connection = getDatabase().getConnection();
-             val statement = connection.prepareStatement(
-                 "INSERT INTO PlayerStatistics(profile_id, statistic_id, value)" +
-                     "SELECT ?,?,? WHERE NOT EXISTS(SELECT 1 FROM PlayerStatistics WHERE profile_id = ? AND statistic_id = ?)")) {
+        try (val connection = getDatabase().acquire()) {
+            val statement = connection.prepare(
+                "INSERT INTO PlayerStatistics(profile_id, statistic_id, value) VALUES (?,?,?) " +
+                    "ON CONFLICT(profile_id, statistic_id) DO NOTHING");
             statement.setInt(1, profileId);
             statement.setInt(2, statisticId);
             statement.setDouble(3, value);
-            statement.setInt(4, profileId);
-            statement.setInt(5, statisticId);
+            statement.executeUpdate();
+        }
+    }
+
+    /**
+     * Lisää pelaajalle useita statistiikkoja yhdellä monirivisellä lauseella. Olemassaolevia rivejä ei korvata.
+     *
+     * @param profileId    pelaajaprofiili jonka tietoja päivitetään
+     * @param statisticIds lisättävien statistiikkojen ID:t
+     * @param values       statistiikkojen arvot, samassa järjestyksessä kuin ID:t
+     *
+     * @throws SQLException             jos tietokannan käsittelyssä tapahtuu virhe
+     * @throws IllegalArgumentException jos taulukot ovat eripituisia
+     * @throws NullPointerException     jos jompikumpi taulukoista on <code>null</code>
+     */
+    public void addAllButDoNotReplace(int profileId, @NonNull int[] statisticIds, @NonNull double[] values) throws SQLException {
+        if (statisticIds.length != values.length) {
+            throw new IllegalArgumentException("Every statistic needs exactly one value!");
+        }
+        if (statisticIds.length == 0) {
+            return;
+        }
+
+        val sql = new StringBuilder("INSERT INTO PlayerStatistics(profile_id, statistic_id, value) VALUES ");
+        for (int i = 0; i < statisticIds.length; i++) {
+            sql.append(i == 0 ? "(?,?,?)" : ",(?,?,?)");
+        }
+        sql.append(" ON CONFLICT(profile_id, statistic_id) DO NOTHING");
+
+        try (val connection = getDatabase().acquire()) {
+            val statement = connection.prepare(sql.toString());
+            for (int i = 0; i < statisticIds.length; i++) {
+                statement.setInt(i * 3 + 1, profileId);
+                statement.setInt(i * 3 + 2, statisticIds[i]);
+                statement.setDouble(i * 3 + 3, values[i]);
+            }
             statement.executeUpdate();
         }
     }
@@ -72,9 +107,8 @@ public class PlayerStatisticDAO {
      * @throws SQLException jos tietokannan käsittelyssä tapahtuu virhe
      */
     public void update(int profileId, int statisticId, double value) throws SQLException {
-        try (val connection = getDatabase().getConnection();
-             val statement = connection.prepareStatement(
-                 "UPDATE PlayerStatistics SET value = ? WHERE profile_id = ? AND statistic_id = ?")) {
+        try (val connection = getDatabase().acquire()) {
+            val statement = connection.prepare("UPDATE PlayerStatistics SET value = ? WHERE profile_id = ? AND statistic_id = ?");
             statement.setDouble(1, value);
             statement.setInt(2, profileId);
             statement.setInt(3, statisticId);
@@ -93,19 +127,19 @@ public class PlayerStatisticDAO {
      * @throws SQLException jos tietokannan käsittelyssä tapahtuu virhe
      */
     public double get(int profileId, int statisticId) throws SQLException {
-        try (val connection = getDatabase().getConnection();
-             val statement = connection.prepareStatement(
-                 "SELECT value FROM PlayerStatistics WHERE profile_id = ? AND statistic_id = ?")) {
+        try (val connection = getDatabase().acquire()) {
+            val statement = connection.prepare("SELECT value FROM PlayerStatistics WHERE profile_id = ? AND statistic_id = ?");
             statement.setInt(1, profileId);
             statement.setInt(2, statisticId);
 
-            val result = statement.executeQuery();
-            if (!result.next()) {
-                LOG.error("No entry for statistic {} for profile {}", statisticId, profileId);
-                return 0.0;
-            }
+            try (val result = statement.executeQuery()) {
+                if (!result.next()) {
+                    LOG.error("No entry for statistic {} for profile {}", statisticId, profileId);
+                    return 0.0;
+                }
 
-            return result.getDouble("value");
+                return result.getDouble("value");
+            }
         }
     }
 
@@ -119,13 +153,81 @@ public class PlayerStatisticDAO {
      * @throws SQLException jos tietokannan käsittelyssä tapahtuu virhe
      */
     public void incrementBy(int profileId, int statisticId, double amount) throws SQLException {
-        try (val connection = getDatabase().getConnection();
-             val statement = connection.prepareStatement(
-                 "UPDATE PlayerStatistics SET value = value + ? WHERE profile_id = ? AND statistic_id = ?")) {
+        try (val connection = getDatabase().acquire()) {
+            val statement = connection.prepare("UPDATE PlayerStatistics SET value = value + ? WHERE profile_id = ? AND statistic_id = ?");
             statement.setDouble(1, amount);
             statement.setInt(2, profileId);
             statement.setInt(3, statisticId);
             statement.executeUpdate();
         }
     }
+
+    /**
+     * Kasvattaa useita pelaajan statistiikkatietoja yhdessä transaktiossa. Nollamuutokset ohitetaan. Puuttuvat rivit
+     * lisätään, jolloin statistiikan arvoksi tulee kasvatuksen määrä.
+     *
+     * @param profileId    pelaajaprofiili jonka tietoja muokataan
+     * @param statisticIds kasvatettavien statistiikkojen ID:t
+     * @param amounts      arvot joilla statistiikkoja kasvatetaan, samassa järjestyksessä kuin ID:t
+     *
+     * @throws SQLException             jos tietokannan käsittelyssä tapahtuu virhe. Tällöin yhtäkään arvoa ei muuteta.
+     * @throws IllegalArgumentException jos taulukot ovat eripituisia
+     * @throws NullPointerException     jos jompikumpi taulukoista on <code>null</code>
+     */
+    public void incrementAll(int profileId, @NonNull int[] statisticIds, @NonNull double[] amounts) throws SQLException {
+        if (statisticIds.length != amounts.length) {
+            throw new IllegalArgumentException("Every statistic needs exactly one amount!");
+        }
+
+        try (val connection = getDatabase().acquire()) {
+            val statement = connection.prepare(
+                "INSERT INTO PlayerStatistics(profile_id, statistic_id, value) VALUES (?,?,?) " +
+                    "ON CONFLICT(profile_id, statistic_id) DO UPDATE SET value = value + excluded.value");
+            connection.beginTransaction();
+            try {
+                for (int i = 0; i < statisticIds.length; i++) {
+                    if (amounts[i] == 0.0) {
+                        continue;
+                    }
+
+                    statement.setInt(1, profileId);
+                    statement.setInt(2, statisticIds[i]);
+                    statement.setDouble(3, amounts[i]);
+                    statement.addBatch();
+                }
+
+                statement.executeBatch();
+                connection.commit();
+            } catch (SQLException e) {
+                statement.clearBatch();
+                connection.rollback();
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Hakee kaikki pelaajan statistiikkatiedot yhdellä kyselyllä.
+     *
+     * @param profileId pelaajaprofiili jonka tiedot haetaan
+     *
+     * @return statistiikkojen arvot statistiikan ID:n mukaan. Statistiikat joille ei ole riviä puuttuvat.
+     *
+     * @throws SQLException jos tietokannan käsittelyssä tapahtuu virhe
+     */
+    public Map<Integer, Double> getAll(int profileId) throws SQLException {
+        val values = new HashMap<Integer, Double>();
+        try (val connection = getDatabase().acquire()) {
+            val statement = connection.prepare("SELECT statistic_id, value FROM PlayerStatistics WHERE profile_id = ?");
+            statement.setInt(1, profileId);
+
+            try (val result = statement.executeQuery()) {
+                while (result.next()) {
+                    values.put(result.getInt("statistic_id"), result.getDouble("value"));
+                }
+            }
+        }
+
+        return values;
+    }
 }
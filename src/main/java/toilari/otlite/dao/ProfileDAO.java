@@ -30,9 +30,8 @@ public class ProfileDAO {
         this.database = database;
         this.settingsDao = settingsDao;
 
-        try (val connection = this.database.getConnection();
-             val statement = connection.createStatement()) {
-            statement.execute(
+        try (val connection = this.database.acquire()) {
+            connection.execute(
                 "CREATE TABLE IF NOT EXISTS Profiles (" +
                     "id INTEGER PRIMARY KEY," +
                     "name TEXT," +
@@ -41,7 +40,8 @@ public class ProfileDAO {
     }
 
     /**
-     * Hakee kaikki tallennetut objektit.
+     * Hakee kaikki tallennetut objektit. Profiilien asetuksia ei lueta kyselyn aikana, vaan ne ladataan taustalla
+     * välimuistiin ja viimeistään silloin kun asetuksia tarvitaan.
      *
      * @return lista tallennetuista objekteista
      * @throws SQLException jos tietokannan lukemisessa tapahtuu virhe
@@ -49,15 +49,21 @@ public class ProfileDAO {
     @NonNull
     public List<Profile> findAll() throws SQLException {
         val allFound = new ArrayList<Profile>();
-        try (val connection = this.database.getConnection();
-             val statement = connection.prepareStatement("SELECT * FROM Profiles")) {
-            val result = statement.executeQuery();
-
-            while (result.next()) {
-                allFound.add(createInstance(result));
+        try (val connection = this.database.acquire()) {
+            val statement = connection.prepare("SELECT * FROM Profiles");
+            try (val result = statement.executeQuery()) {
+                while (result.next()) {
+                    allFound.add(createInstance(result));
+                }
             }
         }
 
+        val names = new ArrayList<String>(allFound.size());
+        for (val profile : allFound) {
+            names.add(profile.getName());
+        }
+        this.settingsDao.preloadAsync(names);
+
         return allFound;
     }
 
@@ -70,17 +76,17 @@ public class ProfileDAO {
      * @throws SQLException jos tietokannan käsittelyssä tapahtuu virhe
      */
     public Profile findById(int id) throws SQLException {
-        try (val connection = this.database.getConnection();
-             val statement = connection.prepareStatement(
-                 "SELECT * FROM Profiles WHERE id = ?")) {
+        try (val connection = this.database.acquire()) {
+            val statement = connection.prepare("SELECT * FROM Profiles WHERE id = ?");
             statement.setInt(1, id);
 
-            val result = statement.executeQuery();
-            if (!result.next()) {
-                return null;
-            }
+            try (val result = statement.executeQuery()) {
+                if (!result.next()) {
+                    return null;
+                }
 
-            return createInstance(result);
+                return createInstance(result);
+            }
         }
     }
 
@@ -93,16 +99,14 @@ public class ProfileDAO {
     public void remove(@NonNull Profile profile) throws SQLException {
 
 
-        try (val connection = this.database.getConnection();
-             val statement = connection.prepareStatement(
-                 "DELETE FROM PlayerStatistics WHERE profile_id = ?")) {
+        try (val connection = this.database.acquire()) {
+            val statement = connection.prepare("DELETE FROM PlayerStatistics WHERE profile_id = ?");
             statement.setInt(1, profile.getId());
             statement.executeUpdate();
         }
 
-        try (val connection = this.database.getConnection();
-             val statement = connection.prepareStatement(
-                 "DELETE FROM Profiles WHERE id = ?")) {
+        try (val connection = this.database.acquire()) {
+            val statement = connection.prepare("DELETE FROM Profiles WHERE id = ?");
             statement.setInt(1, profile.getId());
 
             statement.executeUpdate();
@@ -120,17 +124,17 @@ public class ProfileDAO {
      * @throws NullPointerException jos name on <code>null</code>
      */
     public Profile findByName(@NonNull String name) throws SQLException {
-        try (val connection = this.database.getConnection();
-             val statement = connection.prepareStatement(
-                 "SELECT * FROM Profiles WHERE name = ?")) {
+        try (val connection = this.database.acquire()) {
+            val statement = connection.prepare("SELECT * FROM Profiles WHERE name = ?");
             statement.setString(1, name);
 
-            val result = statement.executeQuery();
-            if (!result.next()) {
-                return null;
-            }
+            try (val result = statement.executeQuery()) {
+                if (!result.next()) {
+                    return null;
+                }
 
-            return createInstance(result);
+                return createInstance(result);
+            }
         }
     }
 
@@ -148,14 +152,14 @@ public class ProfileDAO {
             throw new IllegalArgumentException("Profile with name \"" + name + "\" already exists");
         }
 
-        try (val connection = this.database.getConnection();
-             val statement = connection.prepareStatement(
-                 "INSERT INTO Profiles (name, hasSave) VALUES (?,FALSE)")) {
-
+        try (val connection = this.database.acquire()) {
+            val statement = connection.prepare("INSERT INTO Profiles (name, hasSave) VALUES (?,FALSE)");
             statement.setString(1, name);
             statement.executeUpdate();
         }
 
+        // New profiles get their settings file right away instead of on first use
+        this.settingsDao.loadByProfileName(name);
         return findByName(name);
     }
 
@@ -168,24 +172,24 @@ public class ProfileDAO {
      * @throws NullPointerException jos nimi on <code>null</code>
      */
     public boolean profileWithNameExists(@NonNull String name) throws SQLException {
-        try (val connection = this.database.getConnection();
-             val statement = connection.prepareStatement(
-                 "SELECT EXISTS(SELECT 1 FROM Profiles WHERE name = ? LIMIT 1)")) {
+        try (val connection = this.database.acquire()) {
+            val statement = connection.prepare("SELECT EXISTS(SELECT 1 FROM Profiles WHERE name = ? LIMIT 1)");
             statement.setString(1, name);
 
-            val result = statement.executeQuery();
-            return result.next() && result.getInt(1) == 1;
+            try (val result = statement.executeQuery()) {
+                return result.next() && result.getInt(1) == 1;
+            }
         }
     }
 
     private Profile createInstance(ResultSet result) throws SQLException {
         val name = result.getString("name");
-        val settings = this.settingsDao.loadByProfileName(name);
 
+        // Settings live in separate files, so they are read only once someone actually needs them
         return new Profile(
             result.getInt("id"),
             name,
-            settings,
+            () -> this.settingsDao.loadByProfileName(name),
             result.getBoolean("hasSave")
         );
     }
@@ -20,15 +20,22 @@ import toilari.otlite.view.renderer.IRenderer;
 import java.io.IOException;
 import java.io.Reader;
 import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * Lataa piirtäjiä määritystiedostoista.
  */
 @Slf4j
-public class RendererDAO extends AutoDiscoverFileDAO<ILWJGLRenderer> implements IGetByIDDao<ILWJGLRenderer> {
+public class RendererDAO extends AutoDiscoverFileDAO<ILWJGLRenderer> implements IGetByIDDao<ILWJGLRenderer>, IGetByHandleDAO<ILWJGLRenderer> {
     private static final String[] EXTENSIONS = {"json"};
     private final Gson gson;
 
+    private final Map<String, Integer> handles = new ConcurrentHashMap<>();
+    private final List<ILWJGLRenderer> byHandle = new CopyOnWriteArrayList<>();
+
     /**
      * Luo uuden daon piirtäjien lataamista varten.
      *
@@ -68,4 +75,29 @@ public class RendererDAO extends AutoDiscoverFileDAO<ILWJGLRenderer> implements
     public ILWJGLRenderer getByID(String id) {
         return get(id + ".json");
     }
+
+    @Override
+    public int getHandle(String id) {
+        if (id == null) {
+            return MISSING;
+        }
+
+        return this.handles.computeIfAbsent(id, this::assignHandle);
+    }
+
+    @Override
+    public ILWJGLRenderer getByHandle(int handle) {
+        return handle > 0 && handle <= this.byHandle.size() ? this.byHandle.get(handle - 1) : null;
+    }
+
+    private synchronized int assignHandle(@NonNull String id) {
+        val renderer = getByID(id);
+        if (renderer == null) {
+            return MISSING;
+        }
+
+        // Handles start from one so that zero can be used for "not yet resolved"
+        this.byHandle.add(renderer);
+        return this.byHandle.size();
+    }
 }
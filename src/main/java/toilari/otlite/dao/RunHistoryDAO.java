@@ -0,0 +1,317 @@
+package toilari.otlite.dao;
+
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.val;
+import toilari.otlite.dao.database.Database;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tallentaa pelikertojen historiaa tietokantaan ja laskee siitä koosteita. Koosteet lasketaan SQL-kyselyinä
+ * indeksien avulla, joten ne pysyvät nopeina vaikka pelikertoja olisi tallennettu satoja tuhansia.
+ */
+public class RunHistoryDAO {
+    @NonNull @Getter private final Database database;
+
+    /**
+     * Luo uuden DAOn pelikertahistorian käsittelyyn. Luo tarvittavat tietokantataulut ja indeksit jos niitä ei vielä
+     * ole.
+     *
+     * @param database tietokanta jota käytetään
+     *
+     * @throws SQLException         jos tietokannan käsittelyssä tapahtuu virhe
+     * @throws NullPointerException jos tietokanta on <code>null</code>
+     */
+    public RunHistoryDAO(@NonNull Database database) throws SQLException {
+        this.database = database;
+
+        try (val connection = getDatabase().acquire()) {
+            connection.execute(
+                "CREATE TABLE IF NOT EXISTS Runs (" +
+                    "id INTEGER PRIMARY KEY," +
+                    "profile_id INTEGER NOT NULL," +
+                    "started_at INTEGER NOT NULL," +
+                    "ended_at INTEGER NOT NULL," +
+                    "died BOOLEAN NOT NULL," +
+                    "FOREIGN KEY (profile_id) REFERENCES Profiles(id))");
+            connection.execute(
+                "CREATE TABLE IF NOT EXISTS RunStatistics (" +
+                    "run_id INTEGER NOT NULL," +
+                    "profile_id INTEGER NOT NULL," +
+                    "statistic_id INTEGER NOT NULL," +
+                    "value DOUBLE NOT NULL," +
+                    "PRIMARY KEY (run_id, statistic_id)," +
+                    "FOREIGN KEY (run_id) REFERENCES Runs(id))");
+
+            // Leaderboards and global percentiles scan one statistic in value order, per-profile aggregates the same
+            // within a single profile. The leaderboard also reports the run and the profile, so those are included in
+            // the global index to keep all of these queries on covering indexes without touching the table. The
+            // earlier index without them is replaced.
+            connection.execute("DROP INDEX IF EXISTS RunStatistics_statistic_value");
+            connection.execute("CREATE INDEX IF NOT EXISTS RunStatistics_statistic_value_run ON RunStatistics(statistic_id, value, run_id, profile_id)");
+            connection.execute("CREATE INDEX IF NOT EXISTS RunStatistics_profile_statistic_value ON RunStatistics(profile_id, statistic_id, value)");
+            connection.execute("CREATE INDEX IF NOT EXISTS Runs_profile_ended ON Runs(profile_id, ended_at)");
+        }
+    }
+
+    /**
+     * Tallentaa päättyneen pelikerran ja sen statistiikat yhdessä transaktiossa.
+     *
+     * @param profileId    pelaajaprofiili jonka pelikerta tallennetaan
+     * @param startedAt    pelikerran alkamisaika millisekunteina
+     * @param endedAt      pelikerran päättymisaika millisekunteina
+     * @param died         päättyikö pelikerta pelaajan kuolemaan
+     * @param statisticIds pelikerran statistiikkojen ID:t
+     * @param values       statistiikkojen arvot pelikerran aikana, samassa järjestyksessä kuin ID:t
+     *
+     * @return tallennetun pelikerran ID
+     *
+     * @throws SQLException             jos tietokannan käsittelyssä tapahtuu virhe. Tällöin mitään ei tallenneta.
+     * @throws IllegalArgumentException jos taulukot ovat eripituisia
+     * @throws NullPointerException     jos jompikumpi taulukoista on <code>null</code>
+     */
+    public int recordRun(int profileId, long startedAt, long endedAt, boolean died, @NonNull int[] statisticIds, @NonNull double[] values) throws SQLException {
+        if (statisticIds.length != values.length) {
+            throw new IllegalArgumentException("Every statistic needs exactly one value!");
+        }
+
+        try (val connection = getDatabase().acquire()) {
+            val insertRun = connection.prepare("INSERT INTO Runs (profile_id, started_at, ended_at, died) VALUES (?,?,?,?)");
+            val insertStatistic = connection.prepare("INSERT INTO RunStatistics (run_id, profile_id, statistic_id, value) VALUES (?,?,?,?)");
+            connection.beginTransaction();
+            try {
+                insertRun.setInt(1, profileId);
+                insertRun.setLong(2, startedAt);
+                insertRun.setLong(3, endedAt);
+                insertRun.setBoolean(4, died);
+                insertRun.executeUpdate();
+
+                int runId;
+                try (val keys = insertRun.getGeneratedKeys()) {
+                    if (!keys.next()) {
+                        throw new SQLException("Inserting the run did not produce an ID");
+                    }
+                    runId = keys.getInt(1);
+                }
+
+                for (int i = 0; i < statisticIds.length; i++) {
+                    insertStatistic.setInt(1, runId);
+                    insertStatistic.setInt(2, profileId);
+                    insertStatistic.setInt(3, statisticIds[i]);
+                    insertStatistic.setDouble(4, values[i]);
+                    insertStatistic.addBatch();
+                }
+                insertStatistic.executeBatch();
+
+                connection.commit();
+                return runId;
+            } catch (SQLException e) {
+                insertStatistic.clearBatch();
+                connection.rollback();
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Hakee pelaajan pelikertojen lukumäärän.
+     *
+     * @param profileId pelaajaprofiili jonka pelikerrat lasketaan
+     *
+     * @return tallennettujen pelikertojen lukumäärä
+     *
+     * @throws SQLException jos tietokannan käsittelyssä tapahtuu virhe
+     */
+    public int getRunCount(int profileId) throws SQLException {
+        try (val connection = getDatabase().acquire()) {
+            val statement = connection.prepare("SELECT COUNT(*) FROM Runs WHERE profile_id = ?");
+            statement.setInt(1, profileId);
+
+            try (val result = statement.executeQuery()) {
+                return result.next() ? result.getInt(1) : 0;
+            }
+        }
+    }
+
+    /**
+     * Laskee statistiikan keskiarvon pelaajan pelikerroilta, esim. "tappoja per pelikerta".
+     *
+     * @param profileId   pelaajaprofiili jonka pelikerroista keskiarvo lasketaan
+     * @param statisticId statistiikan ID
+     *
+     * @return keskiarvo, <code>NaN</code> jos pelikertoja ei ole
+     *
+     * @throws SQLException jos tietokannan käsittelyssä tapahtuu virhe
+     */
+    public double getAverage(int profileId, int statisticId) throws SQLException {
+        return queryAggregate("SELECT AVG(value) FROM RunStatistics WHERE profile_id = ? AND statistic_id = ?", profileId, statisticId);
+    }
+
+    /**
+     * Hakee statistiikan parhaan arvon pelaajan pelikerroilta.
+     *
+     * @param profileId   pelaajaprofiili jonka pelikerroista paras arvo haetaan
+     * @param statisticId statistiikan ID
+     *
+     * @return suurin arvo, <code>NaN</code> jos pelikertoja ei ole
+     *
+     * @throws SQLException jos tietokannan käsittelyssä tapahtuu virhe
+     */
+    public double getBest(int profileId, int statisticId) throws SQLException {
+        return queryAggregate("SELECT MAX(value) FROM RunStatistics WHERE profile_id = ? AND statistic_id = ?", profileId, statisticId);
+    }
+
+    /**
+     * Hakee statistiikan persentiilin pelaajan pelikerroilta. Käyttää lähimmän sijan menetelmää, joten palautettu
+     * arvo on aina jonkin pelikerran todellinen arvo.
+     *
+     * @param profileId   pelaajaprofiili jonka pelikerroista persentiili lasketaan
+     * @param statisticId statistiikan ID
+     * @param percentile  persentiili väliltä [0, 1], esim. 0.5 mediaanille
+     *
+     * @return persentiiliä vastaava arvo, <code>NaN</code> jos pelikertoja ei ole
+     *
+     * @throws SQLException             jos tietokannan käsittelyssä tapahtuu virhe
+     * @throws IllegalArgumentException jos persentiili ei ole välillä [0, 1]
+     */
+    public double getPercentile(int profileId, int statisticId, double percentile) throws SQLException {
+        checkPercentile(percentile);
+
+        try (val connection = getDatabase().acquire()) {
+            val statement = connection.prepare(
+                "SELECT value FROM RunStatistics WHERE profile_id = ? AND statistic_id = ? ORDER BY value " +
+                    "LIMIT 1 OFFSET (SELECT CAST(ROUND((COUNT(*) - 1) * ?) AS INTEGER) FROM RunStatistics WHERE profile_id = ? AND statistic_id = ?)");
+            statement.setInt(1, profileId);
+            statement.setInt(2, statisticId);
+            statement.setDouble(3, percentile);
+            statement.setInt(4, profileId);
+            statement.setInt(5, statisticId);
+
+            try (val result = statement.executeQuery()) {
+                return result.next() ? result.getDouble(1) : Double.NaN;
+            }
+        }
+    }
+
+    /**
+     * Hakee statistiikan persentiilin kaikkien pelaajien pelikerroilta.
+     *
+     * @param statisticId statistiikan ID
+     * @param percentile  persentiili väliltä [0, 1], esim. 0.5 mediaanille
+     *
+     * @return persentiiliä vastaava arvo, <code>NaN</code> jos pelikertoja ei ole
+     *
+     * @throws SQLException             jos tietokannan käsittelyssä tapahtuu virhe
+     * @throws IllegalArgumentException jos persentiili ei ole välillä [0, 1]
+     */
+    public double getPercentile(int statisticId, double percentile) throws SQLException {
+        checkPercentile(percentile);
+
+        try (val connection = getDatabase().acquire()) {
+            val statement = connection.prepare(
+                "SELECT value FROM RunStatistics WHERE statistic_id = ? ORDER BY value " +
+                    "LIMIT 1 OFFSET (SELECT CAST(ROUND((COUNT(*) - 1) * ?) AS INTEGER) FROM RunStatistics WHERE statistic_id = ?)");
+            statement.setInt(1, statisticId);
+            statement.setDouble(2, percentile);
+            statement.setInt(3, statisticId);
+
+            try (val result = statement.executeQuery()) {
+                return result.next() ? result.getDouble(1) : Double.NaN;
+            }
+        }
+    }
+
+    /**
+     * Hakee statistiikan parhaat pelikerrat kaikilta pelaajilta.
+     *
+     * @param statisticId statistiikan ID jonka mukaan pelikerrat järjestetään
+     * @param limit       montako pelikertaa enintään haetaan
+     *
+     * @return pelikerrat paremmuusjärjestyksessä
+     *
+     * @throws SQLException jos tietokannan käsittelyssä tapahtuu virhe
+     */
+    public List<LeaderboardEntry> getLeaderboard(int statisticId, int limit) throws SQLException {
+        val entries = new ArrayList<LeaderboardEntry>();
+        try (val connection = getDatabase().acquire()) {
+            val statement = connection.prepare(
+                "SELECT run_id, profile_id, value FROM RunStatistics WHERE statistic_id = ? ORDER BY value DESC LIMIT ?");
+            statement.setInt(1, statisticId);
+            statement.setInt(2, limit);
+
+            try (val result = statement.executeQuery()) {
+                while (result.next()) {
+                    entries.add(new LeaderboardEntry(result.getInt("run_id"), result.getInt("profile_id"), result.getDouble("value")));
+                }
+            }
+        }
+
+        return entries;
+    }
+
+    /**
+     * Poistaa kaikki pelaajan pelikerrat.
+     *
+     * @param profileId pelaajaprofiili jonka historia poistetaan
+     *
+     * @throws SQLException jos tietokannan käsittelyssä tapahtuu virhe
+     */
+    public void removeByProfile(int profileId) throws SQLException {
+        try (val connection = getDatabase().acquire()) {
+            val removeStatistics = connection.prepare("DELETE FROM RunStatistics WHERE profile_id = ?");
+            val removeRuns = connection.prepare("DELETE FROM Runs WHERE profile_id = ?");
+            connection.beginTransaction();
+            try {
+                removeStatistics.setInt(1, profileId);
+                removeStatistics.executeUpdate();
+                removeRuns.setInt(1, profileId);
+                removeRuns.executeUpdate();
+                connection.commit();
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            }
+        }
+    }
+
+    private double queryAggregate(@NonNull String sql, int profileId, int statisticId) throws SQLException {
+        try (val connection = getDatabase().acquire()) {
+            val statement = connection.prepare(sql);
+            statement.setInt(1, profileId);
+            statement.setInt(2, statisticId);
+
+            try (val result = statement.executeQuery()) {
+                if (!result.next()) {
+                    return Double.NaN;
+                }
+
+                val value = result.getDouble(1);
+                return result.wasNull() ? Double.NaN : value;
+            }
+        }
+    }
+
+    private static void checkPercentile(double percentile) {
+        if (percentile < 0.0 || percentile > 1.0) {
+            throw new IllegalArgumentException("Percentile must be between 0 and 1!");
+        }
+    }
+
+    /**
+     * Yksittäinen rivi pelikertojen tulostaulukossa.
+     */
+    public static class LeaderboardEntry {
+        @Getter private final int runId;
+        @Getter private final int profileId;
+        @Getter private final double value;
+
+        private LeaderboardEntry(int runId, int profileId, double value) {
+            this.runId = runId;
+            this.profileId = profileId;
+            this.value = value;
+        }
+    }
+}
@@ -12,14 +12,28 @@ import toilari.otlite.game.profile.Settings;
 import java.io.IOException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 /**
- * DAO profiilikohtaisten asetusten noutamiseen JSON-tiedostoista.
+ * DAO profiilikohtaisten asetusten noutamiseen JSON-tiedostoista. Ladatut asetukset pidetään välimuistissa, joten
+ * kukin tiedosto luetaan levyltä vain kerran.
  */
 @Slf4j
 public class SettingsDAO {
+    private static final int PRELOAD_THREADS = 2;
+    private static final ExecutorService PRELOADER = createPreloader();
+
     private final Gson gson = new GsonBuilder().create();
     private final Path root;
+    private final Map<String, Settings> cache = new ConcurrentHashMap<>();
 
     /**
      * Luo uuden DAO:n joka etsii asetustiedostoja annetusta polusta.
@@ -39,7 +53,44 @@ public class SettingsDAO {
      * @throws NullPointerException jos nimi on <code>null</code>
      */
     public Settings loadByProfileName(@NonNull String name) {
+        return this.cache.computeIfAbsent(nameToKey(name), this::loadOrCreate);
+    }
+
+    /**
+     * Lataa annettujen profiilien asetustiedostot välimuistiin rinnakkain taustalla omassa säiejoukossaan. Esilataus
+     * ei koskaan kirjoita levylle: puuttuvat asetustiedostot ohitetaan, ja ne luodaan vasta kun asetuksia
+     * {@link #loadByProfileName(String) tarvitaan}.
+     *
+     * @param names profiilien nimet joiden asetukset ladataan
+     * @return tulevaisuus joka valmistuu kun kaikki asetukset on ladattu
+     * @throws NullPointerException jos nimikokoelma on <code>null</code>
+     */
+    public CompletableFuture<Void> preloadAsync(@NonNull Collection<String> names) {
+        val futures = new ArrayList<CompletableFuture<Void>>(names.size());
+        for (val name : names) {
+            val key = nameToKey(name);
+            if (!this.cache.containsKey(key)) {
+                futures.add(CompletableFuture.runAsync(() -> this.cache.computeIfAbsent(key, this::loadIfExists), PRELOADER));
+            }
+        }
+
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]));
+    }
+
+    /**
+     * Poistaa asetukset profiilin nimen perusteella.
+     *
+     * @param name profiilinimi
+     * @throws NullPointerException jos nimi on <code>null</code>
+     */
+    public void removeByName(@NonNull String name) {
         val filename = nameToKey(name);
+        // The file is deleted before evicting, so that a preload finishing in between is evicted as well
+        FileHelper.deleteFile(this.root.resolve(filename));
+        this.cache.remove(filename);
+    }
+
+    private Settings loadOrCreate(@NonNull String filename) {
         val path = this.root.resolve(filename);
         if (!FileHelper.fileExists(path.toString())) {
             try (val writer = TextFileHelper.getWriter(path)) {
@@ -58,15 +109,31 @@ public class SettingsDAO {
         }
     }
 
-    /**
-     * Poistaa asetukset profiilin nimen perusteella.
-     *
-     * @param name profiilinimi
-     * @throws NullPointerException jos nimi on <code>null</code>
-     */
-    public void removeByName(@NonNull String name) {
-        val filename = nameToKey(name);
-        FileHelper.deleteFile(this.root.resolve(filename));
+    private Settings loadIfExists(@NonNull String filename) {
+        // Never writes, so a preload racing with removeByName cannot bring a deleted file back. Returning null leaves
+        // the cache untouched.
+        val path = this.root.resolve(filename);
+        if (!FileHelper.fileExists(path.toString())) {
+            return null;
+        }
+
+        try (val reader = TextFileHelper.getReader(path)) {
+            return this.gson.fromJson(reader, Settings.class);
+        } catch (IOException e) {
+            LOG.warn("Could not preload settings from file: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private static ExecutorService createPreloader() {
+        // File reads get their own small pool instead of the common fork-join pool, which the simulations use
+        val executor = new ThreadPoolExecutor(PRELOAD_THREADS, PRELOAD_THREADS, 1, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+            val thread = new Thread(runnable, "settings-preloader");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
     }
 
     private String nameToKey(@NonNull String name) {
@@ -4,7 +4,10 @@ import lombok.NonNull;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
 import org.lwjgl.system.MemoryStack;
+import org.lwjgl.system.MemoryUtil;
+import toilari.otlite.dao.util.FileHelper;
 import toilari.otlite.dao.util.FileStreamHelper;
+import toilari.otlite.dao.util.TextureAtlasPacker;
 import toilari.otlite.view.lwjgl.Texture;
 
 import javax.imageio.ImageIO;
@@ -13,16 +16,24 @@ import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Map;
 
 import static org.lwjgl.opengl.GL11.*;
 import static org.lwjgl.opengl.GL13.GL_CLAMP_TO_BORDER;
 
 /**
- * DAO tekstuurien lataamiseen kuvatiedostoista.
+ * DAO tekstuurien lataamiseen kuvatiedostoista. Ensimmäisen latauksen yhteydessä kaikki juurihakemiston pienet
+ * kuvatiedostot pakataan yhteen tai muutamaan atlas-tekstuuriin, jolloin niistä piirtäminen ei vaadi tekstuurin
+ * vaihtamista kesken piirtojonon. Liian suuret kuvat ladataan omiksi tekstuureikseen.
  */
 @Slf4j
 public class TextureDAO extends CachingDAO<Texture, String> {
+    private static final int ATLAS_PAGE_SIZE = 1024;
+    private static final int ATLAS_PADDING = 1;
+
     @NonNull private final Path root;
+    private Map<String, Texture> atlasRegions;
 
     /**
      * Luo uuden DAOn. Tekstuureja etsitään polusta joka annetaan parametrilla <code>root</code>
@@ -43,6 +54,15 @@ public class TextureDAO extends CachingDAO<Texture, String> {
      */
     @Override
     protected Texture load(@NonNull String path) {
+        if (this.atlasRegions == null) {
+            this.atlasRegions = buildAtlases();
+        }
+
+        val region = this.atlasRegions.get(path);
+        return region != null ? region : loadStandalone(path);
+    }
+
+    private Texture loadStandalone(@NonNull String path) {
         int handle = generateGLTexture();
 
         int width, height;
@@ -53,7 +73,7 @@ public class TextureDAO extends CachingDAO<Texture, String> {
             val buffer = loadImageData(stack, image, width, height);
             glTexImage2D(GL_TEXTURE_2D, 0, GL_RGBA8, width, height, 0, GL_RGBA, GL_UNSIGNED_BYTE, buffer);
         } catch (IOException e) {
-            LOG.warn("Kuvatiedostoa \"{}\" ei löytynyt tai sitä ei voitu ladata!");
+            LOG.warn("Kuvatiedostoa \"{}\" ei löytynyt tai sitä ei voitu ladata!", path);
             return null;
         }
 
@@ -67,6 +87,65 @@ public class TextureDAO extends CachingDAO<Texture, String> {
         return texture;
     }
 
+    private Map<String, Texture> buildAtlases() {
+        val images = new HashMap<String, BufferedImage>();
+        val packer = new TextureAtlasPacker(ATLAS_PAGE_SIZE, ATLAS_PADDING);
+        FileHelper.discoverFiles(this.root, "png").forEach(file -> {
+            val key = this.root.relativize(file).toString();
+            try (val is = FileStreamHelper.openForReading(file)) {
+                val image = ImageIO.read(is);
+                if (image != null && packer.add(key, image.getWidth(), image.getHeight())) {
+                    images.put(key, image);
+                }
+            } catch (IOException e) {
+                LOG.warn("Kuvatiedostoa \"{}\" ei voitu ladata atlakseen!", key);
+            }
+        });
+
+        packer.pack();
+        val handles = new int[packer.getPageCount()];
+        for (int page = 0; page < handles.length; page++) {
+            handles[page] = uploadAtlasPage(packer, page, images);
+        }
+
+        val regions = new HashMap<String, Texture>();
+        packer.getRegions().forEach((key, region) -> regions.put(key, new Texture(
+            region.getWidth(),
+            region.getHeight(),
+            handles[region.getPage()],
+            region.getX(),
+            region.getY(),
+            packer.getPageWidth(region.getPage()),
+            packer.getPageHeight(region.getPage()))));
+
+        LOG.info("Pakattiin {} kuvaa {} atlakseen", regions.size(), handles.length);
+        return regions;
+    }
+
+    private int uploadAtlasPage(@NonNull TextureAtlasPacker packer, int page, @NonNull Map<String, BufferedImage> images) {
+        val width = packer.getPageWidth(page);
+        val height = packer.getPageHeight(page);
+
+        // Padding is left fully transparent, matching the border color the standalone textures are clamped to
+        val pixels = new int[width * height];
+        packer.getRegions().forEach((key, region) -> {
+            if (region.getPage() == page) {
+                images.get(key).getRGB(0, 0, region.getWidth(), region.getHeight(), pixels, region.getY() * width + region.getX(), width);
+            }
+        });
+
+        // Atlas pages do not fit on the thread-local stack, so the upload buffer is allocated from the heap
+        val buffer = MemoryUtil.memAlloc(width * height * 4);
+        try {
+            writePixels(buffer, pixels, width, height);
+            val handle = generateGLTexture();
+            glTexImage2D(GL_TEXTURE_2D, 0, GL_RGBA8, width, height, 0, GL_RGBA, GL_UNSIGNED_BYTE, buffer);
+            return handle;
+        } finally {
+            MemoryUtil.memFree(buffer);
+        }
+    }
+
     private static int generateGLTexture() {
         val handle = glGenTextures();
         glBindTexture(GL_TEXTURE_2D, handle);
@@ -85,6 +164,12 @@ public class TextureDAO extends CachingDAO<Texture, String> {
         image.getRGB(0, 0, width, height, pixels, 0, width);
 
         val buffer = stack.malloc(width * height * 4);
+        writePixels(buffer, pixels, width, height);
+
+        return buffer;
+    }
+
+    private static void writePixels(@NonNull ByteBuffer buffer, int[] pixels, int width, int height) {
         for (int y = 0; y < height; y++) {
             for (int x = 0; x < width; x++) {
                 int pixel = pixels[y * width + x];
@@ -96,7 +181,5 @@ public class TextureDAO extends CachingDAO<Texture, String> {
         }
 
         buffer.flip();
-
-        return buffer;
     }
 }
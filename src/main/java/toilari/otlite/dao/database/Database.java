@@ -3,18 +3,29 @@ package toilari.otlite.dao.database;
 import lombok.NonNull;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
+import org.sqlite.SQLiteConfig;
 import toilari.otlite.dao.util.FileHelper;
 
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Properties;
 
 /**
- * Apuluokka tietokantayhteyden hallinnointiin.
+ * Apuluokka tietokantayhteyden hallinnointiin. Pitää yllä pientä poolia pitkäikäisiä yhteyksiä, jotta jokainen kysely
+ * ei joutuisi avaamaan tietokantatiedostoa ja lukemaan sen skeemaa uudelleen.
  */
 @Slf4j
-public class Database {
+public class Database implements AutoCloseable {
+    private static final int MAX_IDLE_CONNECTIONS = 4;
+
     @NonNull private final String databaseUrl;
+    @NonNull private final Properties connectionProperties;
+
+    private final Deque<PooledConnection> idle = new ArrayDeque<>();
+    private boolean closed;
 
     /**
      * Luo uuden tietokannan annettuun polkuun. Jos tietokantaa ei ole olemassa, sellainen luodaan.
@@ -25,24 +36,71 @@ public class Database {
     public Database(@NonNull String databasePath) throws SQLException {
         this.databaseUrl = "jdbc:sqlite:" + databasePath;
 
+        // WAL lets readers proceed during writes and, with NORMAL sync, a commit no longer waits for an fsync
+        val config = new SQLiteConfig();
+        config.setJournalMode(SQLiteConfig.JournalMode.WAL);
+        config.setSynchronous(SQLiteConfig.SynchronousMode.NORMAL);
+        this.connectionProperties = config.toProperties();
+
         if (!FileHelper.fileExists(databasePath)) {
             FileHelper.createFile(databasePath);
         }
 
-        try (val connection = getConnection()) {
+        try (val connection = acquire()) {
+            LOG.info("Connected to the database at \"{}\"", databasePath);
+        }
+    }
+
+    /**
+     * Lainaa poolista yhteyden tietokantaan. Yhteys palautetaan pooliin sulkemalla se, joten lainaus kannattaa tehdä
+     * <code>try-with-resources</code> -lohkossa.
+     *
+     * @return yhteys tietokantaan
+     * @throws SQLException jos uuden yhteyden luominen epäonnistuu
+     */
+    public PooledConnection acquire() throws SQLException {
+        synchronized (this.idle) {
+            val connection = this.idle.pollFirst();
             if (connection != null) {
-                LOG.info("Connected to the database at \"{}\"", databasePath);
+                return connection;
             }
         }
+
+        return new PooledConnection(this, getConnection());
     }
 
     /**
-     * Hakee yhteyden tietokantaan kyselyitä varten.
+     * Avaa uuden, poolin ulkopuolisen yhteyden tietokantaan. Kutsujan vastuulla on sulkea yhteys.
      *
      * @return yhteys tietokantaan
      * @throws SQLException jos yhteyden luominen epäonnistuu
      */
     public Connection getConnection() throws SQLException {
-        return DriverManager.getConnection(this.databaseUrl);
+        return DriverManager.getConnection(this.databaseUrl, this.connectionProperties);
+    }
+
+    /**
+     * Sulkee kaikki poolissa odottavat yhteydet. Tämän jälkeen palautetut yhteydet suljetaan saman tien.
+     */
+    @Override
+    public void close() {
+        synchronized (this.idle) {
+            this.closed = true;
+            for (val connection : this.idle) {
+                connection.destroy();
+            }
+            this.idle.clear();
+        }
+    }
+
+    void release(@NonNull PooledConnection connection) {
+        synchronized (this.idle) {
+            if (!this.closed && this.idle.size() < MAX_IDLE_CONNECTIONS && connection.isUsable()) {
+                this.idle.addFirst(connection);
+                return;
+            }
+        }
+
+        connection.destroy();
     }
 }
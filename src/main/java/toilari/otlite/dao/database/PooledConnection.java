@@ -0,0 +1,130 @@
+package toilari.otlite.dao.database;
+
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import lombok.var;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Tietokannan yhteyspoolista lainattu pitkäikäinen yhteys. Yhteys pitää välimuistia valmistelluista kyselyistä, joten
+ * saman kyselyn toistuva suorittaminen ei vaadi kyselyn jäsentämistä uudelleen. Yhteyden sulkeminen palauttaa sen
+ * pooliin.
+ */
+@Slf4j
+public class PooledConnection implements AutoCloseable {
+    @NonNull private final Database owner;
+    @NonNull private final Connection connection;
+    private final Map<String, PreparedStatement> statements = new HashMap<>();
+
+    PooledConnection(@NonNull Database owner, @NonNull Connection connection) {
+        this.owner = owner;
+        this.connection = connection;
+    }
+
+    /**
+     * Hakee valmistellun kyselyn. Kysely valmistellaan vain ensimmäisellä kerralla, minkä jälkeen sama kysely
+     * palautetaan välimuistista tyhjennetyin parametrein. Palautettua kyselyä ei tule sulkea.
+     *
+     * @param sql kyselyn SQL-lause
+     * @return valmisteltu kysely
+     * @throws SQLException         jos kyselyn valmistelu epäonnistuu
+     * @throws NullPointerException jos SQL-lause on <code>null</code>
+     */
+    public PreparedStatement prepare(@NonNull String sql) throws SQLException {
+        var statement = this.statements.get(sql);
+        if (statement == null || statement.isClosed()) {
+            statement = this.connection.prepareStatement(sql);
+            this.statements.put(sql, statement);
+        } else {
+            statement.clearParameters();
+        }
+
+        return statement;
+    }
+
+    /**
+     * Suorittaa kertaluontoisen SQL-lauseen, esim. taulun luonnin. Lausetta ei tallenneta välimuistiin.
+     *
+     * @param sql suoritettava SQL-lause
+     * @throws SQLException         jos lauseen suorittaminen epäonnistuu
+     * @throws NullPointerException jos SQL-lause on <code>null</code>
+     */
+    public void execute(@NonNull String sql) throws SQLException {
+        try (val statement = this.connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    /**
+     * Aloittaa transaktion. Transaktio on päätettävä kutsumalla {@link #commit()} tai {@link #rollback()}.
+     *
+     * @throws SQLException jos transaktion aloittaminen epäonnistuu
+     */
+    public void beginTransaction() throws SQLException {
+        this.connection.setAutoCommit(false);
+    }
+
+    /**
+     * Vahvistaa käynnissä olevan transaktion muutokset.
+     *
+     * @throws SQLException jos muutosten vahvistaminen epäonnistuu
+     */
+    public void commit() throws SQLException {
+        try {
+            this.connection.commit();
+        } finally {
+            this.connection.setAutoCommit(true);
+        }
+    }
+
+    /**
+     * Peruu käynnissä olevan transaktion muutokset. Ei tee mitään jos transaktiota ei ole käynnissä.
+     *
+     * @throws SQLException jos muutosten peruminen epäonnistuu
+     */
+    public void rollback() throws SQLException {
+        if (this.connection.getAutoCommit()) {
+            return;
+        }
+
+        try {
+            this.connection.rollback();
+        } finally {
+            this.connection.setAutoCommit(true);
+        }
+    }
+
+    /**
+     * Palauttaa yhteyden pooliin. Yhteyttä ei saa käyttää enää tämän jälkeen.
+     */
+    @Override
+    public void close() {
+        this.owner.release(this);
+    }
+
+    boolean isUsable() {
+        try {
+            return !this.connection.isClosed() && this.connection.getAutoCommit();
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    void destroy() {
+        try {
+            for (val statement : this.statements.values()) {
+                statement.close();
+            }
+            this.statements.clear();
+            this.connection.close();
+        } catch (SQLException e) {
+            LOG.warn("Closing a pooled connection failed: {}", e.getMessage());
+        }
+    }
+}
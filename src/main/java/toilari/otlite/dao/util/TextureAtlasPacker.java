@@ -0,0 +1,198 @@
+package toilari.otlite.dao.util;
+
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.val;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Pakkaa joukon kuvia yhdelle tai useammalle atlas-sivulle. Kuvat asetellaan hyllyittäin korkeusjärjestyksessä,
+ * jolloin saman hyllyn kuvat ovat suunnilleen samankorkuisia eikä tilaa jää juuri hukkaan. Jokaisen kuvan ympärille
+ * jätetään tyhjä reunus, jotta näytteistys ei vuoda viereisistä kuvista.
+ */
+public class TextureAtlasPacker {
+    private final int pageSize;
+    private final int padding;
+
+    private final List<Entry> entries = new ArrayList<>();
+    private final Map<String, Region> regions = new HashMap<>();
+    private final List<int[]> pageSizes = new ArrayList<>();
+
+    /**
+     * Luo uuden pakkaajan.
+     *
+     * @param pageSize atlas-sivun leveys ja korkeus enimmillään
+     * @param padding  tyhjän reunuksen leveys jokaisen kuvan ympärillä
+     * @throws IllegalArgumentException jos sivun koko ei ole positiivinen tai reunus on negatiivinen
+     */
+    public TextureAtlasPacker(int pageSize, int padding) {
+        if (pageSize <= 0 || padding < 0) {
+            throw new IllegalArgumentException("Page size must be positive and padding non-negative!");
+        }
+
+        this.pageSize = pageSize;
+        this.padding = padding;
+    }
+
+    /**
+     * Lisää kuvan pakattavaksi. Kuvaa ei lisätä mikäli se ei reunuksineen mahdu yhdelle sivulle.
+     *
+     * @param key    kuvan tunniste
+     * @param width  kuvan leveys
+     * @param height kuvan korkeus
+     * @return <code>true</code> jos kuva lisättiin, <code>false</code> jos se on liian suuri pakattavaksi
+     * @throws NullPointerException     jos tunniste on <code>null</code>
+     * @throws IllegalArgumentException jos leveys tai korkeus ei ole positiivinen
+     */
+    public boolean add(@NonNull String key, int width, int height) {
+        if (width <= 0 || height <= 0) {
+            throw new IllegalArgumentException("Image dimensions must be positive!");
+        }
+
+        if (width + 2 * this.padding > this.pageSize || height + 2 * this.padding > this.pageSize) {
+            return false;
+        }
+
+        this.entries.add(new Entry(key, width, height));
+        return true;
+    }
+
+    /**
+     * Asettelee kaikki lisätyt kuvat sivuille. Aiemman pakkauksen tulokset korvataan.
+     */
+    public void pack() {
+        this.regions.clear();
+        this.pageSizes.clear();
+
+        val sorted = new ArrayList<Entry>(this.entries);
+        sorted.sort(Comparator.comparingInt((Entry e) -> e.height).thenComparingInt(e -> e.width).reversed());
+
+        int page = -1;
+        int shelfX = 0;
+        int shelfY = 0;
+        int shelfHeight = 0;
+        int usedWidth = 0;
+        int usedHeight = 0;
+        for (val entry : sorted) {
+            val cellWidth = entry.width + 2 * this.padding;
+            val cellHeight = entry.height + 2 * this.padding;
+
+            if (page >= 0 && shelfX + cellWidth > this.pageSize) {
+                shelfX = 0;
+                shelfY += shelfHeight;
+                shelfHeight = 0;
+            }
+
+            if (page < 0 || shelfY + cellHeight > this.pageSize) {
+                if (page >= 0) {
+                    this.pageSizes.add(new int[]{roundUpToPowerOfTwo(usedWidth), roundUpToPowerOfTwo(usedHeight)});
+                }
+                page++;
+                shelfX = 0;
+                shelfY = 0;
+                shelfHeight = 0;
+                usedWidth = 0;
+                usedHeight = 0;
+            }
+
+            this.regions.put(entry.key, new Region(page, shelfX + this.padding, shelfY + this.padding, entry.width, entry.height));
+            shelfX += cellWidth;
+            shelfHeight = Math.max(shelfHeight, cellHeight);
+            usedWidth = Math.max(usedWidth, shelfX);
+            usedHeight = Math.max(usedHeight, shelfY + shelfHeight);
+        }
+
+        if (page >= 0) {
+            this.pageSizes.add(new int[]{roundUpToPowerOfTwo(usedWidth), roundUpToPowerOfTwo(usedHeight)});
+        }
+    }
+
+    /**
+     * Hakee pakattujen sivujen lukumäärän.
+     *
+     * @return montako sivua viimeisin pakkaus tuotti
+     */
+    public int getPageCount() {
+        return this.pageSizes.size();
+    }
+
+    /**
+     * Hakee sivun leveyden. Sivu rajataan käytettyyn alueeseen ja pyöristetään ylöspäin kahden potenssiin.
+     *
+     * @param page sivun indeksi
+     * @return sivun leveys
+     */
+    public int getPageWidth(int page) {
+        return this.pageSizes.get(page)[0];
+    }
+
+    /**
+     * Hakee sivun korkeuden. Sivu rajataan käytettyyn alueeseen ja pyöristetään ylöspäin kahden potenssiin.
+     *
+     * @param page sivun indeksi
+     * @return sivun korkeus
+     */
+    public int getPageHeight(int page) {
+        return this.pageSizes.get(page)[1];
+    }
+
+    /**
+     * Hakee kuvan sijainnin atlaksessa.
+     *
+     * @param key kuvan tunniste
+     * @return <code>null</code> jos kuvaa ei pakattu, muulloin kuvan sijainti
+     */
+    public Region getRegion(@NonNull String key) {
+        return this.regions.get(key);
+    }
+
+    /**
+     * Hakee kaikkien pakattujen kuvien sijainnit.
+     *
+     * @return muokkaamaton näkymä kuvien sijainteihin tunnisteittain
+     */
+    public Map<String, Region> getRegions() {
+        return Collections.unmodifiableMap(this.regions);
+    }
+
+    private static int roundUpToPowerOfTwo(int value) {
+        return value <= 1 ? 1 : Integer.highestOneBit(value - 1) << 1;
+    }
+
+    /**
+     * Pakatun kuvan sijainti atlaksessa.
+     */
+    public static class Region {
+        @Getter private final int page;
+        @Getter private final int x;
+        @Getter private final int y;
+        @Getter private final int width;
+        @Getter private final int height;
+
+        private Region(int page, int x, int y, int width, int height) {
+            this.page = page;
+            this.x = x;
+            this.y = y;
+            this.width = width;
+            this.height = height;
+        }
+    }
+
+    private static class Entry {
+        private final String key;
+        private final int width;
+        private final int height;
+
+        private Entry(String key, int width, int height) {
+            this.key = key;
+            this.width = width;
+            this.height = height;
+        }
+    }
+}
@@ -2,6 +2,7 @@ package toilari.otlite.game;
 
 import lombok.Getter;
 import lombok.NonNull;
+import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
 import lombok.var;
@@ -20,19 +21,73 @@ import java.util.Map;
  */
 @Slf4j
 public abstract class AbstractGameRunner<T extends Camera> {
-    @NonNull private final Map<Class, IGameStateRenderer> stateRendererMappings;
+    /**
+     * Simulaation oletuspäivitystaajuus.
+     */
+    public static final int DEFAULT_TICKS_PER_SECOND = 60;
+
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+    private static final long MAX_FRAME_NANOS = 250_000_000L;
+    private static final long SLEEP_PRECISION_NANOS = 2_000_000L;
+    private static final int MAX_TICKS_PER_FRAME = 5;
+    private static final long REDRAW_GRACE_NANOS = 250_000_000L;
+
+    private final Map<Class, IGameStateRenderer> stateRendererMappings;
 
     @NonNull @Getter private final Game game;
 
     @Getter private T camera;
 
+    /**
+     * Montako kertaa sekunnissa simulaatiota päivitetään.
+     *
+     * @return päivityksiä sekunnissa
+     */
+    @Getter private int ticksPerSecond = DEFAULT_TICKS_PER_SECOND;
+
+    /**
+     * Piirretäänkö peli vain tarvittaessa. Tällöin uusi kuva piirretään vain syötteen tai pelitilan muuttuessa,
+     * hetken aikaa muutoksen jälkeen, sekä silloin kun pelitilan piirtäjän {@link IGameStateRenderer#getRedrawDelay
+     * animaatiot} sitä vaativat. Simulaatiota päivitetään edelleen normaalisti.
+     *
+     * @param renderOnDemand <code>true</code> jos peli piirretään vain tarvittaessa
+     * @return <code>true</code> jos peli piirretään vain tarvittaessa
+     */
+    @Getter @Setter private boolean renderOnDemand;
+
+    private volatile boolean redrawRequested = true;
+    private long continuousRedrawUntil;
+    private long scheduledRedraw;
+
     protected AbstractGameRunner(@NonNull Game game, @NonNull Map<Class, IGameStateRenderer> stateRendererMappings) {
         this.game = game;
         this.stateRendererMappings = stateRendererMappings;
         this.game.setStateChangeCallback(this::onStateChange);
     }
 
-    private void onStateChange(GameState old, @NonNull GameState newState) {
+    /**
+     * Luo pelin suorittajan joka ei piirrä peliä lainkaan. Pelitiloille ei tällöin tarvitse rekisteröidä piirtäjiä.
+     *
+     * @param game peli jota suoritetaan
+     */
+    protected AbstractGameRunner(@NonNull Game game) {
+        this.game = game;
+        this.stateRendererMappings = null;
+        this.game.setStateChangeCallback(this::onStateChange);
+    }
+
+    /**
+     * Kutsutaan kun pelin aktiivinen pelitila vaihtuu. Vapauttaa vanhan pelitilan piirtäjän ja alustaa uuden.
+     *
+     * @param old      edellinen pelitila, <code>null</code> jos pelitilaa ei ollut
+     * @param newState uusi pelitila
+     */
+    protected void onStateChange(GameState old, @NonNull GameState newState) {
+        requestRedraw();
+        if (this.stateRendererMappings == null) {
+            return;
+        }
+
         if (old != null) {
             val oldRenderer = this.stateRendererMappings.get(old.getClass());
             if (oldRenderer != null) {
@@ -76,6 +131,10 @@ public abstract class AbstractGameRunner<T extends Camera> {
      * @param camera kamera jonka näkökulmasta piiretään
      */
     protected void display(@NonNull T camera) {
+        if (this.stateRendererMappings == null) {
+            return;
+        }
+
         val state = getGame().getCurrentGameState();
         val stateRenderer = this.stateRendererMappings.get(state.getClass());
         if (stateRenderer == null) {
@@ -85,6 +144,41 @@ public abstract class AbstractGameRunner<T extends Camera> {
         stateRenderer.draw(camera, state);
     }
 
+    /**
+     * Pyytää piirtämään pelin uudelleen seuraavan päivityksen jälkeen. Vaikuttaa vain mikäli peli
+     * {@link #isRenderOnDemand() piirretään vain tarvittaessa}. Voidaan kutsua mistä tahansa säikeestä.
+     */
+    public void requestRedraw() {
+        this.redrawRequested = true;
+    }
+
+    /**
+     * Käsittelee käyttöliittymän tapahtumat. Kutsutaan ennen jokaista simulaation päivitysjaksoa.
+     */
+    protected void pollEvents() {
+    }
+
+    /**
+     * Tahdistuuko piirtäminen näytön virkistystaajuuteen, eli odottaako {@link #display(Object)} itse seuraavaa
+     * näytön päivitystä. Tällöin peli piirretään näytön taajuudella simulaation päivitystaajuudesta riippumatta.
+     * Muulloin peli piirretään vain simulaation edettyä, jottei säie piirtäisi samaa kuvaa jatkuvasti.
+     *
+     * @return <code>true</code> jos piirtäminen on tahdistettu näyttöön
+     */
+    protected boolean isDisplaySynchronized() {
+        return false;
+    }
+
+    /**
+     * Odottaa kunnes seuraava päivitys on tarpeen. Toteutukset voivat palata aiemmin mikäli käyttöliittymään
+     * saapuu tapahtumia.
+     *
+     * @param timeoutNanos enimmäisaika jonka odotetaan
+     */
+    protected void waitForEvents(long timeoutNanos) {
+        sleepUntil(System.nanoTime() + timeoutNanos);
+    }
+
     /**
      * Luo uuden syötteenkäsittelijän. Kutsutaan kerran {@link #init()} jälkeen, ennen päälooppiin siirtymistä.
      *
@@ -100,31 +194,121 @@ public abstract class AbstractGameRunner<T extends Camera> {
     protected abstract T createCamera();
 
     /**
-     * Aloittaa pelin suorittamisen.
+     * Asettaa simulaation päivitystaajuuden.
+     *
+     * @param ticksPerSecond päivityksiä sekunnissa
+     * @throws IllegalArgumentException jos taajuus ei ole positiivinen
+     */
+    public void setTicksPerSecond(int ticksPerSecond) {
+        if (ticksPerSecond <= 0) {
+            throw new IllegalArgumentException("Tick rate must be positive!");
+        }
+
+        this.ticksPerSecond = ticksPerSecond;
+    }
+
+    /**
+     * Aloittaa pelin suorittamisen. Simulaatiota päivitetään kiinteällä {@link #getTicksPerSecond() taajuudella}
+     * riippumatta siitä kuinka nopeasti peliä piirretään. Mikäli piirtäminen on {@link #isDisplaySynchronized()
+     * tahdistettu näyttöön}, peli piirretään näytön taajuudella myös niillä kierroksilla joilla simulaatio ei edennyt.
+     * Muulloin peli piirretään vasta kun simulaatio on edennyt vähintään yhden päivityksen verran, ja säie odottaa
+     * päivitysten välillä. Mikäli peli {@link #isRenderOnDemand() piirretään vain tarvittaessa}, piirtäminen
+     * jätetään väliin aina kun kuva ei olisi muuttunut.
      */
     public void run() {
         init();
 
-        var time = System.currentTimeMillis();
+        var previous = System.nanoTime();
+        var accumulator = 0L;
         while (this.game.isRunning()) {
-            val current = System.currentTimeMillis();
-            val elapsed = current - time;
-            val delta = elapsed / 1000.0f;
-            time = current;
+            val stepNanos = NANOS_PER_SECOND / this.ticksPerSecond;
+            val now = System.nanoTime();
+            accumulator += Math.min(now - previous, MAX_FRAME_NANOS);
+            previous = now;
+
+            val tickDue = accumulator >= stepNanos;
+            if (!tickDue && !isDisplaySynchronized()) {
+                waitForEvents(stepNanos - accumulator);
+                continue;
+            }
+
+            pollEvents();
 
-            runTick(delta);
+            val stepSeconds = 1.0f / this.ticksPerSecond;
+            var steps = 0;
+            while (accumulator >= stepNanos && steps < MAX_TICKS_PER_FRAME && this.game.isRunning()) {
+                simulate(stepSeconds);
+                accumulator -= stepNanos;
+                steps++;
+            }
+
+            // Drop whatever could not be caught up with instead of trying to catch up forever
+            accumulator %= stepNanos;
+
+            if (this.game.isRunning() && shouldDisplay(System.nanoTime())) {
+                display(this.camera);
+                scheduleRedraw(System.nanoTime());
+            } else if (!tickDue) {
+                // Nothing was drawn, so there is no display to wait on either
+                waitForEvents(stepNanos - accumulator);
+            }
         }
         destroy();
     }
 
+    private boolean shouldDisplay(long now) {
+        if (!this.renderOnDemand) {
+            return true;
+        }
+
+        if (this.redrawRequested) {
+            // Keep drawing for a moment, the effects of an input often take a few updates to show up
+            this.redrawRequested = false;
+            this.continuousRedrawUntil = now + REDRAW_GRACE_NANOS;
+            return true;
+        }
+
+        return now < this.continuousRedrawUntil || now >= this.scheduledRedraw;
+    }
+
+    private void scheduleRedraw(long now) {
+        if (!this.renderOnDemand || this.stateRendererMappings == null) {
+            return;
+        }
+
+        val state = getGame().getCurrentGameState();
+        val stateRenderer = this.stateRendererMappings.get(state.getClass());
+        val delay = stateRenderer == null ? 0.0f : stateRenderer.getRedrawDelay(state);
+        this.scheduledRedraw = delay >= Long.MAX_VALUE / (float) NANOS_PER_SECOND
+            ? Long.MAX_VALUE
+            : now + (long) (Math.max(0.0f, delay) * NANOS_PER_SECOND);
+    }
+
     /**
-     * Simuloi peliä yhden päivityssyklin verran.
+     * Simuloi peliä yhden päivityssyklin verran ja piirtää pelin.
      *
      * @param delta viimeisimmästä päivityksestä kulunut aika
      */
     public void runTick(float delta) {
+        simulate(delta);
+        display(this.camera);
+    }
+
+    private void simulate(float delta) {
         Input.getHandler().update();
         this.game.update(delta);
-        display(this.camera);
+    }
+
+    private static void sleepUntil(long deadline) {
+        val remaining = deadline - System.nanoTime();
+        if (remaining > SLEEP_PRECISION_NANOS) {
+            try {
+                Thread.sleep((remaining - SLEEP_PRECISION_NANOS) / 1_000_000L);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        } else {
+            Thread.yield();
+        }
     }
 }
@@ -7,6 +7,7 @@ import lombok.extern.slf4j.Slf4j;
 import lombok.val;
 import toilari.otlite.dao.IGetAllDAO;
 import toilari.otlite.dao.ProfileDAO;
+import toilari.otlite.dao.database.Database;
 import toilari.otlite.dao.serialization.IGetByIDDao;
 import toilari.otlite.game.profile.Profile;
 import toilari.otlite.game.profile.statistics.StatisticsManager;
@@ -60,6 +61,14 @@ public class Game {
 
     @Setter private StateChangeCallback stateChangeCallback;
 
+    /**
+     * Tietokanta joka suljetaan kun peli {@link #destroy() tuhotaan}, jolloin poolin yhteydet suljetaan ja
+     * tietokannan loki kirjoitetaan tietokantatiedostoon.
+     *
+     * @param database pelin käyttämä tietokanta, <code>null</code> jos tietokantaa ei suljeta
+     */
+    @Setter private Database database;
+
 
     /**
      * Luo uuden peli-instanssin.
@@ -105,6 +114,9 @@ public class Game {
     public void changeState(@NonNull GameState newState) {
         LOG.info("Changing the game state to: {}", newState);
 
+        // States may read statistics right away, so buffered changes are written before switching
+        this.statistics.flush();
+
         if (this.currentGameState != null) {
             this.currentGameState.destroy();
             this.currentGameState.setGame(null);
@@ -155,6 +167,10 @@ public class Game {
      */
     public void destroy() {
         this.currentGameState.destroy();
+        this.statistics.close();
+        if (this.database != null) {
+            this.database.close();
+        }
     }
 
     TurnObjectManager getNewObjectManager() {
@@ -42,6 +42,7 @@ public class PlayGameState extends GameState {
         this.characters = characters;
 
         this.manager.setGameState(this);
+        this.manager.setTurnBatchBudgetNanos(TurnObjectManager.DEFAULT_TURN_BATCH_BUDGET_NANOS);
         this.world = new World(manager, tiles, levels, characters);
     }
 
@@ -56,6 +57,7 @@ public class PlayGameState extends GameState {
         this.manager.setPlayer(player);
         val levelId = getGame().getInitialLevelId();
         this.world.changeLevel(levelId);
+        getGame().getStatistics().startRun(getGame().getActiveProfile().getId());
 
         LOG.info("Initialization finished.");
 
@@ -66,6 +68,11 @@ public class PlayGameState extends GameState {
         getEventSystem().subscribeTo(PlayEvent.ReturnToMenuAfterLoss.class, (e) -> getGame().changeState(new MainMenuGameState()));
         getEventSystem().subscribeTo(PlayEvent.CloseMenu.class, (e) -> this.menuOpen = false);
         getEventSystem().subscribeTo(CharacterEvent.LevelUp.class, this::onCharacterLevelUp);
+        getEventSystem().subscribeTo(CharacterEvent.Death.class, e -> {
+            if (e.getCharacter().equals(this.manager.getPlayer())) {
+                getGame().getStatistics().endRun(true);
+            }
+        });
 
         getEventSystem().subscribeTo(PlayEvent.NextFloor.class, (e) -> {
             val levels = this.manager.getPlayer().getLevels();
@@ -95,5 +102,7 @@ public class PlayGameState extends GameState {
 
     @Override
     public void destroy() {
+        // Leaving the state without dying, e.g. quitting to menu, still counts as a finished run
+        getGame().getStatistics().endRun(false);
     }
 }
@@ -79,6 +79,7 @@ public class ProfileSelectGameState extends GameState {
     private void onRemove(@NonNull ProfileMenuEvent.Remove event) {
         try {
             getGame().getProfiles().remove(event.getProfile());
+            getGame().getStatistics().removeRunHistory(event.getProfile().getId());
             getEventSystem().fire(new ProfileMenuEvent.Removed(event.getProfile()));
         } catch (SQLException e) {
             ProfileSelectGameState.LOG.error("Creating profile failed, trying to shut down gracefully.");
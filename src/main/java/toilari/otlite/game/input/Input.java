@@ -1,11 +1,13 @@
 package toilari.otlite.game.input;
 
 import lombok.NonNull;
+import lombok.val;
 
 /**
  * Apumetodeja käyttäjän syötteen käsittelyyn.
  */
 public class Input {
+    private static final ThreadLocal<IInputHandler> THREAD_INSTANCE = new ThreadLocal<>();
     private static IInputHandler instance;
 
     /**
@@ -19,11 +21,35 @@ public class Input {
     }
 
     /**
-     * Hakee syötekäsittelijän instanssin.
+     * Asettaa syötekäsittelijän jota käytetään ainoastaan kutsuvassa säikeessä. Mahdollistaa useiden toisistaan
+     * riippumattomien pelimaailmojen simuloinnin rinnakkain omilla syötteillään.
+     *
+     * @param handler säikeen syötekäsittelijä, <code>null</code> palauttaa säikeen käyttämään yhteistä käsittelijää
+     */
+    public static void setThreadHandler(IInputHandler handler) {
+        if (handler == null) {
+            THREAD_INSTANCE.remove();
+        } else {
+            THREAD_INSTANCE.set(handler);
+        }
+    }
+
+    /**
+     * Hakee kutsuvalle säikeelle asetetun oman syötekäsittelijän.
+     *
+     * @return säikeen syötekäsittelijä, <code>null</code> jos säie käyttää yhteistä käsittelijää
+     */
+    public static IInputHandler getThreadHandler() {
+        return THREAD_INSTANCE.get();
+    }
+
+    /**
+     * Hakee syötekäsittelijän instanssin. Mikäli kutsuvalle säikeelle on asetettu oma käsittelijä, palautetaan se.
      *
      * @return syötekäsittelijän instanssi
      */
     public static IInputHandler getHandler() {
-        return Input.instance;
+        val threadHandler = THREAD_INSTANCE.get();
+        return threadHandler != null ? threadHandler : Input.instance;
     }
 }
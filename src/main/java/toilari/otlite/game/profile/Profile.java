@@ -1,18 +1,65 @@
 package toilari.otlite.game.profile;
 
-import lombok.AllArgsConstructor;
 import lombok.Getter;
+import lombok.NonNull;
+
+import java.util.function.Supplier;
 
 /**
  * Pelaajaprofiili.
  */
-@AllArgsConstructor
 public class Profile {
     @Getter private final int id;
     @Getter private final String name;
-    @Getter private final Settings settings;
+    private Settings settings;
+    private Supplier<Settings> settingsLoader;
     private boolean unfinishedSave;
 
+    /**
+     * Luo uuden profiilin valmiiksi ladatuilla asetuksilla.
+     *
+     * @param id             profiilin ID
+     * @param name           profiilin nimi
+     * @param settings       profiilin asetukset
+     * @param unfinishedSave onko profiililla keskeneräistä peliä
+     */
+    public Profile(int id, String name, Settings settings, boolean unfinishedSave) {
+        this.id = id;
+        this.name = name;
+        this.settings = settings;
+        this.unfinishedSave = unfinishedSave;
+    }
+
+    /**
+     * Luo uuden profiilin jonka asetukset ladataan vasta kun niitä tarvitaan ensimmäisen kerran.
+     *
+     * @param id             profiilin ID
+     * @param name           profiilin nimi
+     * @param settingsLoader funktio jolla asetukset ladataan
+     * @param unfinishedSave onko profiililla keskeneräistä peliä
+     * @throws NullPointerException jos latausfunktio on <code>null</code>
+     */
+    public Profile(int id, String name, @NonNull Supplier<Settings> settingsLoader, boolean unfinishedSave) {
+        this.id = id;
+        this.name = name;
+        this.settingsLoader = settingsLoader;
+        this.unfinishedSave = unfinishedSave;
+    }
+
+    /**
+     * Hakee profiilin asetukset. Asetukset ladataan ensimmäisellä kutsukerralla mikäli niitä ei ole vielä ladattu.
+     *
+     * @return profiilin asetukset
+     */
+    public synchronized Settings getSettings() {
+        if (this.settingsLoader != null) {
+            this.settings = this.settingsLoader.get();
+            this.settingsLoader = null;
+        }
+
+        return this.settings;
+    }
+
     /**
      * Kertoo onko pelaajalla tallennettua keskeneräistä peliä jota jatkaa.
      *
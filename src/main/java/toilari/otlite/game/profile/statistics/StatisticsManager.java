@@ -4,15 +4,51 @@ import lombok.NonNull;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
 import toilari.otlite.dao.PlayerStatisticDAO;
+import toilari.otlite.dao.RunHistoryDAO;
 
 import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Statistiikkamanageri. Hallinnoi pelaajaprofiilien statistiikkatietoja
+ * <p>
+ * Kasvatukset kerätään ensin muistiin ja kirjoitetaan tietokantaan erissä taustasäikeessä, jotta pelisilmukan ei
+ * tarvitse odottaa levylle kirjoittamista. Haut huomioivat vielä kirjoittamattomat muutokset.
+ * <p>
+ * Mikäli managerille annetaan pelikertahistorian DAO, käynnissä olevan pelikerran kasvatukset kerätään myös erikseen
+ * ja tallennetaan historiaan pelikerran päättyessä.
  */
 @Slf4j
-public class StatisticsManager {
+public class StatisticsManager implements AutoCloseable {
+    private static final long FLUSH_INTERVAL_MILLIS = 5000;
+    private static final int NO_RUN = -1;
+    private static final Statistics[] STATISTICS = Statistics.values();
+    private static final int[] STATISTIC_IDS = new int[STATISTICS.length];
+    private static final double[] DEFAULT_VALUES = new double[STATISTICS.length];
+
+    static {
+        for (val stat : STATISTICS) {
+            STATISTIC_IDS[stat.ordinal()] = stat.getId();
+            DEFAULT_VALUES[stat.ordinal()] = stat.getDefaultValue();
+        }
+    }
+
     private final PlayerStatisticDAO playerStatistics;
+    private final RunHistoryDAO runHistory;
+
+    private final Map<Integer, double[]> pending = new HashMap<>();
+    private final double[] runTotals = new double[STATISTICS.length];
+    private int runProfileId = NO_RUN;
+    private long runStartedAt;
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private ScheduledExecutorService writer;
 
     /**
      * Luo uuden statistiikkamanagerin käyttäen annettua tietokantaa tiedon tallennukseen.
@@ -21,6 +57,18 @@ public class StatisticsManager {
      */
     public StatisticsManager(@NonNull PlayerStatisticDAO statistics) {
         this.playerStatistics = statistics;
+        this.runHistory = null;
+    }
+
+    /**
+     * Luo uuden statistiikkamanagerin joka tallentaa myös pelikertojen historian.
+     *
+     * @param statistics dao jolla pelaajan statistiikkoihin pääsee käsiksi
+     * @param runHistory dao jolla pelikertojen historia tallennetaan
+     */
+    public StatisticsManager(@NonNull PlayerStatisticDAO statistics, @NonNull RunHistoryDAO runHistory) {
+        this.playerStatistics = statistics;
+        this.runHistory = runHistory;
     }
 
     /**
@@ -31,9 +79,7 @@ public class StatisticsManager {
      * @throws SQLException jos tietokannan käsittelyssä tapahtuu virhe
      */
     public void startTrackingProfile(int profileId) throws SQLException {
-        for (val stat : Statistics.values()) {
-            this.playerStatistics.addButDoNotReplace(profileId, stat.getId(), stat.getDefaultValue());
-        }
+        this.playerStatistics.addAllButDoNotReplace(profileId, STATISTIC_IDS, DEFAULT_VALUES);
     }
 
     /**
@@ -62,16 +108,45 @@ public class StatisticsManager {
      * @throws NullPointerException jos haettava statistiikka on <code>null</code>
      */
     public double getDouble(@NonNull Statistics key, int profileId) {
+        // Holding the flush lock guarantees that no batch is half-way between the buffer and the database
+        this.flushLock.lock();
         try {
-            return this.playerStatistics.get(profileId, key.getId());
+            return this.playerStatistics.get(profileId, key.getId()) + getPending(key, profileId);
         } catch (SQLException e) {
             LOG.warn("Could not get statistic {} for profile {}", key.getName(), profileId);
             return Double.NaN;
+        } finally {
+            this.flushLock.unlock();
+        }
+    }
+
+    /**
+     * Hakee kaikki profiilin statistiikkatiedot yhdellä tietokantakyselyllä.
+     *
+     * @param profileId profiili jonka tiedot haetaan
+     *
+     * @return statistiikkojen nykyiset arvot, tyhjä jos hakeminen ei onnistu
+     */
+    public Map<Statistics, Double> getAll(int profileId) {
+        val values = new EnumMap<Statistics, Double>(Statistics.class);
+        this.flushLock.lock();
+        try {
+            val stored = this.playerStatistics.getAll(profileId);
+            for (val stat : STATISTICS) {
+                values.put(stat, stored.getOrDefault(stat.getId(), stat.getDefaultValue()) + getPending(stat, profileId));
+            }
+        } catch (SQLException e) {
+            LOG.warn("Could not get statistics for profile {}", profileId);
+            values.clear();
+        } finally {
+            this.flushLock.unlock();
         }
+
+        return values;
     }
 
     /**
-     * Asettaa statistiikkatiedolle uuden arvon.
+     * Asettaa statistiikkatiedolle uuden arvon. Vielä kirjoittamattomat kasvatukset hylätään.
      *
      * @param key       tieto jonka arvo asetetaan
      * @param profileId profiili jonka tietoa päivitetään
@@ -80,10 +155,20 @@ public class StatisticsManager {
      * @throws NullPointerException jos haettava statistiikka on <code>null</code>
      */
     public void set(@NonNull Statistics key, int profileId, double value) {
+        this.flushLock.lock();
         try {
-            this.playerStatistics.update(key.getId(), profileId, value);
+            synchronized (this.pending) {
+                val deltas = this.pending.get(profileId);
+                if (deltas != null) {
+                    deltas[key.ordinal()] = 0.0;
+                }
+            }
+
+            this.playerStatistics.update(profileId, key.getId(), value);
         } catch (SQLException e) {
             LOG.warn("Could not update statistic {} for profile {}", key.getName(), profileId);
+        } finally {
+            this.flushLock.unlock();
         }
     }
 
@@ -100,7 +185,7 @@ public class StatisticsManager {
     }
 
     /**
-     * Kasvattaa statistiikkatiedon arvoa annetulla arvolla.
+     * Kasvattaa statistiikkatiedon arvoa annetulla arvolla. Muutos kirjoitetaan tietokantaan viiveellä.
      *
      * @param key       tieto jonka arvoa kasvatetaan
      * @param amount    kuinka paljon arvoa kasvatetaan
@@ -108,11 +193,167 @@ public class StatisticsManager {
      *
      * @throws NullPointerException jos haettava statistiikka on <code>null</code>
      */
-    public void incrementBy(Statistics key, double amount, int profileId) {
+    public void incrementBy(@NonNull Statistics key, double amount, int profileId) {
+        synchronized (this.pending) {
+            this.pending.computeIfAbsent(profileId, id -> new double[STATISTICS.length])[key.ordinal()] += amount;
+            if (profileId == this.runProfileId) {
+                this.runTotals[key.ordinal()] += amount;
+            }
+
+            if (this.writer == null) {
+                this.writer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                    val thread = new Thread(runnable, "statistics-writer");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+                this.writer.scheduleWithFixedDelay(this::flush, FLUSH_INTERVAL_MILLIS, FLUSH_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    /**
+     * Aloittaa uuden pelikerran. Mikäli edellinen pelikerta on vielä käynnissä, se päätetään ensin.
+     *
+     * @param profileId profiili jonka pelikerta alkaa
+     */
+    public void startRun(int profileId) {
+        endRun(false);
+
+        synchronized (this.pending) {
+            Arrays.fill(this.runTotals, 0.0);
+            this.runProfileId = profileId;
+            this.runStartedAt = System.currentTimeMillis();
+        }
+    }
+
+    /**
+     * Päättää käynnissä olevan pelikerran ja tallentaa sen historiaan. Ei tee mitään jos pelikertaa ei ole käynnissä.
+     *
+     * @param died päättyikö pelikerta pelaajan kuolemaan
+     */
+    public void endRun(boolean died) {
+        int profileId;
+        long startedAt;
+        double[] totals;
+        synchronized (this.pending) {
+            if (this.runProfileId == NO_RUN) {
+                return;
+            }
+
+            profileId = this.runProfileId;
+            startedAt = this.runStartedAt;
+            totals = this.runTotals.clone();
+            this.runProfileId = NO_RUN;
+        }
+
+        if (this.runHistory == null) {
+            return;
+        }
+
+        try {
+            this.runHistory.recordRun(profileId, startedAt, System.currentTimeMillis(), died, STATISTIC_IDS, totals);
+        } catch (SQLException e) {
+            LOG.warn("Could not record the run for profile {}: {}", profileId, e.getMessage());
+        }
+    }
+
+    /**
+     * Poistaa profiilin pelikertojen historian.
+     *
+     * @param profileId profiili jonka historia poistetaan
+     */
+    public void removeRunHistory(int profileId) {
+        if (this.runHistory == null) {
+            return;
+        }
+
         try {
-            this.playerStatistics.incrementBy(profileId, key.getId(), amount);
+            this.runHistory.removeByProfile(profileId);
         } catch (SQLException e) {
-            LOG.warn("Could not increment statistic {} for profile {}", key.getName(), profileId);
+            LOG.warn("Could not remove the run history of profile {}: {}", profileId, e.getMessage());
+        }
+    }
+
+    /**
+     * Pyytää taustasäiettä kirjoittamaan kerätyt muutokset tietokantaan heti, odottamatta seuraavaa ajastettua
+     * kirjoitusta. Kutsutaan esim. kerroksen vaihtuessa. Ei kannata kutsua jokaisen vuoron päätteeksi, sillä silloin
+     * jokainen vuoro kirjoitettaisiin omana transaktionaan.
+     */
+    public void flushAsync() {
+        synchronized (this.pending) {
+            if (this.writer != null && !this.pending.isEmpty()) {
+                this.writer.execute(this::flush);
+            }
+        }
+    }
+
+    /**
+     * Kirjoittaa kaikki kerätyt muutokset tietokantaan. Kunkin profiilin muutokset kirjoitetaan yhdessä
+     * transaktiossa. Mikäli kirjoitus epäonnistuu, muutokset palautetaan odottamaan seuraavaa yritystä.
+     */
+    public void flush() {
+        this.flushLock.lock();
+        try {
+            Map<Integer, double[]> batch;
+            synchronized (this.pending) {
+                if (this.pending.isEmpty()) {
+                    return;
+                }
+
+                batch = new HashMap<>(this.pending);
+                this.pending.clear();
+            }
+
+            for (val entry : batch.entrySet()) {
+                try {
+                    this.playerStatistics.incrementAll(entry.getKey(), STATISTIC_IDS, entry.getValue());
+                } catch (SQLException e) {
+                    LOG.warn("Could not write statistics for profile {}: {}", entry.getKey(), e.getMessage());
+                    requeue(entry.getKey(), entry.getValue());
+                }
+            }
+        } finally {
+            this.flushLock.unlock();
+        }
+    }
+
+    /**
+     * Kirjoittaa kerätyt muutokset tietokantaan ja pysäyttää taustasäikeen. Kutsutaan ohjelman suorituksen
+     * päättyessä.
+     */
+    @Override
+    public void close() {
+        ScheduledExecutorService writer;
+        synchronized (this.pending) {
+            writer = this.writer;
+            this.writer = null;
+        }
+
+        if (writer != null) {
+            writer.shutdown();
+            try {
+                writer.awaitTermination(FLUSH_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        flush();
+    }
+
+    private double getPending(@NonNull Statistics key, int profileId) {
+        synchronized (this.pending) {
+            val deltas = this.pending.get(profileId);
+            return deltas == null ? 0.0 : deltas[key.ordinal()];
+        }
+    }
+
+    private void requeue(int profileId, @NonNull double[] deltas) {
+        synchronized (this.pending) {
+            val current = this.pending.computeIfAbsent(profileId, id -> new double[STATISTICS.length]);
+            for (int i = 0; i < deltas.length; i++) {
+                current[i] += deltas[i];
+            }
         }
     }
 }
@@ -0,0 +1,136 @@
+package toilari.otlite.game.simulation;
+
+import lombok.NonNull;
+import lombok.val;
+import lombok.var;
+import toilari.otlite.dao.IGetAllDAO;
+import toilari.otlite.dao.serialization.IGetByIDDao;
+import toilari.otlite.game.input.IInputHandler;
+import toilari.otlite.game.input.Input;
+import toilari.otlite.game.world.World;
+import toilari.otlite.game.world.entities.TurnObjectManager;
+import toilari.otlite.game.world.entities.characters.CharacterObject;
+import toilari.otlite.game.world.level.LevelData;
+import toilari.otlite.game.world.level.Tile;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+/**
+ * Simuloi useita toisistaan riippumattomia pelimaailmoja rinnakkain fork-join -säiejoukossa. Jokaisella maailmalla on
+ * oma objektimanagerinsa ja syötteensä, joten maailmat eivät jaa muuttuvaa tilaa keskenään. Ruututyypit, hahmot ja
+ * kartat ladataan jaetuista DAO:ista. Käytetään tekoälyn ja pelitasapainon massatestaukseen ilman käyttöliittymää.
+ */
+public class ParallelWorldSimulator {
+    @NonNull private final IGetAllDAO<Tile> tiles;
+    @NonNull private final IGetByIDDao<CharacterObject> characters;
+    @NonNull private final IGetByIDDao<LevelData> levels;
+    @NonNull private final Supplier<TurnObjectManager> managerSupplier;
+    @NonNull private final ForkJoinPool pool;
+
+    /**
+     * Luo uuden simulaattorin joka käyttää yhteistä fork-join -säiejoukkoa.
+     *
+     * @param tiles           dao jolla ruututyypit ladataan
+     * @param characters      dao jolla hahmot ladataan
+     * @param levels          dao jolla kartat ladataan
+     * @param managerSupplier tehdas jolla kullekin maailmalle luodaan oma objektimanageri
+     * @throws NullPointerException jos jokin parametreista on <code>null</code>
+     */
+    public ParallelWorldSimulator(@NonNull IGetAllDAO<Tile> tiles, @NonNull IGetByIDDao<CharacterObject> characters, @NonNull IGetByIDDao<LevelData> levels, @NonNull Supplier<TurnObjectManager> managerSupplier) {
+        this(tiles, characters, levels, managerSupplier, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Luo uuden simulaattorin joka käyttää annettua säiejoukkoa.
+     *
+     * @param tiles           dao jolla ruututyypit ladataan
+     * @param characters      dao jolla hahmot ladataan
+     * @param levels          dao jolla kartat ladataan
+     * @param managerSupplier tehdas jolla kullekin maailmalle luodaan oma objektimanageri
+     * @param pool            säiejoukko jossa maailmat simuloidaan
+     * @throws NullPointerException jos jokin parametreista on <code>null</code>
+     */
+    public ParallelWorldSimulator(@NonNull IGetAllDAO<Tile> tiles, @NonNull IGetByIDDao<CharacterObject> characters, @NonNull IGetByIDDao<LevelData> levels, @NonNull Supplier<TurnObjectManager> managerSupplier, @NonNull ForkJoinPool pool) {
+        this.tiles = tiles;
+        this.characters = characters;
+        this.levels = levels;
+        this.managerSupplier = managerSupplier;
+        this.pool = pool;
+    }
+
+    /**
+     * Simuloi annetun määrän maailmoja rinnakkain. Kutakin maailmaa päivitetään kunnes pelaaja kuolee tai
+     * päivitysten enimmäismäärä täyttyy. Metodi palaa vasta kun kaikki maailmat on simuloitu.
+     *
+     * @param worldCount     simuloitavien maailmojen määrä
+     * @param initialLevelId kartta jolta kukin simulaatio alkaa
+     * @param maxTicks       päivitysten enimmäismäärä maailmaa kohden
+     * @param delta          simuloitu aika sekunteina jonka kukin päivitys kuluttaa
+     * @param inputFactory   tehdas joka luo maailman indeksin perusteella syötteen jolla pelaajaa ohjataan
+     * @return maailmojen lopputulokset indeksijärjestyksessä
+     * @throws IllegalArgumentException jos maailmojen tai päivitysten määrä on negatiivinen
+     * @throws IllegalStateException    jos jonkin maailman simulointi epäonnistuu
+     * @throws NullPointerException     jos kartan ID tai syötetehdas on <code>null</code>
+     */
+    public List<WorldSimulationResult> run(int worldCount, @NonNull String initialLevelId, long maxTicks, float delta, @NonNull IntFunction<IInputHandler> inputFactory) {
+        if (worldCount < 0 || maxTicks < 0) {
+            throw new IllegalArgumentException("World and tick counts cannot be negative!");
+        }
+
+        // Resolve shared content once up front so that workers only ever read from the DAO caches
+        this.tiles.getAll();
+        this.characters.getByID("player");
+
+        val tasks = new ArrayList<Callable<WorldSimulationResult>>(worldCount);
+        for (int i = 0; i < worldCount; i++) {
+            val index = i;
+            tasks.add(() -> simulate(index, initialLevelId, maxTicks, delta, inputFactory.apply(index)));
+        }
+
+        val results = new ArrayList<WorldSimulationResult>(worldCount);
+        for (val future : this.pool.invokeAll(tasks)) {
+            try {
+                results.add(future.get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for simulations to finish", e);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("World simulation failed", e.getCause());
+            }
+        }
+
+        return results;
+    }
+
+    private WorldSimulationResult simulate(int index, String initialLevelId, long maxTicks, float delta, IInputHandler input) {
+        // A caller blocked on the results may run tasks itself, so restore whatever handler the thread had before
+        val previousHandler = Input.getThreadHandler();
+        Input.setThreadHandler(input);
+        try {
+            val manager = this.managerSupplier.get();
+            val world = new World(manager, this.tiles, this.levels, this.characters);
+            world.init();
+
+            val player = manager.spawnTemplate(this.characters.getByID("player"));
+            manager.setPlayer(player);
+            world.changeLevel(initialLevelId);
+
+            var ticks = 0L;
+            while (ticks < maxTicks && !player.isRemoved()) {
+                input.update();
+                world.update(delta);
+                ticks++;
+            }
+
+            return new WorldSimulationResult(index, ticks, manager.getTotalTurn(), world.getFloor(), !player.isRemoved());
+        } finally {
+            Input.setThreadHandler(previousHandler);
+        }
+    }
+}
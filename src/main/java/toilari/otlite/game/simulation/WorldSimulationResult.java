@@ -0,0 +1,45 @@
+package toilari.otlite.game.simulation;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Yksittäisen rinnakkain simuloidun pelimaailman lopputulos.
+ */
+@RequiredArgsConstructor
+public class WorldSimulationResult {
+    /**
+     * Maailman järjestysnumero simulaatioajossa.
+     *
+     * @return maailman indeksi
+     */
+    @Getter private final int index;
+
+    /**
+     * Montako päivitystä maailmaa simuloitiin.
+     *
+     * @return päivitysten määrä
+     */
+    @Getter private final long ticks;
+
+    /**
+     * Montako vuoroa maailmassa pelattiin.
+     *
+     * @return vuorojen määrä
+     */
+    @Getter private final int turns;
+
+    /**
+     * Kerros jolle pelaaja simulaation aikana pääsi.
+     *
+     * @return kerroksen numero
+     */
+    @Getter private final int floor;
+
+    /**
+     * Oliko pelaaja elossa simulaation päättyessä.
+     *
+     * @return <code>true</code> jos pelaaja selvisi, muulloin <code>false</code>
+     */
+    @Getter private final boolean playerAlive;
+}
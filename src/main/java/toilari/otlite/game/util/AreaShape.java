@@ -0,0 +1,47 @@
+package toilari.otlite.game.util;
+
+/**
+ * Alueen muoto ruutukoordinaatistossa. Käytetään alueella olevien objektien hakemiseen sekä kykyjen
+ * vaikutusalueiden määrittelemiseen.
+ */
+public enum AreaShape {
+    /**
+     * Neliö, jonka sivun pituus on <code>1 + 2 * range</code>. (Chebyshev-etäisyys)
+     */
+    SQUARE {
+        @Override
+        public boolean contains(int dx, int dy, int range) {
+            return Math.abs(dx) <= range && Math.abs(dy) <= range;
+        }
+    },
+
+    /**
+     * Ympyrä, jonka säde on <code>range</code>. (Euklidinen etäisyys)
+     */
+    CIRCLE {
+        @Override
+        public boolean contains(int dx, int dy, int range) {
+            return dx * dx + dy * dy <= range * range;
+        }
+    },
+
+    /**
+     * Salmiakki, eli ruudut joihin pääsee enintään <code>range</code> askeleella. (Manhattan-etäisyys)
+     */
+    MANHATTAN {
+        @Override
+        public boolean contains(int dx, int dy, int range) {
+            return Math.abs(dx) + Math.abs(dy) <= range;
+        }
+    };
+
+    /**
+     * Tarkistaa onko annettu siirtymä alueen keskipisteestä alueen sisällä.
+     *
+     * @param dx    x-siirtymä keskipisteestä
+     * @param dy    y-siirtymä keskipisteestä
+     * @param range alueen koko yhteen suuntaan keskipisteestä
+     * @return <code>true</code> jos siirtymä on alueen sisällä, muulloin <code>false</code>
+     */
+    public abstract boolean contains(int dx, int dy, int range);
+}
@@ -0,0 +1,224 @@
+package toilari.otlite.game.util;
+
+import lombok.NonNull;
+import lombok.val;
+import lombok.var;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Generaatiollinen "slot map". Säilöö arvot tiiviiseen taulukkoon ja antaa jokaiselle lisätylle arvolle kahvan,
+ * jolla arvon saa haettua tai poistettua vakioajassa. Kahva koostuu paikan indeksistä sekä paikan generaatiosta,
+ * joka kasvaa aina kun paikasta poistetaan arvo. Näin vanhentuneet kahvat voidaan tunnistaa vaikka niiden paikka
+ * olisi jo uudelleenkäytössä.
+ * <p>
+ * Poistaminen siirtää tiiviin taulukon viimeisen arvon poistetun arvon paikalle, joten läpikäyntijärjestys ei säily
+ * poistojen yli.
+ *
+ * @param <T> säilöttävien arvojen tyyppi
+ */
+public class SlotMap<T> implements Iterable<T> {
+    /**
+     * Kahva joka ei koskaan viittaa mihinkään arvoon.
+     */
+    public static final long NULL_HANDLE = 0L;
+
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int NONE = -1;
+
+    private int[] generations = new int[INITIAL_CAPACITY];
+    private int[] slotToDense = new int[INITIAL_CAPACITY];
+    private int[] denseToSlot = new int[INITIAL_CAPACITY];
+    private Object[] dense = new Object[INITIAL_CAPACITY];
+    private int slotCount;
+    private int size;
+    private int freeHead = NONE;
+
+    private final List<T> listView = new ListView();
+
+    /**
+     * Lisää arvon.
+     *
+     * @param value lisättävä arvo
+     * @return kahva jolla arvoon voidaan viitata
+     * @throws NullPointerException jos arvo on <code>null</code>
+     */
+    public long insert(@NonNull T value) {
+        int slot;
+        if (this.freeHead != NONE) {
+            slot = this.freeHead;
+            this.freeHead = this.slotToDense[slot];
+        } else {
+            ensureSlotCapacity(this.slotCount + 1);
+            slot = this.slotCount++;
+            this.generations[slot] = 1;
+        }
+
+        ensureDenseCapacity(this.size + 1);
+        this.dense[this.size] = value;
+        this.denseToSlot[this.size] = slot;
+        this.slotToDense[slot] = this.size;
+        this.size++;
+
+        return toHandle(slot, this.generations[slot]);
+    }
+
+    /**
+     * Hakee kahvaa vastaavan arvon.
+     *
+     * @param handle haettavan arvon kahva
+     * @return kahvaa vastaava arvo, <code>null</code> jos kahva on vanhentunut tai virheellinen
+     */
+    public T get(long handle) {
+        val slot = slotOf(handle);
+        return slot == NONE ? null : elementAt(this.slotToDense[slot]);
+    }
+
+    /**
+     * Tarkistaa viittaako kahva olemassaolevaan arvoon.
+     *
+     * @param handle tarkistettava kahva
+     * @return <code>true</code> jos kahva on voimassa, muulloin <code>false</code>
+     */
+    public boolean contains(long handle) {
+        return slotOf(handle) != NONE;
+    }
+
+    /**
+     * Poistaa kahvaa vastaavan arvon. Kahva, sekä kaikki muut samaan paikkaan viittaavat kahvat, vanhentuvat.
+     *
+     * @param handle poistettavan arvon kahva
+     * @return poistettu arvo, <code>null</code> jos kahva oli jo valmiiksi vanhentunut tai virheellinen
+     */
+    public T remove(long handle) {
+        val slot = slotOf(handle);
+        if (slot == NONE) {
+            return null;
+        }
+
+        val denseIndex = this.slotToDense[slot];
+        val removed = elementAt(denseIndex);
+
+        val last = this.size - 1;
+        if (denseIndex != last) {
+            val movedSlot = this.denseToSlot[last];
+            this.dense[denseIndex] = this.dense[last];
+            this.denseToSlot[denseIndex] = movedSlot;
+            this.slotToDense[movedSlot] = denseIndex;
+        }
+        this.dense[last] = null;
+        this.size--;
+
+        releaseSlot(slot);
+        return removed;
+    }
+
+    /**
+     * Poistaa kaikki arvot. Kaikki olemassaolevat kahvat vanhentuvat.
+     */
+    public void clear() {
+        for (int i = 0; i < this.size; i++) {
+            releaseSlot(this.denseToSlot[i]);
+        }
+
+        Arrays.fill(this.dense, 0, this.size, null);
+        this.size = 0;
+    }
+
+    /**
+     * Hakee arvojen lukumäärän.
+     *
+     * @return montako arvoa on lisätty
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Tarkistaa onko säiliö tyhjä.
+     *
+     * @return <code>true</code> jos säiliössä ei ole arvoja
+     */
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    /**
+     * Palauttaa muokkaamattoman listanäkymän arvoihin. Näkymä pysyy ajan tasalla säiliön muuttuessa.
+     *
+     * @return listanäkymä arvoihin tiiviissä järjestyksessä
+     */
+    public List<T> asList() {
+        return this.listView;
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return this.listView.iterator();
+    }
+
+    private void releaseSlot(int slot) {
+        var generation = this.generations[slot] + 1;
+        if (generation == 0) {
+            generation = 1;
+        }
+        this.generations[slot] = generation;
+        this.slotToDense[slot] = this.freeHead;
+        this.freeHead = slot;
+    }
+
+    private int slotOf(long handle) {
+        val slot = (int) handle;
+        val generation = (int) (handle >>> 32);
+        if (slot < 0 || slot >= this.slotCount || generation == 0 || this.generations[slot] != generation) {
+            return NONE;
+        }
+
+        // Generations are bumped on release, so no handle issued for a previous occupant can match a free slot
+        return slot;
+    }
+
+    private static long toHandle(int slot, int generation) {
+        return ((long) generation << 32) | (slot & 0xFFFFFFFFL);
+    }
+
+    @SuppressWarnings("unchecked")
+    private T elementAt(int denseIndex) {
+        return (T) this.dense[denseIndex];
+    }
+
+    private void ensureSlotCapacity(int capacity) {
+        if (capacity > this.generations.length) {
+            val newCapacity = Math.max(capacity, this.generations.length * 2);
+            this.generations = Arrays.copyOf(this.generations, newCapacity);
+            this.slotToDense = Arrays.copyOf(this.slotToDense, newCapacity);
+        }
+    }
+
+    private void ensureDenseCapacity(int capacity) {
+        if (capacity > this.dense.length) {
+            val newCapacity = Math.max(capacity, this.dense.length * 2);
+            this.dense = Arrays.copyOf(this.dense, newCapacity);
+            this.denseToSlot = Arrays.copyOf(this.denseToSlot, newCapacity);
+        }
+    }
+
+    private final class ListView extends AbstractList<T> implements RandomAccess {
+        @Override
+        public T get(int index) {
+            if (index < 0 || index >= SlotMap.this.size) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + SlotMap.this.size);
+            }
+            return elementAt(index);
+        }
+
+        @Override
+        public int size() {
+            return SlotMap.this.size;
+        }
+    }
+}
@@ -7,6 +7,7 @@ import lombok.val;
 import toilari.otlite.dao.IGetAllDAO;
 import toilari.otlite.dao.serialization.IGetByIDDao;
 import toilari.otlite.game.event.PlayEvent;
+import toilari.otlite.game.util.AreaShape;
 import toilari.otlite.game.world.entities.GameObject;
 import toilari.otlite.game.world.entities.TurnObjectManager;
 import toilari.otlite.game.world.entities.characters.CharacterObject;
@@ -14,6 +15,10 @@ import toilari.otlite.game.world.level.Level;
 import toilari.otlite.game.world.level.LevelData;
 import toilari.otlite.game.world.level.NormalTile;
 import toilari.otlite.game.world.level.Tile;
+import toilari.otlite.game.world.pathing.FlowField;
+
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Pelimaailma.
@@ -28,7 +33,15 @@ public class World {
 
     @Getter private int floor;
     @Getter private Level currentLevel;
+
+    /**
+     * Sen kartan ID johon portaikko nykyisestä kartasta johtaa.
+     *
+     * @return seuraavan kartan ID, <code>null</code> jos seuraavaa karttaa ei ole
+     */
+    @Getter private String nextLevelId;
     @NonNull @Getter private final TurnObjectManager objectManager;
+    @NonNull private final FlowField playerFlowField = new FlowField();
 
     /**
      * Luo uuden pelimaailman.
@@ -59,6 +72,64 @@ public class World {
         return (obj != null && obj.isRemoved()) ? null : obj;
     }
 
+    /**
+     * Hakee kaikki annetun alueen sisällä olevat objektit jotka ovat annettua tyyppiä. Ei palauta objekteja jotka on
+     * jo merkitty poistetuiksi. Haun kustannus riippuu alueelta löytyvien objektien määrästä, ei pelimaailman kaikkien
+     * objektien määrästä.
+     *
+     * @param x     alueen keskipisteen x-ruutukoordinaatti
+     * @param y     alueen keskipisteen y-ruutukoordinaatti
+     * @param range alueen koko yhteen suuntaan keskipisteestä
+     * @param shape alueen muoto
+     * @param type  haettavien objektien tyyppi
+     * @param <T>   haettavien objektien tyyppi
+     * @return lista alueelta löytyneistä objekteista järjestettynä ensin x- ja sitten y-ruutukoordinaatin mukaan
+     * @throws NullPointerException jos muoto tai tyyppi on <code>null</code>
+     */
+    @NonNull
+    public <T extends GameObject> List<T> getObjectsInRange(int x, int y, int range, @NonNull AreaShape shape, @NonNull Class<T> type) {
+        val found = new ArrayList<T>();
+        this.objectManager.getObjectsInRange(x, y, range, shape, type, found);
+        return found;
+    }
+
+    /**
+     * Hakee kaikki annetun alueen sisällä olevat objektit. Ei palauta objekteja jotka on jo merkitty poistetuiksi.
+     *
+     * @param x     alueen keskipisteen x-ruutukoordinaatti
+     * @param y     alueen keskipisteen y-ruutukoordinaatti
+     * @param range alueen koko yhteen suuntaan keskipisteestä
+     * @param shape alueen muoto
+     * @return lista alueelta löytyneistä objekteista
+     * @throws NullPointerException jos muoto on <code>null</code>
+     * @see #getObjectsInRange(int, int, int, AreaShape, Class)
+     */
+    @NonNull
+    public List<GameObject> getObjectsInRange(int x, int y, int range, @NonNull AreaShape shape) {
+        return getObjectsInRange(x, y, range, shape, GameObject.class);
+    }
+
+    /**
+     * Hakee lyhimmän askelmäärän annetuista ruutukoordinaateista pelaajan luo. Seinät ja vaaralliset ruudut
+     * kierretään, mutta muita hahmoja ei huomioida. Etäisyydet lasketaan kaikille ruuduille kerralla ja lasketaan
+     * uudelleen vain kun pelaaja liikkuu tai kartta vaihtuu, joten kutsu on halpa vaikka jahtaavia hahmoja olisi
+     * paljon.
+     *
+     * @param x x-ruutukoordinaatti
+     * @param y y-ruutukoordinaatti
+     * @return askelten määrä pelaajan luo, {@link FlowField#UNREACHABLE} jos reittiä ei ole, pelaajaa ei ole tai
+     * karttaa ei ole asetettu
+     */
+    public int getDistanceToPlayer(int x, int y) {
+        val player = this.objectManager.getPlayer();
+        if (getCurrentLevel() == null || player == null) {
+            return FlowField.UNREACHABLE;
+        }
+
+        this.playerFlowField.update(getCurrentLevel(), player.getTileX(), player.getTileY());
+        return this.playerFlowField.getDistance(x, y);
+    }
+
     /**
      * Hakee nykyisen kartan leveyden.
      *
@@ -93,6 +164,30 @@ public class World {
         return getCurrentLevel() == null ? NULL_TILE : getCurrentLevel().getTileAt(x, y);
     }
 
+    /**
+     * Tarkistaa onko annetuissa ruutukoordinaateissa seinä. Vastaa kutsua <code>getTileAt(x, y).isWall()</code>, mutta
+     * ei vaadi ruututyypin hakemista.
+     *
+     * @param x ruudun x-ruutukoordinaatti
+     * @param y ruudun y-ruutukoordinaatti
+     * @return <code>true</code> jos ruutu on seinä tai karttaa ei ole asetettu, muulloin <code>false</code>
+     */
+    public boolean isWallAt(int x, int y) {
+        return getCurrentLevel() == null ? NULL_TILE.isWall() : getCurrentLevel().isWall(x, y);
+    }
+
+    /**
+     * Tarkistaa onko annetuissa ruutukoordinaateissa oleva ruutu vaarallinen. Vastaa kutsua
+     * <code>getTileAt(x, y).isDangerous()</code>, mutta ei vaadi ruututyypin hakemista.
+     *
+     * @param x ruudun x-ruutukoordinaatti
+     * @param y ruudun y-ruutukoordinaatti
+     * @return <code>true</code> jos ruutu on vaarallinen tai karttaa ei ole asetettu, muulloin <code>false</code>
+     */
+    public boolean isDangerousAt(int x, int y) {
+        return getCurrentLevel() == null ? NULL_TILE.isDangerous() : getCurrentLevel().isDangerous(x, y);
+    }
+
     /**
      * Tarkistaa ovatko koordinaatit kartan rajojen sisäpuolella.
      *
@@ -113,6 +208,8 @@ public class World {
     public void changeLevel(@NonNull Level level) {
         this.objectManager.clearAllNonPlayerObjects();
         this.currentLevel = level;
+        this.nextLevelId = null;
+        this.objectManager.resizeOccupancyGrid(level.getWidth(), level.getHeight());
     }
 
     /**
@@ -133,7 +230,7 @@ public class World {
         }
 
         changeLevel(level.asLevel(this.tiles));
-        level.setNextLevel();
+        this.nextLevelId = level.getNextLevel();
         level.spawn(this.characters, this.objectManager);
 
         this.floor++;
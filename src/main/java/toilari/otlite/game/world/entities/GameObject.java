@@ -3,26 +3,76 @@ package toilari.otlite.game.world.entities;
 import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
+import lombok.val;
+import toilari.otlite.game.util.SlotMap;
 import toilari.otlite.game.world.World;
 import toilari.otlite.game.world.entities.characters.CharacterObject;
 import toilari.otlite.game.world.level.Tile;
 
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class GameObject {
-    private static int idCounter;
+    private static final AtomicInteger ID_COUNTER = new AtomicInteger();
     @Getter private transient float timeAlive;
 
-    @Getter @Setter private String rendererID;
+    @Getter private String rendererID;
+
+    /**
+     * Piirtäjän kahva jonka piirtävä näkymä ratkaisee {@link #getRendererID() piirtäjän tunnisteesta} ensimmäisellä
+     * piirtokerralla. Nollataan aina kun piirtäjän tunniste muuttuu.
+     *
+     * @param rendererHandle ratkaistu piirtäjän kahva
+     * @return piirtäjän kahva, <code>0</code> jos kahvaa ei ole vielä ratkaistu
+     */
+    @Getter @Setter private transient int rendererHandle;
 
     @Getter private final int id;
     @Getter private boolean spawned;
     @Getter private boolean removed;
 
     @Getter @Setter(AccessLevel.PACKAGE) private World world;
+    @Setter(AccessLevel.PACKAGE) private transient ObjectManager manager;
+
+    /**
+     * Objektin kahva objektimanagerissa. Kahvalla objektin voi hakea managerista vakioajassa ja sen avulla voi
+     * tunnistaa onko objekti jo poistettu.
+     *
+     * @return objektin kahva, {@link SlotMap#NULL_HANDLE} jos objektia ei ole lisätty pelimaailmaan
+     */
+    @Getter @Setter(AccessLevel.PACKAGE) private transient long handle = SlotMap.NULL_HANDLE;
+    transient GameObject nextInCell;
 
-    @Getter @Setter private int x;
-    @Getter @Setter private int y;
+    @Getter private int x;
+    @Getter private int y;
+
+    /**
+     * Asettaa objektin piirtäjän tunnisteen.
+     *
+     * @param rendererID piirtäjän tunniste
+     */
+    public void setRendererID(String rendererID) {
+        this.rendererID = rendererID;
+        this.rendererHandle = 0;
+    }
+
+    /**
+     * Asettaa objektin x-koordinaatin.
+     *
+     * @param x uusi x-koordinaatti
+     */
+    public void setX(int x) {
+        setPos(x, this.y);
+    }
+
+    /**
+     * Asettaa objektin y-koordinaatin.
+     *
+     * @param y uusi y-koordinaatti
+     */
+    public void setY(int y) {
+        setPos(this.x, y);
+    }
 
     /**
      * Hakee objektin x-ruutukoordinaatin. Jokaisessa ruudussa on {@link Tile#SIZE_IN_WORLD} koordinaattiyksikköä,
@@ -53,8 +103,14 @@ public class GameObject {
      * @param newY uusi y-koordinaatti
      */
     public void setPos(int newX, int newY) {
-        setX(newX);
-        setY(newY);
+        val oldTileX = getTileX();
+        val oldTileY = getTileY();
+        this.x = newX;
+        this.y = newY;
+
+        if (this.manager != null) {
+            this.manager.onObjectMoved(this, oldTileX, oldTileY);
+        }
     }
 
     /**
@@ -74,14 +130,21 @@ public class GameObject {
      * ne poistetaan kun kaikki objektit on päivitetty, ennen seuraavaa ruudun piirtämistä.
      */
     public void remove() {
+        if (this.removed) {
+            return;
+        }
+
         this.removed = true;
+        if (this.manager != null) {
+            this.manager.onObjectRemoved(this);
+        }
     }
 
     /**
      * Luo uuden peliobjektin ja asettaa sille yksilöllisen IDn.
      */
     public GameObject() {
-        this.id = GameObject.idCounter++;
+        this.id = GameObject.ID_COUNTER.getAndIncrement();
     }
 
     /**
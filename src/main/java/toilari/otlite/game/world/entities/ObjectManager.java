@@ -7,24 +7,31 @@ import lombok.val;
 import toilari.otlite.game.GameState;
 import toilari.otlite.game.PlayGameState;
 import toilari.otlite.game.event.EventSystem;
+import toilari.otlite.game.util.AreaShape;
+import toilari.otlite.game.util.SlotMap;
 import toilari.otlite.game.world.World;
 import toilari.otlite.game.world.entities.characters.CharacterAttributes;
 import toilari.otlite.game.world.entities.characters.CharacterInfo;
 import toilari.otlite.game.world.entities.characters.CharacterLevels;
 import toilari.otlite.game.world.entities.characters.CharacterObject;
-import toilari.otlite.game.world.level.Tile;
 
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Random;
-import java.util.stream.Collectors;
 
 /**
  * Manageri joka hallinnoi peliobjekteja. Pitää huolta että objekteja päivitetään ja että ne poistetaan
  * asianmukaisesti.
  */
 public class ObjectManager {
-    @Getter @NonNull private final List<GameObject> objects = new ArrayList<>();
+    private static final Comparator<GameObject> BY_TILE_POSITION = Comparator
+        .comparingInt(GameObject::getTileX)
+        .thenComparingInt(GameObject::getTileY);
+
+    private final SlotMap<GameObject> objects = new SlotMap<>();
+    private final List<GameObject> pendingRemoval = new ArrayList<>();
+    private final TileOccupancyGrid occupancy = new TileOccupancyGrid();
     @Getter @Setter private CharacterObject player;
     @Getter private GameState gameState;
 
@@ -32,6 +39,27 @@ public class ObjectManager {
 
     private World world;
 
+    /**
+     * Hakee kaikki pelimaailmassa olevat objektit. Palautettu lista on muokkaamaton näkymä joka pysyy ajan tasalla
+     * objektien lisäämisen ja poistamisen yhteydessä. Objektien järjestys saattaa muuttua objekteja poistettaessa.
+     *
+     * @return lista pelimaailman objekteista
+     */
+    @NonNull
+    public List<GameObject> getObjects() {
+        return this.objects.asList();
+    }
+
+    /**
+     * Hakee objektin sen {@link GameObject#getHandle() kahvan} perusteella.
+     *
+     * @param handle haettavan objektin kahva
+     * @return kahvaa vastaava objekti, <code>null</code> jos objekti on jo poistettu tai kahva on virheellinen
+     */
+    public GameObject getObject(long handle) {
+        return this.objects.get(handle);
+    }
+
     /**
      * Hakee viestinvälitysjärjestelmän. Jos managerille ei ole asetettu pelitilaa, luodaan oma
      * viestinvälitysjärjestelmä, muulloin käytetään pelitilan järjestelmää.
@@ -60,18 +88,106 @@ public class ObjectManager {
     }
 
     /**
-     * Tarkistaa onko annetuissa koordinaateissa objektia ja palauttaa sen jos sellainen löytyy. Palauttaa objektin
-     * vaikka se olisi merkitty poistetuksi.
+     * Tarkistaa onko annetuissa koordinaateissa objektia ja palauttaa sen jos sellainen löytyy. Mikäli ruudussa on
+     * useita objekteja, palautetaan ensisijaisesti objekti jota ei ole merkitty poistetuksi. Poistetuksi merkitty
+     * objekti palautetaan vain jos ruudussa ei ole muita objekteja.
      *
      * @param x x-koordinaatti josta etsitään
      * @param y y-koordinaatti josta etsitään
      * @return <code>null</code> jos koordinaateissa ei ole objektia, muulloin löydetty objekti
      */
     public GameObject getObjectAt(int x, int y) {
-        return this.objects.stream()
-            .filter(o -> o.getX() / Tile.SIZE_IN_WORLD == x && o.getY() / Tile.SIZE_IN_WORLD == y)
-            .findFirst()
-            .orElse(null);
+        return this.occupancy.get(x, y);
+    }
+
+    /**
+     * Lisää listaan kaikki annetun alueen sisällä olevat objektit jotka ovat annettua tyyppiä. Poistetuksi merkittyjä
+     * objekteja ei lisätä. Objektit lisätään järjestettynä sarakkeittain, eli ensin x- ja sitten y-ruutukoordinaatin
+     * mukaan.
+     * <p>
+     * Mikäli alue on suurempi kuin objektien lukumäärä, objektit käydään läpi suoraan sijaintihakutaulun sijaan.
+     *
+     * @param x     alueen keskipisteen x-ruutukoordinaatti
+     * @param y     alueen keskipisteen y-ruutukoordinaatti
+     * @param range alueen koko yhteen suuntaan keskipisteestä
+     * @param shape alueen muoto
+     * @param type  haettavien objektien tyyppi
+     * @param out   lista johon löydetyt objektit lisätään
+     * @param <T>   haettavien objektien tyyppi
+     * @throws NullPointerException jos muoto, tyyppi tai lista on <code>null</code>
+     */
+    public <T extends GameObject> void getObjectsInRange(int x, int y, int range, @NonNull AreaShape shape, @NonNull Class<T> type, @NonNull List<T> out) {
+        if (range < 0) {
+            return;
+        }
+
+        val first = out.size();
+        val side = 2L * range + 1;
+        if (side * side > this.objects.size()) {
+            for (val object : this.objects) {
+                if (!object.isRemoved() && type.isInstance(object) && shape.contains(object.getTileX() - x, object.getTileY() - y, range)) {
+                    out.add(type.cast(object));
+                }
+            }
+        } else {
+            this.occupancy.collectInRange(x, y, range, shape, type, out);
+        }
+
+        out.subList(first, out.size()).sort(BY_TILE_POSITION);
+    }
+
+    /**
+     * Lisää listaan kaikki annetun suorakulmion sisällä olevat objektit jotka ovat annettua tyyppiä. Poistetuksi
+     * merkittyjä objekteja ei lisätä. Objektien järjestystä ei taata.
+     * <p>
+     * Mikäli suorakulmio on suurempi kuin objektien lukumäärä, objektit käydään läpi suoraan sijaintihakutaulun
+     * sijaan.
+     *
+     * @param minX suorakulmion pienin x-ruutukoordinaatti
+     * @param minY suorakulmion pienin y-ruutukoordinaatti
+     * @param maxX suorakulmion suurin x-ruutukoordinaatti
+     * @param maxY suorakulmion suurin y-ruutukoordinaatti
+     * @param type haettavien objektien tyyppi
+     * @param out  lista johon löydetyt objektit lisätään
+     * @param <T>  haettavien objektien tyyppi
+     * @throws NullPointerException jos tyyppi tai lista on <code>null</code>
+     */
+    public <T extends GameObject> void getObjectsInRect(int minX, int minY, int maxX, int maxY, @NonNull Class<T> type, @NonNull List<T> out) {
+        if (maxX < minX || maxY < minY) {
+            return;
+        }
+
+        val area = ((long) maxX - minX + 1) * ((long) maxY - minY + 1);
+        if (area > this.objects.size()) {
+            for (val object : this.objects) {
+                if (!object.isRemoved() && type.isInstance(object) && TileOccupancyGrid.isWithinRect(object, minX, minY, maxX, maxY)) {
+                    out.add(type.cast(object));
+                }
+            }
+        } else {
+            this.occupancy.collectInRect(minX, minY, maxX, maxY, type, out);
+        }
+    }
+
+    /**
+     * Asettaa sijaintihakutaulun koon vastaamaan kartan kokoa. Kutsutaan kun pelimaailman karttaa vaihdetaan.
+     *
+     * @param width  kartan leveys ruutuina
+     * @param height kartan korkeus ruutuina
+     */
+    public void resizeOccupancyGrid(int width, int height) {
+        this.occupancy.resize(width, height, this.objects);
+    }
+
+    /**
+     * Kutsutaan kun objektin sijainti muuttuu.
+     *
+     * @param object   siirtynyt objekti
+     * @param oldTileX objektin edellinen x-ruutukoordinaatti
+     * @param oldTileY objektin edellinen y-ruutukoordinaatti
+     */
+    void onObjectMoved(GameObject object, int oldTileX, int oldTileY) {
+        this.occupancy.move(object, oldTileX, oldTileY);
     }
 
     /**
@@ -90,7 +206,9 @@ public class ObjectManager {
      * @param delta viimeisimmästä päivityksestä kulunut aika
      */
     public void update(float delta) {
-        for (val object : this.objects) {
+        val objects = this.objects.asList();
+        for (int i = 0; i < objects.size(); i++) {
+            val object = objects.get(i);
             if (!object.isRemoved()) {
                 object.update(delta);
             }
@@ -110,12 +228,14 @@ public class ObjectManager {
             throw new IllegalStateException("object manager has null-world, have you called .init()?");
         }
 
-        if (this.objects.contains(object)) {
+        if (this.objects.get(object.getHandle()) == object) {
             throw new IllegalArgumentException("object with ID=" + object.getId() + " already exists!");
         }
 
-        this.objects.add(object);
+        object.setHandle(this.objects.insert(object));
+        this.occupancy.add(object);
         object.setWorld(this.world);
+        object.setManager(this);
         object.init();
     }
 
@@ -154,29 +274,51 @@ public class ObjectManager {
     }
 
     /**
-     * Läpikäy objektit ja tuhoaa kaikki jotka on merkattu poistetuiksi.
+     * Kutsutaan kun objekti merkitään poistetuksi.
+     *
+     * @param object poistetuksi merkitty objekti
      */
-    private void deleteRemoved() {
-        val removed = this.objects.stream()
-            .filter(GameObject::isRemoved)
-            .collect(Collectors.toList());
+    void onObjectRemoved(GameObject object) {
+        this.pendingRemoval.add(object);
+    }
 
-        for (val obj : removed) {
-            remove(obj);
+    /**
+     * Tuhoaa kaikki objektit jotka on merkattu poistetuiksi edellisen päivityksen jälkeen.
+     */
+    private void deleteRemoved() {
+        for (int i = 0; i < this.pendingRemoval.size(); i++) {
+            remove(this.pendingRemoval.get(i));
         }
+        this.pendingRemoval.clear();
     }
 
     protected void remove(GameObject object) {
-        this.objects.remove(object);
+        this.objects.remove(object.getHandle());
+        this.occupancy.remove(object);
+        object.setHandle(SlotMap.NULL_HANDLE);
+        object.setManager(null);
     }
 
     /**
      * Poistaa kaikki paitsi pelaajaobjektin.
      */
     public void clearAllNonPlayerObjects() {
+        for (val object : this.objects) {
+            object.setHandle(SlotMap.NULL_HANDLE);
+            object.setManager(null);
+        }
         this.objects.clear();
+        this.pendingRemoval.clear();
+        this.occupancy.clear();
+
         if (this.player != null) {
-            this.objects.add(this.player);
+            val player = (GameObject) this.player;
+            player.setHandle(this.objects.insert(player));
+            player.setManager(this);
+            this.occupancy.add(player);
+            if (player.isRemoved()) {
+                this.pendingRemoval.add(player);
+            }
         }
     }
 }
@@ -0,0 +1,272 @@
+package toilari.otlite.game.world.entities;
+
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.val;
+import lombok.var;
+import toilari.otlite.game.util.AreaShape;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Ruutukoordinaateilla indeksoitu hakutaulu peliobjektien sijainneille. Mahdollistaa objektien hakemisen sijainnin
+ * perusteella vakioajassa ilman kaikkien objektien läpikäyntiä. Kartan ulkopuolella olevat objektit pidetään
+ * erillisessä listassa, jolloin niiden haku on lineaarinen.
+ * <p>
+ * Samassa ruudussa olevat objektit ketjutetaan objektien <code>nextInCell</code>-kentän avulla lisäysjärjestyksessä.
+ */
+public class TileOccupancyGrid {
+    @Getter private int width;
+    @Getter private int height;
+    private GameObject[] cells = new GameObject[0];
+    private final List<GameObject> outOfBounds = new ArrayList<>();
+
+    /**
+     * Muuttaa hakutaulun kokoa ja lisää annetut objektit uudelleen tauluun. Kaikki aiemmin lisätyt objektit
+     * poistetaan.
+     *
+     * @param width   uusi leveys ruutuina
+     * @param height  uusi korkeus ruutuina
+     * @param objects objektit jotka lisätään tauluun koon muuttamisen jälkeen
+     * @throws IllegalArgumentException jos leveys tai korkeus on negatiivinen
+     */
+    public void resize(int width, int height, @NonNull Iterable<GameObject> objects) {
+        if (width < 0 || height < 0) {
+            throw new IllegalArgumentException("Grid dimensions cannot be negative!");
+        }
+
+        clear();
+        this.width = width;
+        this.height = height;
+        if (this.cells.length != width * height) {
+            this.cells = new GameObject[width * height];
+        }
+
+        for (val object : objects) {
+            add(object);
+        }
+    }
+
+    /**
+     * Tyhjentää hakutaulun. Taulun kokoa ei muuteta.
+     */
+    public void clear() {
+        for (val head : this.cells) {
+            var current = head;
+            while (current != null) {
+                val next = current.nextInCell;
+                current.nextInCell = null;
+                current = next;
+            }
+        }
+        Arrays.fill(this.cells, null);
+        this.outOfBounds.clear();
+    }
+
+    /**
+     * Lisää objektin hakutauluun sen nykyisen sijainnin perusteella.
+     *
+     * @param object lisättävä objekti
+     */
+    public void add(@NonNull GameObject object) {
+        insert(object, object.getTileX(), object.getTileY());
+    }
+
+    /**
+     * Poistaa objektin hakutaulusta sen nykyisen sijainnin perusteella.
+     *
+     * @param object poistettava objekti
+     */
+    public void remove(@NonNull GameObject object) {
+        unlink(object, object.getTileX(), object.getTileY());
+    }
+
+    /**
+     * Päivittää objektin sijainnin hakutaulussa. Kutsutaan kun objektin sijainti on jo ehditty päivittää.
+     *
+     * @param object   siirtynyt objekti
+     * @param oldTileX objektin edellinen x-ruutukoordinaatti
+     * @param oldTileY objektin edellinen y-ruutukoordinaatti
+     */
+    public void move(@NonNull GameObject object, int oldTileX, int oldTileY) {
+        val newTileX = object.getTileX();
+        val newTileY = object.getTileY();
+        if (oldTileX == newTileX && oldTileY == newTileY) {
+            return;
+        }
+
+        unlink(object, oldTileX, oldTileY);
+        insert(object, newTileX, newTileY);
+    }
+
+    /**
+     * Hakee objektin annetuista ruutukoordinaateista. Mikäli ruudussa on useita objekteja, palautetaan ensimmäinen
+     * objekti jota ei ole merkitty poistetuksi. Poistetuksi merkitty objekti palautetaan vain jos ruudussa ei ole
+     * muita objekteja.
+     *
+     * @param x x-ruutukoordinaatti
+     * @param y y-ruutukoordinaatti
+     * @return <code>null</code> jos ruudussa ei ole objektia, muulloin löydetty objekti
+     */
+    public GameObject get(int x, int y) {
+        if (isWithinBounds(x, y)) {
+            return firstPreferNotRemoved(this.cells[x + y * this.width]);
+        }
+
+        GameObject removed = null;
+        for (val object : this.outOfBounds) {
+            if (object.getTileX() == x && object.getTileY() == y) {
+                if (!object.isRemoved()) {
+                    return object;
+                } else if (removed == null) {
+                    removed = object;
+                }
+            }
+        }
+
+        return removed;
+    }
+
+    /**
+     * Lisää listaan kaikki annetun alueen sisällä olevat objektit jotka ovat annettua tyyppiä. Poistetuksi merkittyjä
+     * objekteja ei lisätä. Kartan sisällä olevat objektit lisätään sarakkeittain, kartan ulkopuoliset objektit
+     * lisätään niiden perään.
+     *
+     * @param x     alueen keskipisteen x-ruutukoordinaatti
+     * @param y     alueen keskipisteen y-ruutukoordinaatti
+     * @param range alueen koko yhteen suuntaan keskipisteestä
+     * @param shape alueen muoto
+     * @param type  haettavien objektien tyyppi
+     * @param out   lista johon löydetyt objektit lisätään
+     * @param <T>   haettavien objektien tyyppi
+     */
+    public <T extends GameObject> void collectInRange(int x, int y, int range, @NonNull AreaShape shape, @NonNull Class<T> type, @NonNull List<T> out) {
+        val minX = Math.max(0, x - range);
+        val maxX = Math.min(this.width - 1, x + range);
+        val minY = Math.max(0, y - range);
+        val maxY = Math.min(this.height - 1, y + range);
+        for (var tileX = minX; tileX <= maxX; tileX++) {
+            for (var tileY = minY; tileY <= maxY; tileY++) {
+                if (!shape.contains(tileX - x, tileY - y, range)) {
+                    continue;
+                }
+
+                for (var current = this.cells[tileX + tileY * this.width]; current != null; current = current.nextInCell) {
+                    if (!current.isRemoved() && type.isInstance(current)) {
+                        out.add(type.cast(current));
+                    }
+                }
+            }
+        }
+
+        for (val object : this.outOfBounds) {
+            if (!object.isRemoved() && type.isInstance(object) && shape.contains(object.getTileX() - x, object.getTileY() - y, range)) {
+                out.add(type.cast(object));
+            }
+        }
+    }
+
+    /**
+     * Lisää listaan kaikki annetun suorakulmion sisällä olevat objektit jotka ovat annettua tyyppiä. Poistetuksi
+     * merkittyjä objekteja ei lisätä. Kartan sisällä olevat objektit lisätään riveittäin, kartan ulkopuoliset
+     * objektit lisätään niiden perään.
+     *
+     * @param minX suorakulmion pienin x-ruutukoordinaatti
+     * @param minY suorakulmion pienin y-ruutukoordinaatti
+     * @param maxX suorakulmion suurin x-ruutukoordinaatti
+     * @param maxY suorakulmion suurin y-ruutukoordinaatti
+     * @param type haettavien objektien tyyppi
+     * @param out  lista johon löydetyt objektit lisätään
+     * @param <T>  haettavien objektien tyyppi
+     */
+    public <T extends GameObject> void collectInRect(int minX, int minY, int maxX, int maxY, @NonNull Class<T> type, @NonNull List<T> out) {
+        val startX = Math.max(0, minX);
+        val endX = Math.min(this.width - 1, maxX);
+        val startY = Math.max(0, minY);
+        val endY = Math.min(this.height - 1, maxY);
+        for (var tileY = startY; tileY <= endY; tileY++) {
+            for (var tileX = startX; tileX <= endX; tileX++) {
+                for (var current = this.cells[tileX + tileY * this.width]; current != null; current = current.nextInCell) {
+                    if (!current.isRemoved() && type.isInstance(current)) {
+                        out.add(type.cast(current));
+                    }
+                }
+            }
+        }
+
+        for (val object : this.outOfBounds) {
+            if (!object.isRemoved() && type.isInstance(object) && isWithinRect(object, minX, minY, maxX, maxY)) {
+                out.add(type.cast(object));
+            }
+        }
+    }
+
+    static boolean isWithinRect(@NonNull GameObject object, int minX, int minY, int maxX, int maxY) {
+        val x = object.getTileX();
+        val y = object.getTileY();
+        return x >= minX && x <= maxX && y >= minY && y <= maxY;
+    }
+
+    private static GameObject firstPreferNotRemoved(GameObject head) {
+        var current = head;
+        while (current != null) {
+            if (!current.isRemoved()) {
+                return current;
+            }
+            current = current.nextInCell;
+        }
+
+        return head;
+    }
+
+    private boolean isWithinBounds(int x, int y) {
+        return x >= 0 && x < this.width && y >= 0 && y < this.height;
+    }
+
+    private void insert(GameObject object, int x, int y) {
+        object.nextInCell = null;
+        if (!isWithinBounds(x, y)) {
+            this.outOfBounds.add(object);
+            return;
+        }
+
+        val index = x + y * this.width;
+        if (this.cells[index] == null) {
+            this.cells[index] = object;
+            return;
+        }
+
+        var tail = this.cells[index];
+        while (tail.nextInCell != null) {
+            tail = tail.nextInCell;
+        }
+        tail.nextInCell = object;
+    }
+
+    private void unlink(GameObject object, int x, int y) {
+        if (!isWithinBounds(x, y)) {
+            this.outOfBounds.remove(object);
+            return;
+        }
+
+        val index = x + y * this.width;
+        GameObject previous = null;
+        var current = this.cells[index];
+        while (current != null) {
+            if (current == object) {
+                if (previous == null) {
+                    this.cells[index] = current.nextInCell;
+                } else {
+                    previous.nextInCell = current.nextInCell;
+                }
+                object.nextInCell = null;
+                return;
+            }
+
+            previous = current;
+            current = current.nextInCell;
+        }
+    }
+}
@@ -2,22 +2,57 @@ package toilari.otlite.game.world.entities;
 
 import lombok.Getter;
 import lombok.NonNull;
+import lombok.Setter;
+import lombok.val;
 import lombok.var;
 import toilari.otlite.game.world.World;
 import toilari.otlite.game.world.entities.characters.CharacterObject;
-
-import java.util.ArrayList;
-import java.util.List;
+import toilari.otlite.game.world.entities.turns.ITurnScheduler;
+import toilari.otlite.game.world.entities.turns.RoundRobinTurnScheduler;
 
 /**
  * Objektimanageri, joka lisää vuoropohjaista toiminnallisuutta. Hallinnoi {@link CharacterObject pelihahmojen}
- * vuoroja ja tarjoaa metodit vuoron päättämiseen yms.
+ * vuoroja ja tarjoaa metodit vuoron päättämiseen yms. Vuorojen järjestys määräytyy annetun
+ * {@link ITurnScheduler vuorojärjestyksen} mukaan.
  */
 public class TurnObjectManager extends ObjectManager {
-    private final List<CharacterObject> characters = new ArrayList<>();
+    /**
+     * Oletusaikaraja nanosekunteina, jonka puitteissa tekoälyhahmojen vuoroja ratkotaan yhden päivityksen aikana.
+     */
+    public static final long DEFAULT_TURN_BATCH_BUDGET_NANOS = 4_000_000L;
+
+    private static final int MAX_IDLE_UPDATES_PER_BATCH = 8;
+
+    @NonNull private final ITurnScheduler scheduler;
+
+    /**
+     * Aikaraja nanosekunteina, jonka puitteissa peräkkäisiä tekoälyhahmojen vuoroja ratkotaan yhden päivityksen
+     * aikana. Ratkominen keskeytyy kun on pelaajan vuoro tai aika loppuu. Mikäli arvo on nolla, kukin päivitys
+     * päivittää aktiivista hahmoa vain kerran.
+     *
+     * @param turnBatchBudgetNanos aikaraja nanosekunteina
+     * @return aikaraja nanosekunteina
+     */
+    @Getter @Setter private long turnBatchBudgetNanos;
     @Getter private int totalTurn;
     @Getter private int remainingActionPoints;
-    private int turn;
+
+    /**
+     * Luo uuden objektimanagerin jossa hahmot saavat vuoronsa vuorotellen lisäysjärjestyksessä.
+     */
+    public TurnObjectManager() {
+        this(new RoundRobinTurnScheduler());
+    }
+
+    /**
+     * Luo uuden objektimanagerin joka käyttää annettua vuorojärjestystä.
+     *
+     * @param scheduler vuorojärjestys jonka mukaan hahmot saavat vuoronsa
+     * @throws NullPointerException jos vuorojärjestys on <code>null</code>
+     */
+    public TurnObjectManager(@NonNull ITurnScheduler scheduler) {
+        this.scheduler = scheduler;
+    }
 
     /**
      * Kuluttaa annetun määrän toimintopisteitä nykyiseltä vuorolta.
@@ -46,17 +81,8 @@ public class TurnObjectManager extends ObjectManager {
             getActiveCharacter().endTurn();
         }
 
-        this.turn++;
-        this.totalTurn++;
-        validateTurnIndex();
-
-        if (this.characters.isEmpty()) {
-            return;
-        }
-
-        this.remainingActionPoints = getActiveCharacter().getAttributes().getActionPoints();
-
-        getActiveCharacter().beginTurn();
+        this.scheduler.advance();
+        beginActiveTurn();
     }
 
     /**
@@ -65,7 +91,7 @@ public class TurnObjectManager extends ObjectManager {
      * @return hahmo jonka vuoro nyt on, <code>null</code> jos hahmoja ei ole
      */
     public CharacterObject getActiveCharacter() {
-        return this.turn < 0 || this.characters.isEmpty() ? null : this.characters.get(this.turn);
+        return this.scheduler.getActive();
     }
 
     /**
@@ -75,40 +101,67 @@ public class TurnObjectManager extends ObjectManager {
      * @return <code>true</code> jos on hahmon vuoro, muutoin <code>false</code>
      */
     public boolean isCharactersTurn(CharacterObject character) {
-        return !this.characters.isEmpty() && getActiveCharacter().equals(character);
+        return !this.scheduler.isEmpty() && getActiveCharacter().equals(character);
     }
 
     @Override
     public void init(@NonNull World world) {
         super.init(world);
-        this.characters.clear();
-        this.turn = 0;
+        this.scheduler.clear();
     }
 
     @Override
     public void update(float delta) {
         super.update(delta);
 
-        if (this.characters.isEmpty()) {
+        if (this.scheduler.isEmpty()) {
             return;
         }
 
-        getActiveCharacter().updateOnTurn(this);
+        // The update in which the player ends their turn only hands the turn over, so that the player's turn is
+        // always visibly over for at least one update before the remaining turns are resolved in a batch.
+        val activeBefore = getActiveCharacter();
+        activeBefore.updateOnTurn(this);
+        if (this.turnBatchBudgetNanos > 0 && canResolveImmediately(activeBefore)) {
+            resolveNonPlayerTurns(System.nanoTime() + this.turnBatchBudgetNanos);
+        }
+    }
+
+    private void resolveNonPlayerTurns(long deadline) {
+        var idleUpdates = 0;
+        while (System.nanoTime() < deadline && canResolveImmediately(getActiveCharacter())) {
+            val turnBefore = this.totalTurn;
+            val pointsBefore = this.remainingActionPoints;
+            getActiveCharacter().updateOnTurn(this);
+
+            // AI controllers may need a few idle updates before ending their turn. If nothing happens for longer than
+            // that, wait for the next update instead of spinning until the deadline.
+            if (turnBefore == this.totalTurn && pointsBefore == this.remainingActionPoints) {
+                if (++idleUpdates > MAX_IDLE_UPDATES_PER_BATCH) {
+                    return;
+                }
+            } else {
+                idleUpdates = 0;
+            }
+        }
+    }
+
+    private boolean canResolveImmediately(CharacterObject active) {
+        val player = getPlayer();
+        return active != null && !active.isRemoved()
+            && player != null && !player.isRemoved()
+            && !active.equals(player);
     }
 
     @Override
     public void spawn(@NonNull GameObject object) {
         super.spawn(object);
         if (object instanceof CharacterObject) {
-            var wasEmpty = this.characters.isEmpty();
-
-            this.characters.add(this.turn, (CharacterObject) object);
-            if (!wasEmpty) {
-                this.turn++;
-            } else {
-                this.turn = -1;
+            val wasEmpty = this.scheduler.isEmpty();
+            this.scheduler.add((CharacterObject) object);
+            if (wasEmpty) {
                 this.totalTurn = -1;
-                nextTurn();
+                beginActiveTurn();
             }
         }
     }
@@ -117,42 +170,27 @@ public class TurnObjectManager extends ObjectManager {
     protected void remove(GameObject object) {
         super.remove(object);
         if (object instanceof CharacterObject) {
-
-            int index = this.characters.indexOf(object);
-            if (index != -1) {
-                if (index < this.turn) {
-                    this.turn--;
-                }
-                this.characters.remove(index);
-                validateTurnIndex();
-            }
+            this.scheduler.remove((CharacterObject) object);
         }
     }
 
     @Override
     public void clearAllNonPlayerObjects() {
         super.clearAllNonPlayerObjects();
-        this.characters.clear();
+        this.scheduler.clear();
         if (getPlayer() != null) {
-            this.characters.add(getPlayer());
-            this.turn = -1;
-            nextTurn();
+            this.scheduler.add(getPlayer());
+            beginActiveTurn();
         }
     }
 
-    private void validateTurnIndex() {
-        if (this.characters.isEmpty()) {
-            this.turn = 0;
+    private void beginActiveTurn() {
+        this.totalTurn++;
+        if (this.scheduler.isEmpty()) {
             return;
         }
 
-        if (this.turn == this.characters.size()) {
-            this.turn = 0;
-        }
-
-        if (this.characters.get(this.turn).isRemoved()) {
-            this.characters.remove(this.turn);
-            validateTurnIndex();
-        }
+        this.remainingActionPoints = getActiveCharacter().getAttributes().getActionPoints();
+        getActiveCharacter().beginTurn();
     }
 }
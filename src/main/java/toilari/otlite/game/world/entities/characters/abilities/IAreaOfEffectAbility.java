@@ -1,5 +1,6 @@
 package toilari.otlite.game.world.entities.characters.abilities;
 
+import toilari.otlite.game.util.AreaShape;
 import toilari.otlite.game.world.entities.GameObject;
 import toilari.otlite.game.world.entities.characters.abilities.components.IAreaOfEffectControllerComponent;
 
@@ -34,6 +35,15 @@ public interface IAreaOfEffectAbility<A extends IAreaOfEffectAbility<A, C>, C ex
      */
     int getAreaExtent();
 
+    /**
+     * Kyvyn vaikutusalueen muoto. Oletuksena vaikutusalue on neliö.
+     *
+     * @return vaikutusalueen muoto
+     */
+    default AreaShape getAreaShape() {
+        return AreaShape.SQUARE;
+    }
+
     /**
      * Kyvyn vaikutusalueen todellinen koko.
      *
@@ -67,10 +67,8 @@ public class KickAbility extends AbstractAttackAbility<KickAbility, AbstractAtta
         val targetX = getCharacter().getTileX() + direction.getDx() * (1 + delta);
         val targetY = getCharacter().getTileY() + direction.getDy() * (1 + delta);
 
-        val objectInTarget = getCharacter().getWorld().getObjectAt(targetX, targetY);
-        val tileInTarget = getCharacter().getWorld().getTileAt(targetX, targetY);
-
-        return objectInTarget == null && !tileInTarget.isWall();
+        val world = getCharacter().getWorld();
+        return !world.isWallAt(targetX, targetY) && world.getObjectAt(targetX, targetY) == null;
     }
 
     private void knockBackTarget(GameObject target, Direction direction, int knockbackAmount) {
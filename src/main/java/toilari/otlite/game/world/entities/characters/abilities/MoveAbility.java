@@ -37,12 +37,8 @@ public class MoveAbility extends AbstractAbility<MoveAbility, MoveControllerComp
             return false;
         }
 
-        val tileAtTarget = world.getTileAt(newX, newY);
-        val objectAtTarget = world.getObjectAt(newX, newY);
-
-        val tileIsWalkable = !tileAtTarget.isWall();
-
-        if (tileIsWalkable) {
+        if (!world.isWallAt(newX, newY)) {
+            val objectAtTarget = world.getObjectAt(newX, newY);
             return objectAtTarget == null || objectAtTarget.isRemoved()
                 || (objectAtTarget instanceof CharacterObject && ((CharacterObject) objectAtTarget).isDead());
         }
@@ -2,14 +2,13 @@ package toilari.otlite.game.world.entities.characters.abilities;
 
 import lombok.NonNull;
 import lombok.val;
-import lombok.var;
 import toilari.otlite.game.util.Direction;
 import toilari.otlite.game.world.entities.GameObject;
 import toilari.otlite.game.world.entities.characters.Attribute;
 import toilari.otlite.game.world.entities.characters.CharacterObject;
 import toilari.otlite.game.world.entities.characters.abilities.components.WarcryControllerComponent;
 
-import java.util.ArrayList;
+import java.util.List;
 import java.util.Random;
 
 /**
@@ -92,24 +91,11 @@ public class WarcryAbility
     }
 
     @NonNull
-    private ArrayList<CharacterObject> findTargets() {
-        val world = getCharacter().getWorld();
-        val targets = new ArrayList<CharacterObject>();
+    private List<CharacterObject> findTargets() {
         val x = getCharacter().getTileX();
         val y = getCharacter().getTileY();
-        val range = getAreaExtent();
-        for (var dx = -range; dx <= range; dx++) {
-            for (var dy = -range; dy <= range; dy++) {
-                if (dx == 0 && dy == 0) {
-                    continue;
-                }
-
-                val object = world.getObjectAt(x + dx, y + dy);
-                if (object instanceof CharacterObject && !((CharacterObject) object).isDead() && canAffect(object)) {
-                    targets.add((CharacterObject) object);
-                }
-            }
-        }
+        val targets = getCharacter().getWorld().getObjectsInRange(x, y, getAreaExtent(), getAreaShape(), CharacterObject.class);
+        targets.removeIf(target -> (target.getTileX() == x && target.getTileY() == y) || target.isDead() || !canAffect(target));
         return targets;
     }
 
@@ -2,10 +2,9 @@ package toilari.otlite.game.world.entities.characters.abilities.components;
 
 import lombok.RequiredArgsConstructor;
 import lombok.val;
+import toilari.otlite.game.util.Direction;
 import toilari.otlite.game.world.entities.characters.abilities.MoveAbility;
 
-import java.util.Comparator;
-
 /**
  * Tekoälyn ohjainkomponentti, joka pyrkii liikkumaan kohti pelaajaa pelaajan ollessa tarpeeksi lähellä.
  */
@@ -43,12 +42,30 @@ public class AIMoveTowardsPlayerMoveControllerComponent extends AIRandomRoamMove
     }
 
     private void moveTowardsTarget() {
-        getAvailableDirections().stream()
-            .min(Comparator.comparingInt((d) -> {
-                val x = getCharacter().getTileX();
-                val y = getCharacter().getTileY();
-                return squaredDistanceToPlayerFrom(x + d.getDx(), y + d.getDy());
-            })).ifPresent(this::moveToDirection);
+        val world = getCharacter().getWorld();
+        val x = getCharacter().getTileX();
+        val y = getCharacter().getTileY();
+
+        // Follow the shared flow field, fall back to straight-line distance when there is no path
+        Direction best = null;
+        int bestPathDistance = 0;
+        int bestSquaredDistance = 0;
+        for (val direction : getAvailableDirections()) {
+            val targetX = x + direction.getDx();
+            val targetY = y + direction.getDy();
+            val pathDistance = world.getDistanceToPlayer(targetX, targetY);
+            val squaredDistance = squaredDistanceToPlayerFrom(targetX, targetY);
+            if (best == null || pathDistance < bestPathDistance
+                || (pathDistance == bestPathDistance && squaredDistance < bestSquaredDistance)) {
+                best = direction;
+                bestPathDistance = pathDistance;
+                bestSquaredDistance = squaredDistance;
+            }
+        }
+
+        if (best != null) {
+            moveToDirection(best);
+        }
     }
 
     private int squaredDistanceToPlayerFrom(int x, int y) {
@@ -102,8 +102,7 @@ public abstract class MoveControllerComponent extends AbstractControllerComponen
         val y = getCharacter().getTileY();
 
         for (val direction : Direction.asIterable()) {
-            val tileAtTarget = world.getTileAt(x + direction.getDx(), y + direction.getDy());
-            val panickingOrNotDangerous = !tileAtTarget.isDangerous() || getCharacter().isPanicking();
+            val panickingOrNotDangerous = getCharacter().isPanicking() || !world.isDangerousAt(x + direction.getDx(), y + direction.getDy());
 
             if (ability.canMoveTo(direction, 1) && panickingOrNotDangerous) {
                 this.availableDirections.add(direction);
@@ -0,0 +1,49 @@
+package toilari.otlite.game.world.entities.turns;
+
+import toilari.otlite.game.world.entities.characters.CharacterObject;
+
+/**
+ * Määrittää missä järjestyksessä pelihahmot saavat vuoronsa. Poistetuksi merkittyjen hahmojen vuorot ohitetaan.
+ */
+public interface ITurnScheduler {
+    /**
+     * Lisää hahmon vuorojärjestykseen. Mikäli järjestys on tyhjä, hahmosta tulee aktiivinen hahmo.
+     *
+     * @param character lisättävä hahmo
+     * @throws NullPointerException jos hahmo on <code>null</code>
+     */
+    void add(CharacterObject character);
+
+    /**
+     * Poistaa hahmon vuorojärjestyksestä. Mikäli poistettava hahmo on aktiivinen, aktiiviseksi hahmoksi siirtyy
+     * seuraava hahmo vuorojärjestyksessä.
+     *
+     * @param character poistettava hahmo
+     * @throws NullPointerException jos hahmo on <code>null</code>
+     */
+    void remove(CharacterObject character);
+
+    /**
+     * Siirtää vuoron seuraavalle hahmolle, ohittaen poistetuksi merkityt hahmot.
+     */
+    void advance();
+
+    /**
+     * Hakee hahmon jonka vuoro on tällä hetkellä.
+     *
+     * @return aktiivinen hahmo, <code>null</code> jos vuorojärjestys on tyhjä
+     */
+    CharacterObject getActive();
+
+    /**
+     * Tyhjentää vuorojärjestyksen.
+     */
+    void clear();
+
+    /**
+     * Tarkistaa onko vuorojärjestys tyhjä.
+     *
+     * @return <code>true</code> jos vuorojärjestyksessä ei ole hahmoja
+     */
+    boolean isEmpty();
+}
@@ -0,0 +1,174 @@
+package toilari.otlite.game.world.entities.turns;
+
+import lombok.NonNull;
+import lombok.val;
+import toilari.otlite.game.world.entities.characters.CharacterObject;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.function.ToIntFunction;
+
+/**
+ * Nopeuteen perustuva vuorojärjestys. Jokaisella hahmolla on ajanhetki jolloin sen seuraava vuoro alkaa ja vuoron
+ * päättyessä ajanhetkeä siirretään eteenpäin hahmon nopeuden käänteisluvun verran, eli nopeammat hahmot saavat
+ * vuoroja useammin. Samalla ajanhetkellä olevat hahmot saavat vuoronsa lisäysjärjestyksessä, joten tasanopeilla
+ * hahmoilla järjestys vastaa {@link RoundRobinTurnScheduler vuorottelevaa järjestystä}.
+ * <p>
+ * Hahmot pidetään prioriteettijonossa, joten lisääminen ja vuoron vaihtaminen tapahtuvat logaritmisessa ajassa.
+ * Poistetut hahmot merkitään ja siivotaan jonosta vasta kun niiden vuoro tulisi.
+ */
+public class InitiativeTurnScheduler implements ITurnScheduler {
+    // Divisible by all integers 1..16 so that common speeds produce exact intervals
+    private static final long TIME_SCALE = 720720L;
+    private static final Comparator<Entry> BY_INITIATIVE = Comparator
+        .comparingLong((Entry e) -> e.time)
+        .thenComparingLong(e -> e.sequence);
+
+    private final PriorityQueue<Entry> queue = new PriorityQueue<>(BY_INITIATIVE);
+    private final Map<CharacterObject, Entry> entries = new IdentityHashMap<>();
+    @NonNull private final ToIntFunction<CharacterObject> speed;
+    private Entry current;
+    private long nextSequence;
+    private int tombstones;
+
+    /**
+     * Luo uuden vuorojärjestyksen jossa hahmon nopeutena käytetään sen toimintopisteiden määrää.
+     */
+    public InitiativeTurnScheduler() {
+        this(character -> character.getAttributes().getActionPoints());
+    }
+
+    /**
+     * Luo uuden vuorojärjestyksen.
+     *
+     * @param speed funktio jolla hahmon nopeus lasketaan. Nopeudet jotka ovat pienempiä kuin yksi tulkitaan ykköseksi
+     */
+    public InitiativeTurnScheduler(@NonNull ToIntFunction<CharacterObject> speed) {
+        this.speed = speed;
+    }
+
+    @Override
+    public void add(@NonNull CharacterObject character) {
+        if (this.entries.containsKey(character)) {
+            return;
+        }
+
+        val now = this.current == null ? 0L : this.current.time;
+        val entry = new Entry(character, now + interval(character), this.nextSequence++);
+        this.entries.put(character, entry);
+        if (this.current == null) {
+            this.current = entry;
+        } else {
+            this.queue.add(entry);
+        }
+    }
+
+    @Override
+    public void remove(@NonNull CharacterObject character) {
+        val entry = this.entries.remove(character);
+        if (entry == null) {
+            return;
+        }
+
+        if (entry == this.current) {
+            this.current = null;
+            pollNext();
+        } else {
+            entry.removed = true;
+            this.tombstones++;
+            compactIfNeeded();
+        }
+    }
+
+    @Override
+    public void advance() {
+        if (this.current == null) {
+            return;
+        }
+
+        val previous = this.current;
+        this.current = null;
+        if (!previous.character.isRemoved()) {
+            previous.time += interval(previous.character);
+            previous.sequence = this.nextSequence++;
+            this.queue.add(previous);
+        } else {
+            this.entries.remove(previous.character);
+        }
+
+        pollNext();
+    }
+
+    @Override
+    public CharacterObject getActive() {
+        return this.current == null ? null : this.current.character;
+    }
+
+    @Override
+    public void clear() {
+        this.queue.clear();
+        this.entries.clear();
+        this.current = null;
+        this.tombstones = 0;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return this.current == null;
+    }
+
+    private void pollNext() {
+        while (!this.queue.isEmpty()) {
+            val next = this.queue.poll();
+            if (next.removed) {
+                this.tombstones--;
+                continue;
+            }
+
+            if (next.character.isRemoved()) {
+                this.entries.remove(next.character);
+                continue;
+            }
+
+            this.current = next;
+            return;
+        }
+    }
+
+    private void compactIfNeeded() {
+        if (this.tombstones <= this.queue.size() / 2) {
+            return;
+        }
+
+        val alive = new ArrayList<Entry>(this.queue.size() - this.tombstones);
+        for (val entry : this.queue) {
+            if (!entry.removed) {
+                alive.add(entry);
+            }
+        }
+
+        this.queue.clear();
+        this.queue.addAll(alive);
+        this.tombstones = 0;
+    }
+
+    private long interval(CharacterObject character) {
+        return TIME_SCALE / Math.max(1, this.speed.applyAsInt(character));
+    }
+
+    private static final class Entry {
+        private final CharacterObject character;
+        private long time;
+        private long sequence;
+        private boolean removed;
+
+        private Entry(CharacterObject character, long time, long sequence) {
+            this.character = character;
+            this.time = time;
+            this.sequence = sequence;
+        }
+    }
+}
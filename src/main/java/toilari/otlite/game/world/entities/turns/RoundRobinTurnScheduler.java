@@ -0,0 +1,109 @@
+package toilari.otlite.game.world.entities.turns;
+
+import lombok.NonNull;
+import lombok.val;
+import toilari.otlite.game.world.entities.characters.CharacterObject;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Vuorojärjestys jossa hahmot saavat vuoron vuorotellen. Uudet hahmot lisätään kierroksen loppuun, eli juuri ennen
+ * aktiivista hahmoa. Hahmot pidetään rengasmaisessa linkitetyssä listassa, joten lisääminen, poistaminen ja vuoron
+ * vaihtaminen tapahtuvat vakioajassa.
+ */
+public class RoundRobinTurnScheduler implements ITurnScheduler {
+    private final Map<CharacterObject, Node> nodes = new IdentityHashMap<>();
+    private Node current;
+
+    @Override
+    public void add(@NonNull CharacterObject character) {
+        if (this.nodes.containsKey(character)) {
+            return;
+        }
+
+        val node = new Node(character);
+        this.nodes.put(character, node);
+        if (this.current == null) {
+            node.next = node;
+            node.previous = node;
+            this.current = node;
+            return;
+        }
+
+        node.next = this.current;
+        node.previous = this.current.previous;
+        this.current.previous.next = node;
+        this.current.previous = node;
+    }
+
+    @Override
+    public void remove(@NonNull CharacterObject character) {
+        val node = this.nodes.get(character);
+        if (node == null) {
+            return;
+        }
+
+        val wasActive = node == this.current;
+        unlink(node);
+        if (wasActive) {
+            skipRemoved();
+        }
+    }
+
+    @Override
+    public void advance() {
+        if (this.current == null) {
+            return;
+        }
+
+        this.current = this.current.next;
+        skipRemoved();
+    }
+
+    @Override
+    public CharacterObject getActive() {
+        return this.current == null ? null : this.current.character;
+    }
+
+    @Override
+    public void clear() {
+        this.nodes.clear();
+        this.current = null;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return this.current == null;
+    }
+
+    private void skipRemoved() {
+        while (this.current != null && this.current.character.isRemoved()) {
+            unlink(this.current);
+        }
+    }
+
+    private void unlink(Node node) {
+        this.nodes.remove(node.character);
+        if (node.next == node) {
+            this.current = null;
+            return;
+        }
+
+        node.previous.next = node.next;
+        node.next.previous = node.previous;
+        if (this.current == node) {
+            this.current = node.next;
+        }
+    }
+
+    private static final class Node {
+        private final CharacterObject character;
+        private Node next;
+        private Node previous;
+
+        private Node(CharacterObject character) {
+            this.character = character;
+        }
+    }
+}
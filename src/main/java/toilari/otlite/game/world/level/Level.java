@@ -12,11 +12,15 @@ import lombok.val;
 @Slf4j
 public class Level {
     private static final Tile OUT_OF_BOUNDS_TILE = new NormalTile(true, true, 0, "__out_of_bounds");
+    private static final Tile UNKNOWN_TILE = new NormalTile(false, false, 0, "__null");
+    private static final int TILE_TYPE_COUNT = 256;
     @Getter private final int width;
     @Getter private final int height;
 
-    @Getter(AccessLevel.NONE) private final TileMapping tileMappings;
     @Getter(AccessLevel.NONE) private final byte[] tiles;
+    @Getter(AccessLevel.NONE) private final Tile[] tileTypes = new Tile[TILE_TYPE_COUNT];
+    @Getter(AccessLevel.NONE) private final long[] walls;
+    @Getter(AccessLevel.NONE) private final long[] dangerous;
 
     /**
      * Luo uuden "kartan" pelimaailmaan.
@@ -29,8 +33,6 @@ public class Level {
      *                                  kartan datataulukon kanssa
      */
     public Level(int width, int height, TileMapping tileMappings, byte[] tiles) {
-        this.tileMappings = tileMappings;
-
         this.width = width;
         this.height = height;
         this.tiles = new byte[width * height];
@@ -39,6 +41,32 @@ public class Level {
         }
 
         System.arraycopy(tiles, 0, this.tiles, 0, Math.min(this.tiles.length, tiles.length));
+
+        for (int i = 0; i < TILE_TYPE_COUNT; i++) {
+            this.tileTypes[i] = tileMappings.getTile((byte) i);
+        }
+
+        this.walls = new long[(this.tiles.length + 63) >>> 6];
+        this.dangerous = new long[(this.tiles.length + 63) >>> 6];
+        for (int index = 0; index < this.tiles.length; index++) {
+            val tile = resolveTileType(index);
+            if (tile.isWall()) {
+                this.walls[index >>> 6] |= 1L << index;
+            }
+            if (tile.isDangerous()) {
+                this.dangerous[index >>> 6] |= 1L << index;
+            }
+        }
+    }
+
+    private Tile resolveTileType(int index) {
+        val tileIndex = this.tiles[index] & 0xFF;
+        if (this.tileTypes[tileIndex] == null) {
+            LOG.error("Unknown tile index {} detected at ({}, {})", tileIndex, index % this.width, index / this.width);
+            this.tileTypes[tileIndex] = UNKNOWN_TILE;
+        }
+
+        return this.tileTypes[tileIndex];
     }
 
     /**
@@ -54,15 +82,34 @@ public class Level {
             return Level.OUT_OF_BOUNDS_TILE;
         }
 
-        val index = (y * this.width) + x;
-        val tileIndex = this.tiles[index];
-        val tile = this.tileMappings.getTile(tileIndex);
-        if (tile == null) {
-            LOG.error("Unknown tile index {} detected at ({}, {})", tileIndex, x, y);
-            return new NormalTile(false, false, 0, "__null");
-        }
+        return this.tileTypes[this.tiles[(y * this.width) + x] & 0xFF];
+    }
+
+    /**
+     * Tarkistaa onko annetuissa koordinaateissa oleva ruutu seinä. Kartan ulkopuoliset ruudut tulkitaan seiniksi.
+     *
+     * @param x ruudun x-koordinaatti
+     * @param y ruudun y-koordinaatti
+     * @return <code>true</code> jos ruutu on seinä, muulloin <code>false</code>
+     */
+    public boolean isWall(int x, int y) {
+        return !isWithinBounds(x, y) || isSet(this.walls, (y * this.width) + x);
+    }
+
+    /**
+     * Tarkistaa onko annetuissa koordinaateissa oleva ruutu vaarallinen. Kartan ulkopuoliset ruudut tulkitaan
+     * vaarallisiksi.
+     *
+     * @param x ruudun x-koordinaatti
+     * @param y ruudun y-koordinaatti
+     * @return <code>true</code> jos ruutu on vaarallinen, muulloin <code>false</code>
+     */
+    public boolean isDangerous(int x, int y) {
+        return !isWithinBounds(x, y) || isSet(this.dangerous, (y * this.width) + x);
+    }
 
-        return tile;
+    private static boolean isSet(long[] bits, int index) {
+        return (bits[index >>> 6] & (1L << index)) != 0;
     }
 
     /**
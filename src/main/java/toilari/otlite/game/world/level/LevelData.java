@@ -18,7 +18,7 @@ public class LevelData {
     @Getter private int width = 0, height = 0;
     @Getter private Map<String, Byte> mapping = new HashMap<>();
     @Getter private byte[] tiles = new byte[0];
-    private String nextLevel;
+    @Getter private String nextLevel;
 
     @SerializedName("characters")
     @Getter private List<CharacterEntry> characterEntries = new ArrayList<>();
@@ -34,13 +34,6 @@ public class LevelData {
         return new Level(this.width, this.height, new TileMapping(tiles, this.mapping), this.tiles);
     }
 
-    /**
-     * Asettaa seuraavan kartan tämän kartan tietojen mukaan.
-     */
-    public void setNextLevel() {
-        StaircaseTile.nextLevel = this.nextLevel;
-    }
-
     /**
      * Lisää kaikki kartan mukana ladatut hahmot pelimaailmaan.
      *
@@ -10,8 +10,6 @@ import toilari.otlite.game.world.entities.characters.CharacterObject;
  * Ruututyyppi johon siirtymällä pelaaja pääsee seuraavaan kerrokseen.
  */
 public class StaircaseTile extends Tile {
-    static String nextLevel;
-
     /**
      * Luo uuden portaikkoruututyypin.
      *
@@ -28,15 +26,17 @@ public class StaircaseTile extends Tile {
     @Override
     public void onCharacterEnter(int x, int y, @NonNull CharacterObject character) {
         val player = character.getWorld().getObjectManager().getPlayer();
-        if (!player.equals(character) || StaircaseTile.nextLevel == null) {
+        val nextLevel = character.getWorld().getNextLevelId();
+        if (!player.equals(character) || nextLevel == null) {
             return;
         }
 
         val state = character.getWorld().getObjectManager().getGameState();
         if (state != null) {
             state.getGame().getStatistics().increment(Statistics.FLOORS_CLEARED, state.getGame().getActiveProfile().getId());
+            state.getGame().getStatistics().flushAsync();
         }
-        character.getWorld().changeLevel(StaircaseTile.nextLevel);
+        character.getWorld().changeLevel(nextLevel);
 
         val healthRegen = player.getAttributes().getHealthRegen();
         player.heal(healthRegen);
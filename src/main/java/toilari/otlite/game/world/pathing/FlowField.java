@@ -0,0 +1,113 @@
+package toilari.otlite.game.world.pathing;
+
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.val;
+import lombok.var;
+import toilari.otlite.game.util.Direction;
+import toilari.otlite.game.world.level.Level;
+
+import java.util.Arrays;
+
+/**
+ * Etäisyyskenttä ("Dijkstra map") joka kertoo jokaisesta kartan ruudusta lyhimmän askelmäärän kohderuutuun.
+ * Kenttä lasketaan leveyshaulla kohderuudusta lähtien ja se lasketaan uudelleen vain kun kartta tai kohde vaihtuu,
+ * joten kaikki kohdetta jahtaavat hahmot voivat käyttää samaa kenttää. Seinät ja vaaralliset ruudut tulkitaan
+ * läpipääsemättömiksi.
+ * <p>
+ * Kenttä lasketaan aina kokonaan uudelleen. Kartan ruudut eivät muutu latauksen jälkeen, joten kenttä vanhenee vain
+ * kohteen liikkuessa, ja yksittäinen leveyshaku pelikokoisella kartalla on halvempi kuin osittaisen päivityksen
+ * kirjanpito.
+ */
+public class FlowField {
+    /**
+     * Etäisyys ruuduille joista kohteeseen ei ole reittiä.
+     */
+    public static final int UNREACHABLE = Integer.MAX_VALUE;
+
+    private static final Direction[] NEIGHBORS = {Direction.UP, Direction.RIGHT, Direction.DOWN, Direction.LEFT};
+
+    private Level level;
+    @Getter private int targetX;
+    @Getter private int targetY;
+    private int width;
+    private int height;
+    private int[] distances = new int[0];
+    private int[] queue = new int[0];
+
+    /**
+     * Päivittää kentän vastaamaan annettua karttaa ja kohdetta. Mikäli kartta ja kohde ovat samat kuin edellisellä
+     * kutsulla, kenttää ei lasketa uudelleen.
+     *
+     * @param level   kartta jolle kenttä lasketaan
+     * @param targetX kohteen x-ruutukoordinaatti
+     * @param targetY kohteen y-ruutukoordinaatti
+     * @throws NullPointerException jos kartta on <code>null</code>
+     */
+    public void update(@NonNull Level level, int targetX, int targetY) {
+        if (level == this.level && targetX == this.targetX && targetY == this.targetY) {
+            return;
+        }
+
+        this.level = level;
+        this.targetX = targetX;
+        this.targetY = targetY;
+        rebuild();
+    }
+
+    /**
+     * Hakee annetun ruudun etäisyyden kohteeseen.
+     *
+     * @param x ruudun x-ruutukoordinaatti
+     * @param y ruudun y-ruutukoordinaatti
+     * @return askelten määrä kohteeseen, {@link #UNREACHABLE} jos reittiä ei ole
+     */
+    public int getDistance(int x, int y) {
+        if (this.level == null || x < 0 || x >= this.width || y < 0 || y >= this.height) {
+            return UNREACHABLE;
+        }
+
+        return this.distances[x + y * this.width];
+    }
+
+    private void rebuild() {
+        this.width = this.level.getWidth();
+        this.height = this.level.getHeight();
+        val size = this.width * this.height;
+        if (this.distances.length < size) {
+            this.distances = new int[size];
+            this.queue = new int[size];
+        }
+        Arrays.fill(this.distances, 0, size, UNREACHABLE);
+
+        if (!this.level.isWithinBounds(this.targetX, this.targetY)) {
+            return;
+        }
+
+        var head = 0;
+        var tail = 0;
+        val start = this.targetX + this.targetY * this.width;
+        this.distances[start] = 0;
+        this.queue[tail++] = start;
+
+        while (head < tail) {
+            val index = this.queue[head++];
+            val x = index % this.width;
+            val y = index / this.width;
+            val nextDistance = this.distances[index] + 1;
+            for (val direction : NEIGHBORS) {
+                val nx = x + direction.getDx();
+                val ny = y + direction.getDy();
+                if (this.level.isWall(nx, ny) || this.level.isDangerous(nx, ny)) {
+                    continue;
+                }
+
+                val neighbor = nx + ny * this.width;
+                if (this.distances[neighbor] == UNREACHABLE) {
+                    this.distances[neighbor] = nextDistance;
+                    this.queue[tail++] = neighbor;
+                }
+            }
+        }
+    }
+}
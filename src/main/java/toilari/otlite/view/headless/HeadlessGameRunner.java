@@ -0,0 +1,226 @@
+package toilari.otlite.view.headless;
+
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import lombok.var;
+import toilari.otlite.game.AbstractGameRunner;
+import toilari.otlite.game.BestiaryGameState;
+import toilari.otlite.game.Game;
+import toilari.otlite.game.GameState;
+import toilari.otlite.game.MainMenuGameState;
+import toilari.otlite.game.PlayGameState;
+import toilari.otlite.game.ProfileSelectGameState;
+import toilari.otlite.game.event.BestiaryEvent;
+import toilari.otlite.game.event.MainMenuEvent;
+import toilari.otlite.game.event.MenuEvent;
+import toilari.otlite.game.event.PlayEvent;
+import toilari.otlite.game.event.ProfileMenuEvent;
+import toilari.otlite.game.input.IInputHandler;
+import toilari.otlite.game.world.entities.characters.Attribute;
+import toilari.otlite.view.Camera;
+
+import java.sql.SQLException;
+import java.util.Random;
+
+/**
+ * Suorittaa peliä ilman ikkunaa tai piirtämistä niin nopeasti kuin mahdollista. Valikot ohitetaan automaattisesti ja
+ * pelaajaa ohjataan {@link ScriptedInputHandler skriptatulla syötteellä}. Pelaajan kuollessa aloitetaan uusi peli.
+ * Käytetään pelisisällön ja tekoälyn pitkäkestoiseen testaamiseen sekä simulaation läpäisykyvyn mittaamiseen.
+ */
+@Slf4j
+public class HeadlessGameRunner extends AbstractGameRunner<Camera> {
+    private static final float DEFAULT_TICK_DELTA = 1.0f / 60.0f;
+    private static final long DEFAULT_REPORT_INTERVAL_NANOS = 10_000_000_000L;
+    private static final Attribute[] LEVEL_UP_ATTRIBUTES = {
+        Attribute.STRENGTH, Attribute.ENDURANCE, Attribute.VITALITY, Attribute.DEXTERITY,
+        Attribute.CHARISMA, Attribute.INTELLIGENCE, Attribute.WISDOM, Attribute.LUCK,
+    };
+
+    @NonNull private final ScriptedInputHandler inputHandler;
+    @NonNull private final String profileName;
+    @NonNull private final Random random;
+
+    @Getter @NonNull private final SimulationStatistics statistics = new SimulationStatistics();
+
+    /**
+     * Simuloitu aika sekunteina jonka kukin päivitys kuluttaa.
+     *
+     * @param tickDelta päivityksen pituus sekunteina
+     * @return päivityksen pituus sekunteina
+     */
+    @Getter @Setter private float tickDelta = DEFAULT_TICK_DELTA;
+
+    /**
+     * Montako päivitystä suoritetaan ennen lopettamista. Mikäli arvo on nolla, päivitysten määrää ei rajoiteta.
+     *
+     * @param maxTicks päivitysten enimmäismäärä
+     * @return päivitysten enimmäismäärä
+     */
+    @Getter @Setter private long maxTicks;
+
+    /**
+     * Montako peliä pelataan ennen lopettamista. Mikäli arvo on nolla, pelien määrää ei rajoiteta.
+     *
+     * @param maxGames pelien enimmäismäärä
+     * @return pelien enimmäismäärä
+     */
+    @Getter @Setter private long maxGames;
+
+    /**
+     * Kuinka usein väliaikaiset mittaritulokset kirjataan lokiin, nanosekunteina.
+     *
+     * @param reportIntervalNanos raportointiväli nanosekunteina
+     * @return raportointiväli nanosekunteina
+     */
+    @Getter @Setter private long reportIntervalNanos = DEFAULT_REPORT_INTERVAL_NANOS;
+
+    private boolean stateEntered;
+    private int lastTotalTurn;
+
+    /**
+     * Luo uuden päättömän suorittajan.
+     *
+     * @param game         peli jota suoritetaan
+     * @param inputHandler syöte jolla pelaajaa ohjataan
+     * @param profileName  profiili jolla pelataan, luodaan tarvittaessa
+     * @param seed         siemenluku automaattisesti tehtäville valinnoille
+     * @throws NullPointerException jos peli, syöte tai profiilin nimi on <code>null</code>
+     */
+    public HeadlessGameRunner(@NonNull Game game, @NonNull ScriptedInputHandler inputHandler, @NonNull String profileName, long seed) {
+        super(game);
+        this.inputHandler = inputHandler;
+        this.profileName = profileName;
+        this.random = new Random(seed);
+    }
+
+    @Override
+    protected IInputHandler createInputHandler() {
+        return this.inputHandler;
+    }
+
+    @Override
+    protected Camera createCamera() {
+        return new Camera();
+    }
+
+    @Override
+    protected void onStateChange(GameState old, @NonNull GameState newState) {
+        super.onStateChange(old, newState);
+        this.stateEntered = true;
+
+        if (newState instanceof PlayGameState) {
+            this.statistics.addGame();
+            this.lastTotalTurn = ((PlayGameState) newState).getManager().getTotalTurn();
+            newState.getEventSystem().subscribeTo(PlayEvent.NextFloor.class, (e) -> this.statistics.addFloor());
+        }
+    }
+
+    /**
+     * Suorittaa peliä kunnes peli lopetetaan tai jokin asetetuista rajoista saavutetaan. Kirjaa mittaritulokset
+     * lokiin säännöllisesti sekä suorituksen päätteeksi.
+     */
+    @Override
+    public void run() {
+        init();
+
+        val start = System.nanoTime();
+        var lastReport = start;
+        while (getGame().isRunning()) {
+            runTick(this.tickDelta);
+
+            val now = System.nanoTime();
+            this.statistics.setElapsedNanos(now - start);
+            if (this.reportIntervalNanos > 0 && now - lastReport >= this.reportIntervalNanos) {
+                LOG.info("Simulation running: {}", this.statistics);
+                lastReport = now;
+            }
+
+            if (limitReached()) {
+                getGame().setRunning(false);
+            }
+        }
+
+        LOG.info("Simulation finished: {}", this.statistics);
+        destroy();
+    }
+
+    @Override
+    public void runTick(float delta) {
+        super.runTick(delta);
+        this.statistics.addTick();
+
+        if (getGame().isRunning()) {
+            driveCurrentState();
+        }
+    }
+
+    private boolean limitReached() {
+        return (this.maxTicks > 0 && this.statistics.getTicks() >= this.maxTicks)
+            || (this.maxGames > 0 && this.statistics.getGames() >= this.maxGames && !(getGame().getCurrentGameState() instanceof PlayGameState));
+    }
+
+    private void driveCurrentState() {
+        val state = getGame().getCurrentGameState();
+        val entered = this.stateEntered;
+        this.stateEntered = false;
+
+        if (state instanceof PlayGameState) {
+            drivePlay((PlayGameState) state);
+        } else if (state instanceof ProfileSelectGameState) {
+            if (entered) {
+                selectProfile(state);
+            }
+        } else if (state instanceof MainMenuGameState) {
+            if (this.maxGames > 0 && this.statistics.getGames() >= this.maxGames) {
+                state.getEventSystem().fire(new MenuEvent.Quit());
+            } else {
+                state.getEventSystem().fire(new MainMenuEvent.NewGame());
+            }
+        } else if (state instanceof BestiaryGameState) {
+            state.getEventSystem().fire(new BestiaryEvent.Return());
+        }
+    }
+
+    private void drivePlay(PlayGameState state) {
+        val totalTurn = state.getManager().getTotalTurn();
+        if (totalTurn > this.lastTotalTurn) {
+            this.statistics.addTurns(totalTurn - this.lastTotalTurn);
+        }
+        this.lastTotalTurn = totalTurn;
+
+        val player = state.getManager().getPlayer();
+        if (player == null || player.isRemoved()) {
+            state.getEventSystem().fire(new PlayEvent.ReturnToMenuAfterLoss());
+        } else if (state.isMenuOpen()) {
+            val attribute = LEVEL_UP_ATTRIBUTES[this.random.nextInt(LEVEL_UP_ATTRIBUTES.length)];
+            state.getEventSystem().fire(new PlayEvent.LevelUpAttribute(attribute));
+            state.getEventSystem().fire(new PlayEvent.CloseMenu());
+        }
+    }
+
+    private void selectProfile(GameState state) {
+        state.getEventSystem().subscribeTo(ProfileMenuEvent.Added.class, (e) -> state.getEventSystem().fire(new ProfileMenuEvent.Select(e.getProfile())));
+        state.getEventSystem().subscribeTo(ProfileMenuEvent.InvalidName.class, (e) -> selectExistingProfile(state));
+        state.getEventSystem().fire(new ProfileMenuEvent.Add(this.profileName));
+    }
+
+    private void selectExistingProfile(GameState state) {
+        try {
+            val profile = getGame().getProfiles().findByName(this.profileName);
+            if (profile == null) {
+                LOG.error("Could not find or create profile \"{}\", shutting down.", this.profileName);
+                getGame().setRunning(false);
+                return;
+            }
+
+            state.getEventSystem().fire(new ProfileMenuEvent.Select(profile));
+        } catch (SQLException e) {
+            LOG.error("Selecting profile failed, shutting down.");
+            LOG.error("Cause: {}", e.getMessage());
+            getGame().setRunning(false);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package toilari.otlite.view.headless;
+
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.val;
+import toilari.otlite.game.input.IInputHandler;
+import toilari.otlite.game.input.Key;
+
+import java.util.EnumSet;
+import java.util.Random;
+
+/**
+ * Syötekäsittelijä jonka painetut näppäimet määräytyvät ennalta annetun skriptin mukaan. Skriptiltä kysytään
+ * jokaisella päivityksellä mitkä näppäimet ovat pohjassa. Hiiren syötettä ei tueta.
+ */
+public class ScriptedInputHandler implements IInputHandler {
+    private static final Key[] NO_KEYS = new Key[0];
+    private static final Key[] RANDOM_WALK_KEYS = {Key.UP, Key.DOWN, Key.LEFT, Key.RIGHT, Key.SPACE};
+
+    @NonNull private final Script script;
+    private final EnumSet<Key> down = EnumSet.noneOf(Key.class);
+    private final EnumSet<Key> previouslyDown = EnumSet.noneOf(Key.class);
+
+    /**
+     * Montako kertaa käsittelijä on päivitetty.
+     *
+     * @return päivitysten lukumäärä
+     */
+    @Getter private long tick;
+
+    /**
+     * Luo uuden syötekäsittelijän.
+     *
+     * @param script skripti joka määrää painetut näppäimet
+     * @throws NullPointerException jos skripti on <code>null</code>
+     */
+    public ScriptedInputHandler(@NonNull Script script) {
+        this.script = script;
+    }
+
+    /**
+     * Luo syötekäsittelijän joka painaa joka toisella päivityksellä satunnaista suuntanäppäintä tai välilyöntiä.
+     * Näppäimet vapautetaan välissä, jotta jokainen painallus rekisteröityy uutena painalluksena.
+     *
+     * @param seed satunnaislukugeneraattorin siemenluku
+     * @return luotu syötekäsittelijä
+     */
+    public static ScriptedInputHandler randomWalk(long seed) {
+        val random = new Random(seed);
+        return new ScriptedInputHandler(tick -> tick % 2 == 0
+            ? new Key[]{RANDOM_WALK_KEYS[random.nextInt(RANDOM_WALK_KEYS.length)]}
+            : NO_KEYS);
+    }
+
+    @Override
+    public boolean isKeyDown(Key key) {
+        return this.down.contains(key);
+    }
+
+    @Override
+    public boolean isKeyPressed(Key key) {
+        return this.down.contains(key) && !this.previouslyDown.contains(key);
+    }
+
+    @Override
+    public int mouseX() {
+        return 0;
+    }
+
+    @Override
+    public int mouseY() {
+        return 0;
+    }
+
+    @Override
+    public boolean isMouseDown(int button) {
+        return false;
+    }
+
+    @Override
+    public boolean isMousePressed(int button) {
+        return false;
+    }
+
+    @Override
+    public void update() {
+        this.previouslyDown.clear();
+        this.previouslyDown.addAll(this.down);
+        this.down.clear();
+
+        val keys = this.script.keysDownAt(this.tick++);
+        if (keys != null) {
+            for (val key : keys) {
+                this.down.add(key);
+            }
+        }
+    }
+
+    /**
+     * Skripti joka määrää mitkä näppäimet ovat pohjassa milläkin päivityksellä.
+     */
+    public interface Script {
+        /**
+         * Hakee näppäimet jotka ovat pohjassa annetulla päivityksellä.
+         *
+         * @param tick päivityksen järjestysnumero, alkaen nollasta
+         * @return pohjassa olevat näppäimet, <code>null</code> tai tyhjä taulukko jos mitään ei paineta
+         */
+        Key[] keysDownAt(long tick);
+    }
+}
@@ -0,0 +1,80 @@
+package toilari.otlite.view.headless;
+
+import lombok.Getter;
+
+import java.util.Locale;
+
+/**
+ * Päättömän simulaation läpäisymittarit. Laskee suoritettujen päivitysten, vuorojen, kerrosten ja pelien määrät
+ * sekä niihin kuluneen seinäkelloajan.
+ */
+public class SimulationStatistics {
+    private static final double NANOS_PER_SECOND = 1_000_000_000.0;
+
+    @Getter private long ticks;
+    @Getter private long turns;
+    @Getter private long floors;
+    @Getter private long games;
+    @Getter private long elapsedNanos;
+
+    void addTick() {
+        this.ticks++;
+    }
+
+    void addTurns(long amount) {
+        this.turns += amount;
+    }
+
+    void addFloor() {
+        this.floors++;
+    }
+
+    void addGame() {
+        this.games++;
+    }
+
+    void setElapsedNanos(long elapsedNanos) {
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * Laskee päivitysten määrän sekunnissa.
+     *
+     * @return päivityksiä sekunnissa, 0 jos aikaa ei ole kulunut
+     */
+    public double getTicksPerSecond() {
+        return perSecond(this.ticks);
+    }
+
+    /**
+     * Laskee pelattujen vuorojen määrän sekunnissa.
+     *
+     * @return vuoroja sekunnissa, 0 jos aikaa ei ole kulunut
+     */
+    public double getTurnsPerSecond() {
+        return perSecond(this.turns);
+    }
+
+    /**
+     * Laskee läpäistyjen kerrosten määrän sekunnissa.
+     *
+     * @return kerroksia sekunnissa, 0 jos aikaa ei ole kulunut
+     */
+    public double getFloorsPerSecond() {
+        return perSecond(this.floors);
+    }
+
+    private double perSecond(long count) {
+        return this.elapsedNanos <= 0 ? 0.0 : count / (this.elapsedNanos / NANOS_PER_SECOND);
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT,
+            "%d ticks (%.1f/s), %d turns (%.1f/s), %d floors (%.2f/s), %d games in %.1fs",
+            this.ticks, getTicksPerSecond(),
+            this.turns, getTurnsPerSecond(),
+            this.floors, getFloorsPerSecond(),
+            this.games, this.elapsedNanos / NANOS_PER_SECOND);
+    }
+}
@@ -0,0 +1,83 @@
+package toilari.otlite.view.lwjgl;
+
+import lombok.NonNull;
+import lombok.val;
+
+/**
+ * Muotoiltu merkkijono joka muodostetaan uudelleen vain kun sen arvot muuttuvat. Käyttöliittymän tekstit piirretään
+ * jokaisella ruudunpäivityksellä, mutta niiden arvot muuttuvat harvoin, joten merkkijonoja ei kannata muotoilla
+ * joka kerta uudelleen.
+ */
+public class CachedText {
+    @NonNull private final String format;
+
+    private String text;
+    private boolean decimal;
+    private long a;
+    private long b;
+    private long c;
+
+    /**
+     * Luo uuden tekstin.
+     *
+     * @param format muotoilu jota {@link String#format(String, Object...)} käyttää. Ylimääräiset arvot jätetään
+     *               huomiotta, joten muotoilussa voi olla vähemmän kenttiä kuin arvoja annetaan.
+     * @throws NullPointerException jos muotoilu on <code>null</code>
+     */
+    public CachedText(@NonNull String format) {
+        this.format = format;
+    }
+
+    /**
+     * Hakee tekstin kokonaislukuarvoilla.
+     *
+     * @param a ensimmäinen arvo
+     * @param b toinen arvo
+     * @return muotoiltu teksti
+     */
+    public String get(long a, long b) {
+        return get(a, b, 0);
+    }
+
+    /**
+     * Hakee tekstin kokonaislukuarvoilla.
+     *
+     * @param a ensimmäinen arvo
+     * @param b toinen arvo
+     * @param c kolmas arvo
+     * @return muotoiltu teksti
+     */
+    public String get(long a, long b, long c) {
+        if (this.text == null || this.decimal || a != this.a || b != this.b || c != this.c) {
+            this.text = String.format(this.format, a, b, c);
+            store(false, a, b, c);
+        }
+
+        return this.text;
+    }
+
+    /**
+     * Hakee tekstin desimaaliarvoilla.
+     *
+     * @param a ensimmäinen arvo
+     * @param b toinen arvo
+     * @return muotoiltu teksti
+     */
+    public String get(double a, double b) {
+        val bitsA = Double.doubleToLongBits(a);
+        val bitsB = Double.doubleToLongBits(b);
+        if (this.text == null || !this.decimal || bitsA != this.a || bitsB != this.b) {
+            this.text = String.format(this.format, a, b);
+            store(true, bitsA, bitsB, 0);
+        }
+
+        return this.text;
+    }
+
+    private void store(boolean decimal, long a, long b, long c) {
+        this.decimal = decimal;
+        this.a = a;
+        this.b = b;
+        this.c = c;
+    }
+}
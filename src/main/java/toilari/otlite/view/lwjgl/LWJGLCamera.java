@@ -23,6 +23,14 @@ public class LWJGLCamera extends toilari.otlite.view.Camera {
     @Getter private float zoom = 1.0f;
     private boolean viewDirty;
 
+    /**
+     * Laskuri joka kasvaa aina kun näkymä- tai projektiomatriisi muuttuu. Piirtäjät voivat verrata arvoa edelliseen
+     * näkemäänsä arvoon ja jättää matriisit lähettämättä näytönohjaimelle jos ne eivät ole muuttuneet.
+     *
+     * @return matriisien muutoslaskurin arvo
+     */
+    @Getter private int matrixRevision;
+
     /**
      * Matriisi joka sisältää tarvittavat transformaatiot pelimaailman koordinaattien projisoimiseksi
      * ruutukoordinaateiksi. Projektiomatriisi päivitetään aina kun ruudun koko muuttuu.
@@ -47,6 +55,41 @@ public class LWJGLCamera extends toilari.otlite.view.Camera {
         return this.viewportHeight / this.pixelsPerUnit;
     }
 
+    /**
+     * Hakee kameran näkyvissä olevan alueen leveyden pelimaailman koordinaatteina, zoomi huomioiden.
+     *
+     * @return näkyvän alueen leveys
+     */
+    public float getVisibleWidth() {
+        return getViewportWidth() * this.zoom;
+    }
+
+    /**
+     * Hakee kameran näkyvissä olevan alueen korkeuden pelimaailman koordinaatteina, zoomi huomioiden.
+     *
+     * @return näkyvän alueen korkeus
+     */
+    public float getVisibleHeight() {
+        return getViewportHeight() * this.zoom;
+    }
+
+    /**
+     * Tarkistaa onko annettu suorakulmio pelimaailmassa edes osittain kameran näkyvissä.
+     *
+     * @param x suorakulmion vasemman yläkulman x-koordinaatti
+     * @param y suorakulmion vasemman yläkulman y-koordinaatti
+     * @param w suorakulmion leveys
+     * @param h suorakulmion korkeus
+     * @return <code>true</code> jos suorakulmio on näkyvissä, muulloin <code>false</code>
+     */
+    public boolean overlapsViewport(float x, float y, float w, float h) {
+        val minX = getX();
+        val minY = getY();
+        val maxX = minX + getVisibleWidth();
+        val maxY = minY + getVisibleHeight();
+        return x < maxX && x + w > minX && y < maxY && y + h > minY;
+    }
+
     /**
      * Hakee näkymämatriisin taulukkona. Taulukko on muotoa <code>float[16]</code>
      *
@@ -57,6 +100,16 @@ public class LWJGLCamera extends toilari.otlite.view.Camera {
         return this.viewMatrixArr;
     }
 
+    /**
+     * Päivittää näkymämatriisin mikäli kameraa on siirretty tai zoomattu, ja palauttaa matriisien muutoslaskurin.
+     *
+     * @return {@link #getMatrixRevision() matriisien muutoslaskurin} ajantasainen arvo
+     */
+    public int refreshMatrices() {
+        refreshViewMatrix();
+        return this.matrixRevision;
+    }
+
     /**
      * Asettaaa kameran zoomin.
      *
@@ -103,6 +156,7 @@ public class LWJGLCamera extends toilari.otlite.view.Camera {
         val mult = viewportHeight / this.pixelsPerUnit;
         this.projectionMatrix.setOrtho2D(0, ratio * mult, mult, 0);
         this.projectionMatrixArr = this.projectionMatrix.get(this.projectionMatrixArr);
+        this.matrixRevision++;
         glViewport(0, 0, viewportWidth, viewportHeight);
     }
 
@@ -116,6 +170,7 @@ public class LWJGLCamera extends toilari.otlite.view.Camera {
             this.viewMatrix.get(this.viewMatrixArr);
 
             this.viewDirty = false;
+            this.matrixRevision++;
         }
     }
 }
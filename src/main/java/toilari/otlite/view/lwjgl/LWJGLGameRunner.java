@@ -113,8 +113,16 @@ public class LWJGLGameRunner extends AbstractGameRunner<LWJGLCamera> {
                 if (getCamera() != null) {
                     getCamera().resizeViewport(width, height);
                 }
+                requestRedraw();
             })
             .set(this.windowHandle);
+
+        // Any input or window event may change what is on screen, the input itself is still polled normally
+        glfwSetKeyCallback(this.windowHandle, (handle, key, scancode, action, mods) -> requestRedraw());
+        glfwSetMouseButtonCallback(this.windowHandle, (handle, button, action, mods) -> requestRedraw());
+        glfwSetCursorPosCallback(this.windowHandle, (handle, x, y) -> requestRedraw());
+        glfwSetWindowFocusCallback(this.windowHandle, (handle, focused) -> requestRedraw());
+        glfwSetWindowRefreshCallback(this.windowHandle, handle -> requestRedraw());
     }
 
     private boolean initVideoMode() {
@@ -139,18 +147,33 @@ public class LWJGLGameRunner extends AbstractGameRunner<LWJGLCamera> {
         return true;
     }
 
+    @Override
+    protected void pollEvents() {
+        glfwPollEvents();
+
+        if (glfwWindowShouldClose(this.windowHandle)) {
+            getGame().setRunning(false);
+        }
+    }
+
+    @Override
+    protected boolean isDisplaySynchronized() {
+        // The swap interval is set to one, so swapping the buffers waits for the next vertical blank
+        return true;
+    }
+
+    @Override
+    protected void waitForEvents(long timeoutNanos) {
+        glfwWaitEventsTimeout(timeoutNanos / 1_000_000_000.0);
+    }
+
     @Override
     public void display(@NonNull LWJGLCamera camera) {
         glClear(GL_COLOR_BUFFER_BIT | GL_DEPTH_BUFFER_BIT);
 
-        glfwPollEvents();
         super.display(camera);
 
         glfwSwapBuffers(this.windowHandle);
-
-        if (glfwWindowShouldClose(this.windowHandle)) {
-            getGame().setRunning(false);
-        }
     }
 
     @Override
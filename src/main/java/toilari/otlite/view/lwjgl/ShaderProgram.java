@@ -4,7 +4,10 @@ import lombok.Getter;
 import lombok.NonNull;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
+import lombok.var;
+import org.lwjgl.system.MemoryStack;
 
+import java.util.HashMap;
 import java.util.Map;
 
 import static org.lwjgl.opengl.GL20.*;
@@ -19,6 +22,14 @@ public class ShaderProgram {
     private final int fragmentShader;
     @Getter private final int program;
 
+    /**
+     * Onnistuiko sävytinohjelman linkitys. Ohjelmaa ei voi käyttää piirtämiseen mikäli linkitys epäonnistui.
+     *
+     * @return <code>true</code> jos ohjelma linkitettiin onnistuneesti
+     */
+    @Getter private boolean linked;
+    private final Map<String, Integer> uniformLocations = new HashMap<>();
+
     /**
      * Luo uuden sävyttimen.
      *
@@ -66,6 +77,45 @@ public class ShaderProgram {
 
         if (glGetProgrami(this.program, GL_LINK_STATUS) != GL_TRUE) {
             LOG.error(glGetProgramInfoLog(this.program));
+            return;
+        }
+
+        this.linked = true;
+        resolveUniformLocations();
+    }
+
+    /**
+     * Hakee uniform-muuttujan sijainnin. Sijainnit selvitetään kerran ohjelman linkityksen yhteydessä, joten haku ei
+     * vaadi kutsuja OpenGL:ään. Sijainti kannattaa silti hakea kerran ja säilöä, jos sitä käytetään jokaisella
+     * piirtokerralla.
+     *
+     * @param name uniform-muuttujan nimi
+     * @return muuttujan sijainti, -1 jos ohjelmassa ei ole aktiivista muuttujaa annetulla nimellä
+     */
+    public int getUniformLocation(@NonNull String name) {
+        val location = this.uniformLocations.get(name);
+        if (location == null) {
+            LOG.warn("Shader program has no active uniform \"{}\"", name);
+            return -1;
+        }
+
+        return location;
+    }
+
+    private void resolveUniformLocations() {
+        val count = glGetProgrami(this.program, GL_ACTIVE_UNIFORMS);
+        try (val stack = MemoryStack.stackPush()) {
+            val size = stack.mallocInt(1);
+            val type = stack.mallocInt(1);
+            for (int i = 0; i < count; i++) {
+                var name = glGetActiveUniform(this.program, i, size, type);
+
+                // Arrays are reported as "name[0]", allow looking them up by the plain name as well
+                if (name.endsWith("[0]")) {
+                    name = name.substring(0, name.length() - 3);
+                }
+                this.uniformLocations.put(name, glGetUniformLocation(this.program, name));
+            }
         }
     }
 
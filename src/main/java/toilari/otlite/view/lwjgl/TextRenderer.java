@@ -6,19 +6,23 @@ import toilari.otlite.dao.IGetDAO;
 import toilari.otlite.game.util.Color;
 import toilari.otlite.view.lwjgl.batch.SpriteBatch;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.Arrays;
 
 /**
  * Piirtää tekstiä ruudulle.
  */
 public class TextRenderer {
     private static final String AVAILABLE_CHARS = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZ.:!?-+/\\()[]<>";
-    private static final Map<Character, Integer> CHAR_TO_FRAME = new HashMap<>();
+    private static final int NO_GLYPH = -1;
+    private static final int[] GLYPH_FRAMES = new int[128];
 
     static {
+        // Lower case letters map to the same glyphs as upper case ones, so strings never need to be converted
+        Arrays.fill(GLYPH_FRAMES, NO_GLYPH);
         for (int i = 0; i < AVAILABLE_CHARS.length(); i++) {
-            CHAR_TO_FRAME.put(AVAILABLE_CHARS.charAt(i), i);
+            val c = AVAILABLE_CHARS.charAt(i);
+            GLYPH_FRAMES[c] = i;
+            GLYPH_FRAMES[Character.toLowerCase(c)] = i;
         }
     }
 
@@ -59,8 +63,7 @@ public class TextRenderer {
      * @param size   fonttikoko
      * @param string piirrettävä merkkijono
      */
-    public void draw(@NonNull LWJGLCamera camera, @NonNull SpriteBatch batch, float x, float y, @NonNull Color color, float size, @NonNull String string) {
-        string = string.toUpperCase();
+    public void draw(@NonNull LWJGLCamera camera, @NonNull SpriteBatch batch, float x, float y, @NonNull Color color, float size, @NonNull CharSequence string) {
         float destX = x, destY = y;
         for (int i = 0; i < string.length(); i++) {
             val c = string.charAt(i);
@@ -72,15 +75,75 @@ public class TextRenderer {
                 destX = x;
                 destY += size;
                 continue;
-            } else if (!TextRenderer.CHAR_TO_FRAME.containsKey(c)) {
+            }
+
+            val frame = glyphFrame(c);
+            if (frame == NO_GLYPH) {
                 continue;
             }
 
-            this.font.draw(camera, batch, destX, destY, size, size, TextRenderer.CHAR_TO_FRAME.get(c), color);
+            this.font.draw(camera, batch, destX, destY, size, size, frame, color);
             destX += size;
         }
     }
 
+    /**
+     * Piirtää kokonaisluvun ruudulle muodostamatta siitä merkkijonoa.
+     *
+     * @param camera kamera jonka näkökulmasta piiretään
+     * @param batch  sarjapiirtä
+     * @param x      tekstin x-koordinaatti
+     * @param y      tekstin y-koordinaatti
+     * @param color  väri
+     * @param size   fonttikoko
+     * @param number piirrettävä luku
+     */
+    public void draw(@NonNull LWJGLCamera camera, @NonNull SpriteBatch batch, float x, float y, @NonNull Color color, float size, int number) {
+        long value = number;
+        if (value < 0) {
+            this.font.draw(camera, batch, x, y, size, size, glyphFrame('-'), color);
+            x += size;
+            value = -value;
+        }
+
+        int digits = 1;
+        for (long remaining = value / 10; remaining > 0; remaining /= 10) {
+            digits++;
+        }
+
+        // Digits are drawn right to left, so the number never needs to be converted to a string
+        for (int i = digits - 1; i >= 0; i--) {
+            this.font.draw(camera, batch, x + i * size, y, size, size, glyphFrame((char) ('0' + value % 10)), color);
+            value /= 10;
+        }
+    }
+
+    /**
+     * Laskee montako riviä merkkijonon piirtäminen vaatii.
+     *
+     * @param string merkkijono jonka rivit lasketaan
+     * @return rivinvaihtojen lukumäärä lisättynä yhdellä
+     */
+    public static int countLines(@NonNull String string) {
+        int lines = 1;
+        for (int i = 0; i < string.length(); i++) {
+            if (string.charAt(i) == '\n') {
+                lines++;
+            }
+        }
+        return lines;
+    }
+
+    /**
+     * Hakee merkkiä vastaavan kuvan indeksin fontissa.
+     *
+     * @param c merkki jota vastaava kuva haetaan
+     * @return kuvan indeksi, tai -1 jos merkille ei ole kuvaa
+     */
+    static int glyphFrame(char c) {
+        return c < GLYPH_FRAMES.length ? GLYPH_FRAMES[c] : NO_GLYPH;
+    }
+
     /**
      * Vapauttaa piirtäjälle varatut resurssit.
      */
@@ -10,10 +10,18 @@ import static org.lwjgl.opengl.GL11.glBindTexture;
 
 /**
  * Piirtämistä varten ladattu kuva eli tekstuuri. Apuluokka tekstuurien käsittelyyn.
+ * <p>
+ * Tekstuuri voi olla myös alue suuremmasta atlas-tekstuurista, jolloin se jakaa atlaksen OpenGL-tekstuurin muiden
+ * samaan atlakseen pakattujen tekstuurien kanssa. Leveys ja korkeus ovat tällöin alueen mittoja ja
+ * tekstuurikoordinaatit muunnetaan atlaksen koordinaateiksi {@link #mapU(float)} ja {@link #mapV(float)} avulla.
  */
 public class Texture {
     @Getter private final int width;
     @Getter private final int height;
+    @Getter private final int atlasX;
+    @Getter private final int atlasY;
+    @Getter private final int atlasWidth;
+    @Getter private final int atlasHeight;
 
     private int referenceCounter = 0;
 
@@ -28,9 +36,49 @@ public class Texture {
      * @param handle tekstuuria vastaavan OpenGL-tekstuurin kahva/tunniste
      */
     public Texture(int width, int height, int handle) {
+        this(width, height, handle, 0, 0, width, height);
+    }
+
+    /**
+     * Luo uuden tekstuurin joka on alue atlas-tekstuurista. Älä kutsu tätä konstruktoria suoraan, vaan käytä
+     * {@link TextureDAO} -luokan tarjoamaa toiminnallisuutta tekstuurien luomiseen.
+     *
+     * @param width       alueen leveys
+     * @param height      alueen korkeus
+     * @param handle      atlasta vastaavan OpenGL-tekstuurin kahva/tunniste
+     * @param atlasX      alueen vasemman yläkulman x-koordinaatti atlaksessa
+     * @param atlasY      alueen vasemman yläkulman y-koordinaatti atlaksessa
+     * @param atlasWidth  atlaksen leveys
+     * @param atlasHeight atlaksen korkeus
+     */
+    public Texture(int width, int height, int handle, int atlasX, int atlasY, int atlasWidth, int atlasHeight) {
         this.width = width;
         this.height = height;
         this.handle = handle;
+        this.atlasX = atlasX;
+        this.atlasY = atlasY;
+        this.atlasWidth = atlasWidth;
+        this.atlasHeight = atlasHeight;
+    }
+
+    /**
+     * Muuntaa tämän tekstuurin u-koordinaatin OpenGL-tekstuurin u-koordinaatiksi.
+     *
+     * @param u u-koordinaatti välillä 0..1 tämän tekstuurin alueella
+     * @return u-koordinaatti koko OpenGL-tekstuurissa
+     */
+    public float mapU(float u) {
+        return (this.atlasX + u * this.width) / this.atlasWidth;
+    }
+
+    /**
+     * Muuntaa tämän tekstuurin v-koordinaatin OpenGL-tekstuurin v-koordinaatiksi.
+     *
+     * @param v v-koordinaatti välillä 0..1 tämän tekstuurin alueella
+     * @return v-koordinaatti koko OpenGL-tekstuurissa
+     */
+    public float mapV(float v) {
+        return (this.atlasY + v * this.height) / this.atlasHeight;
     }
 
     /**
@@ -0,0 +1,94 @@
+package toilari.otlite.view.lwjgl.batch;
+
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.val;
+import org.joml.Matrix4f;
+import toilari.otlite.dao.util.TextFileHelper;
+import toilari.otlite.view.lwjgl.LWJGLCamera;
+import toilari.otlite.view.lwjgl.ShaderProgram;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.lwjgl.opengl.GL20.glUniformMatrix4fv;
+
+/**
+ * Sarjapiirtäjän käyttämä sävytinohjelma. Pitää kirjaa viimeksi lähetetyistä kameran matriiseista, jotta niitä ei
+ * tarvitse lähettää näytönohjaimelle uudelleen jokaisella piirtokerralla.
+ */
+class BatchShader {
+    @Getter @NonNull private final ShaderProgram program;
+    private final int uniformView;
+    private final int uniformProjection;
+
+    private LWJGLCamera uploadedCamera;
+    private int uploadedMatrixRevision;
+
+    private BatchShader(@NonNull ShaderProgram program) {
+        this.program = program;
+        this.uniformView = program.getUniformLocation("view");
+        this.uniformProjection = program.getUniformLocation("projection");
+
+        // Sprites are queued directly in world coordinates, so the model matrix never changes
+        program.use();
+        glUniformMatrix4fv(program.getUniformLocation("model"), false, new Matrix4f().get(new float[4 * 4]));
+    }
+
+    /**
+     * Lataa sävytinohjelman annetuista lähdetiedostoista.
+     *
+     * @param vertexPath         verteksisävyttimen polku
+     * @param fragmentPath       fragmenttisävyttimen polku
+     * @param attributeLocations verteksisävyttimen attribuuttien indeksit
+     * @return ladattu sävytin, <code>null</code> jos sävytintä ei voitu ladata tai linkittää
+     */
+    static BatchShader load(@NonNull String vertexPath, @NonNull String fragmentPath, @NonNull Map<Integer, String> attributeLocations) {
+        String vertSrc;
+        String fragSrc;
+        try {
+            vertSrc = TextFileHelper.readFileToString(vertexPath);
+            fragSrc = TextFileHelper.readFileToString(fragmentPath);
+        } catch (IOException e) {
+            return null;
+        }
+
+        val out = new HashMap<Integer, String>();
+        out.put(0, "out_fragColor");
+
+        val program = new ShaderProgram(vertSrc, fragSrc, attributeLocations, out);
+        if (!program.isLinked()) {
+            program.destroy();
+            return null;
+        }
+
+        return new BatchShader(program);
+    }
+
+    /**
+     * Asettaa sävyttimen käyttöön ja lähettää kameran matriisit mikäli ne ovat muuttuneet.
+     *
+     * @param camera kamera jonka näkökulmasta piirretään
+     */
+    void use(@NonNull LWJGLCamera camera) {
+        this.program.use();
+
+        // Uniform values are program state, so they only need to be uploaded when the camera has changed
+        val revision = camera.refreshMatrices();
+        if (camera != this.uploadedCamera || revision != this.uploadedMatrixRevision) {
+            glUniformMatrix4fv(this.uniformView, false, camera.getViewMatrixArr());
+            glUniformMatrix4fv(this.uniformProjection, false, camera.getProjectionMatrixArr());
+            this.uploadedCamera = camera;
+            this.uploadedMatrixRevision = revision;
+        }
+    }
+
+    /**
+     * Vapauttaa sävyttimelle varatut resurssit.
+     */
+    void destroy() {
+        this.program.destroy();
+        this.uploadedCamera = null;
+    }
+}
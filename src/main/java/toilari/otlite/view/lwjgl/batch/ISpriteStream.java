@@ -0,0 +1,55 @@
+package toilari.otlite.view.lwjgl.batch;
+
+import lombok.NonNull;
+import toilari.otlite.game.util.Color;
+
+/**
+ * Sarjapiirtäjän jonossa olevien kuvien säilö. Toteutus määrää missä muodossa kuvat lähetetään näytönohjaimelle ja
+ * millä sävyttimellä ne piirretään.
+ */
+interface ISpriteStream {
+    /**
+     * Montako kuvaa jonoon mahtuu kerralla.
+     */
+    int MAX_SPRITES = 512;
+
+    /**
+     * Hakee sävyttimen jolla tämän säilön kuvat piirretään.
+     *
+     * @return sävytin
+     */
+    BatchShader getShader();
+
+    /**
+     * Lisää kuvan jonoon. Tekstuurikoordinaatit on jo muunnettu OpenGL-tekstuurin koordinaateiksi.
+     *
+     * @param color värisävy
+     * @param x     x-koordinaatti pelimaailmassa
+     * @param y     y-koordinaatti pelimaailmassa
+     * @param w     leveys pelimaailmassa
+     * @param h     korkeus pelimaailmassa
+     * @param u0    vasemman yläkulman u-koordinaatti
+     * @param v0    vasemman yläkulman v-koordinaatti
+     * @param u1    oikean alakulman u-koordinaatti
+     * @param v1    oikean alakulman v-koordinaatti
+     */
+    void put(@NonNull Color color, float x, float y, float w, float h, float u0, float v0, float u1, float v1);
+
+    /**
+     * Lähettää jonossa olevat kuvat näytönohjaimelle ja piirtää ne. Sävyttimen ja tekstuurin tulee olla jo
+     * käytössä.
+     *
+     * @param nSprites jonossa olevien kuvien lukumäärä
+     */
+    void draw(int nSprites);
+
+    /**
+     * Tyhjentää jonon.
+     */
+    void clear();
+
+    /**
+     * Vapauttaa kaikki varatut resurssit.
+     */
+    void destroy();
+}
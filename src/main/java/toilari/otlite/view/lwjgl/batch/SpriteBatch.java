@@ -1,116 +1,134 @@
 package toilari.otlite.view.lwjgl.batch;
 
+import lombok.Getter;
 import lombok.NonNull;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
-import org.joml.Matrix4f;
-import toilari.otlite.dao.util.TextFileHelper;
 import toilari.otlite.game.util.Color;
 import toilari.otlite.view.lwjgl.LWJGLCamera;
-import toilari.otlite.view.lwjgl.ShaderProgram;
 import toilari.otlite.view.lwjgl.Texture;
 
-import java.io.IOException;
 import java.util.HashMap;
 
-import static org.lwjgl.opengl.GL11.GL_FLOAT;
-import static org.lwjgl.opengl.GL15.*;
-import static org.lwjgl.opengl.GL20.*;
-import static org.lwjgl.opengl.GL30.*;
-
 /**
  * Batch Renderer eli "Sarjapiirtäjä"/joukkopiirtäjä. Piirtäjä joka kokoaa useiden piirrettävien tekstuurien
  * piirtokäskyt yhteen ja suorittaa ne kerralla. Säästää huomattavan määrän resursseja.
+ * <p>
+ * Mikäli näytönohjain tukee instanssipiirtämistä, kuvat lähetetään näytönohjaimelle yhtenä tietueena kuvaa kohden.
+ * Muulloin jokainen kuva laajennetaan neljäksi verteksiksi.
  */
 @Slf4j
 public class SpriteBatch {
-    private static final int MAX_SPRITES = 512;
-    private static final int ATTRIBUTES_PER_SPRITE = 4 * (2 + 2 + 3); // 2 pos, 2 uv, 3 color
-    private static ShaderProgram shader;
-    private float[] vertices;
-    private Matrix4f model;
-
-    @NonNull
-    private static ShaderProgram getShader() {
-        if (shader == null) {
-            try {
-                val vertSrc = TextFileHelper.readFileToString("content/shaders/sprite.vert");
-                val fragSrc = TextFileHelper.readFileToString("content/shaders/sprite.frag");
-
-                val attrs = new HashMap<Integer, String>();
-                attrs.put(0, "in_pos");
-                attrs.put(1, "in_uv");
-                attrs.put(2, "in_tint");
-
-                val out = new HashMap<Integer, String>();
-                out.put(0, "out_fragColor");
-
-                shader = new ShaderProgram(vertSrc, fragSrc, attrs, out);
-            } catch (IOException e) {
-                throw new IllegalStateException("Default sprite shader could not be loaded.");
-            }
-        }
-        return shader;
-    }
-
+    private BatchShader spriteShader;
+    private BatchShader instancedShader;
+    private ISpriteStream stream;
 
-    private int vao = -1;
-    private int vbo = -1;
-    private int ebo = -1;
+    /**
+     * Käyttääkö piirtäjä instanssipiirtämistä. Valitaan alustuksen yhteydessä näytönohjaimen ominaisuuksien mukaan.
+     *
+     * @return <code>true</code> jos kuvat piirretään instansseina
+     */
+    @Getter private boolean instanced;
 
     private boolean beginCalled;
     private Texture active;
     private int nSpritesInBatch;
-    private int nVertices;
 
     /**
-     * Alustaa piirtäjän.
+     * Alustaa piirtäjän. Alustettu piirtäjä on {@link #destroy() tuhottava} ennen kuin sen voi alustaa uudelleen.
+     *
+     * @throws IllegalStateException jos piirtäjä on jo alustettu
      */
     public void init() {
-        this.vao = glGenVertexArrays();
-        glBindVertexArray(this.vao);
-
-        this.vertices = new float[MAX_SPRITES * ATTRIBUTES_PER_SPRITE]; // 7 float fields
-        this.vbo = glGenBuffers();
-        this.ebo = glGenBuffers();
-        glBindBuffer(GL_ELEMENT_ARRAY_BUFFER, this.ebo);
-        val indices = new int[MAX_SPRITES * 6];
-        int j = 0;
-        for (int i = 0; i < indices.length; i += 6, j += 4) {
-            indices[i + 0] = j + 0;
-            indices[i + 1] = j + 1;
-            indices[i + 2] = j + 2;
-            indices[i + 3] = j + 2;
-            indices[i + 4] = j + 3;
-            indices[i + 5] = j + 0;
+        // The streams hold off-heap memory the GC cannot reclaim, so a missed destroy() must not go unnoticed
+        if (isInitialized()) {
+            throw new IllegalStateException("SpriteBatch is already initialized, call destroy() first!");
+        }
+
+        this.spriteShader = loadSpriteShader();
+        if (this.spriteShader == null) {
+            throw new IllegalStateException("Default sprite shader could not be loaded.");
+        }
+
+        this.instancedShader = InstancedSpriteStream.isSupported() ? loadInstancedShader() : null;
+        this.instanced = this.instancedShader != null;
+        try {
+            this.stream = this.instanced
+                ? new InstancedSpriteStream(this.instancedShader)
+                : new VertexSpriteStream(this.spriteShader);
+        } catch (RuntimeException e) {
+            // Without a stream the batch counts as uninitialized, so the shaders would never be released otherwise
+            destroy();
+            throw e;
         }
-        glBufferData(GL_ELEMENT_ARRAY_BUFFER, indices, GL_STATIC_DRAW);
+        LOG.info("Sprite batch using {} rendering", this.instanced ? "instanced" : "per-vertex");
     }
 
     /**
-     * Vapauttaa kaikki varatut resurssit.
+     * Tarkistaa onko piirtäjä alustettu.
+     *
+     * @return <code>true</code> jos piirtäjä on alustettu eikä sitä ole vielä tuhottu
+     */
+    public boolean isInitialized() {
+        return this.stream != null;
+    }
+
+    /**
+     * Vapauttaa kaikki varatut resurssit. Ei tee mitään jos piirtäjää ei ole alustettu.
      */
     public void destroy() {
-        glDeleteVertexArrays(this.vao);
-        glDeleteBuffers(this.vbo);
-        glDeleteBuffers(this.ebo);
+        if (this.stream != null) {
+            this.stream.destroy();
+            this.stream = null;
+        }
+
+        if (this.instancedShader != null) {
+            this.instancedShader.destroy();
+            this.instancedShader = null;
+        }
+
+        if (this.spriteShader != null) {
+            this.spriteShader.destroy();
+            this.spriteShader = null;
+        }
+    }
+
+    private static BatchShader loadSpriteShader() {
+        val attrs = new HashMap<Integer, String>();
+        attrs.put(0, "in_pos");
+        attrs.put(1, "in_uv");
+        attrs.put(2, "in_tint");
+
+        return BatchShader.load("content/shaders/sprite.vert", "content/shaders/sprite.frag", attrs);
+    }
+
+    private static BatchShader loadInstancedShader() {
+        val attrs = new HashMap<Integer, String>();
+        attrs.put(0, "in_rect");
+        attrs.put(1, "in_uvRect");
+        attrs.put(2, "in_tint");
+
+        val shader = BatchShader.load("content/shaders/sprite_instanced.vert", "content/shaders/sprite.frag", attrs);
+        if (shader == null) {
+            LOG.warn("Instanced sprite shader could not be loaded, falling back to per-vertex rendering.");
+        }
+        return shader;
     }
 
     /**
      * Avaa piirtojonon. Kutsuttava aina ennen kuin yhtään <code>queue(...)</code>-metodia voidaan kutsua.
      */
     public void begin() {
-        if (this.vao == -1) {
-            throw new IllegalStateException("VAO is not initialized!");
+        if (!isInitialized()) {
+            throw new IllegalStateException("SpriteBatch is not initialized!");
         }
 
         if (this.beginCalled) {
             throw new IllegalStateException("Call SpriteBatch.end() before .begin() for second time!");
         }
 
-        this.model = new Matrix4f().identity();
         this.beginCalled = true;
-        this.nVertices = 0;
+        this.stream.clear();
         this.nSpritesInBatch = 0;
     }
 
@@ -176,67 +194,50 @@ public class SpriteBatch {
             throw new IllegalStateException("Call SpriteBatch.begin() before queuing data!");
         }
 
-        if (this.active != null && (!texture.equals(this.active) || this.nSpritesInBatch >= MAX_SPRITES)) {
+        if (this.active != null && (!texture.equals(this.active) || this.nSpritesInBatch >= ISpriteStream.MAX_SPRITES)) {
             flush(camera);
         }
 
+        // Atlas regions share the GL texture, so only the coordinates need to be moved into the region
+        val atlasU0 = texture.mapU(u0);
+        val atlasV0 = texture.mapV(v0);
+        val atlasU1 = texture.mapU(u1);
+        val atlasV1 = texture.mapV(v1);
+
         this.active = texture;
-        queueVertex(color, x + 0, y + 0, u0, v0);
-        queueVertex(color, x + w, y + 0, u1, v0);
-        queueVertex(color, x + w, y + h, u1, v1);
-        queueVertex(color, x + 0, y + h, u0, v1);
+        this.stream.put(color, x, y, w, h, atlasU0, atlasV0, atlasU1, atlasV1);
 
         this.nSpritesInBatch++;
     }
 
-    private void queueVertex(@NonNull Color color, float x, float y, float u, float v) {
-        this.vertices[this.nVertices++] = x;
-        this.vertices[this.nVertices++] = y;
-        this.vertices[this.nVertices++] = u;
-        this.vertices[this.nVertices++] = v;
-        this.vertices[this.nVertices++] = color.getR();
-        this.vertices[this.nVertices++] = color.getG();
-        this.vertices[this.nVertices++] = color.getB();
-    }
-
-    private void flush(@NonNull LWJGLCamera camera) {
-        this.active.bind();
-        prepareShader(camera);
-        constructVBO();
-
-        glDrawElements(GL_TRIANGLES, this.nSpritesInBatch * 6, GL_UNSIGNED_INT, 0);
-
-        this.nSpritesInBatch = 0;
-        this.nVertices = 0;
-    }
-
-    private void prepareShader(@NonNull LWJGLCamera camera) {
-        getShader().use();
+    /**
+     * Piirtää staattisen verkon. Jonossa olevat kuvat piirretään ensin, jotta piirtojärjestys säilyy.
+     *
+     * @param camera kamera jonka näkökulmasta piirretään
+     * @param mesh   piirrettävä verkko
+     */
+    public void draw(@NonNull LWJGLCamera camera, @NonNull StaticSpriteMesh mesh) {
+        if (!this.beginCalled) {
+            throw new IllegalStateException("Call SpriteBatch.begin() before drawing meshes!");
+        }
 
-        val uniformModel = glGetUniformLocation(getShader().getProgram(), "model");
-        val uniformView = glGetUniformLocation(getShader().getProgram(), "view");
-        val uniformProj = glGetUniformLocation(getShader().getProgram(), "projection");
+        flush(camera);
 
-        glUniformMatrix4fv(uniformModel, false, this.model.get(new float[4 * 4]));
-        glUniformMatrix4fv(uniformView, false, camera.getViewMatrixArr());
-        glUniformMatrix4fv(uniformProj, false, camera.getProjectionMatrixArr());
+        // Static meshes are always stored per-vertex, so they are drawn with the plain sprite shader
+        mesh.getTexture().bind();
+        this.spriteShader.use(camera);
+        mesh.draw();
     }
 
-    private void constructVBO() {
-        glBindVertexArray(this.vao);
-        glBindBuffer(GL_ARRAY_BUFFER, this.vbo);
-        glBufferData(GL_ARRAY_BUFFER, this.vertices, GL_STATIC_DRAW);
-
-        // vertex position
-        glEnableVertexAttribArray(0);
-        glVertexAttribPointer(0, 2, GL_FLOAT, false, 4 * 7, 0);
+    private void flush(@NonNull LWJGLCamera camera) {
+        if (this.nSpritesInBatch == 0) {
+            return;
+        }
 
-        // vertex uv
-        glEnableVertexAttribArray(1);
-        glVertexAttribPointer(1, 2, GL_FLOAT, false, 4 * 7, 2 * 4);
+        this.active.bind();
+        this.stream.getShader().use(camera);
+        this.stream.draw(this.nSpritesInBatch);
 
-        // vertex color
-        glEnableVertexAttribArray(2);
-        glVertexAttribPointer(2, 3, GL_FLOAT, false, 4 * 7, 4 * 4);
+        this.nSpritesInBatch = 0;
     }
 }
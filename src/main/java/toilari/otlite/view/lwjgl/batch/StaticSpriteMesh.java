@@ -0,0 +1,147 @@
+package toilari.otlite.view.lwjgl.batch;
+
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.val;
+import org.lwjgl.system.MemoryUtil;
+import toilari.otlite.game.util.Color;
+import toilari.otlite.view.lwjgl.Texture;
+
+import java.nio.FloatBuffer;
+
+import static org.lwjgl.opengl.GL11.GL_TRIANGLES;
+import static org.lwjgl.opengl.GL11.GL_UNSIGNED_INT;
+import static org.lwjgl.opengl.GL11.glDrawElements;
+import static org.lwjgl.opengl.GL15.*;
+import static org.lwjgl.opengl.GL30.*;
+
+/**
+ * Näytönohjaimen muistiin kerralla ladattava joukko kuvia, jotka jakavat saman tekstuurin. Soveltuu kuville jotka
+ * eivät muutu piirtokertojen välillä, sillä verkko piirretään ilman että verteksejä tarvitsee lähettää uudelleen.
+ * Verkko piirretään {@link SpriteBatch#draw(toilari.otlite.view.lwjgl.LWJGLCamera, StaticSpriteMesh)} avulla.
+ */
+public class StaticSpriteMesh {
+    @Getter @NonNull private final Texture texture;
+    private final int capacity;
+
+    private FloatBuffer vertices;
+    private int nSprites;
+
+    private int vao = -1;
+    private int vbo = -1;
+    private int ebo = -1;
+
+    /**
+     * Luo uuden verkon.
+     *
+     * @param texture  tekstuuri jota kaikki verkon kuvat käyttävät
+     * @param capacity montako kuvaa verkkoon voidaan enimmillään lisätä
+     * @throws NullPointerException     jos tekstuuri on <code>null</code>
+     * @throws IllegalArgumentException jos kapasiteetti ei ole positiivinen
+     */
+    public StaticSpriteMesh(@NonNull Texture texture, int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Mesh capacity must be positive!");
+        }
+
+        this.texture = texture;
+        this.capacity = capacity;
+        this.vertices = MemoryUtil.memAllocFloat(capacity * VertexSpriteStream.ATTRIBUTES_PER_SPRITE);
+    }
+
+    /**
+     * Lisää kuvan verkkoon. Kutsuttava ennen kuin verkko {@link #upload() ladataan näytönohjaimelle}.
+     *
+     * @param color        värisävy
+     * @param x            x-koordinaatti pelimaailmassa
+     * @param y            y-koordinaatti pelimaailmassa
+     * @param w            leveys pelimaailmassa
+     * @param h            korkeus pelimaailmassa
+     * @param regionStartX kuvasta piirrettävän alueen vasemman yläkulman x-koordinaatti
+     * @param regionStartY kuvasta piirrettävän alueen vasemman yläkulman y-koordinaatti
+     * @param regionWidth  kuvasta piirrettävän alueen leveys
+     * @param regionHeight kuvasta piirrettävän alueen korkeus
+     * @throws IllegalStateException jos verkko on jo ladattu tai täynnä
+     */
+    public void add(@NonNull Color color, float x, float y, float w, float h, int regionStartX, int regionStartY, int regionWidth, int regionHeight) {
+        if (this.vertices == null) {
+            throw new IllegalStateException("Cannot add sprites to an uploaded mesh!");
+        }
+        if (this.nSprites >= this.capacity) {
+            throw new IllegalStateException("Mesh is full!");
+        }
+
+        val u0 = this.texture.mapU(regionStartX / (float) this.texture.getWidth());
+        val v0 = this.texture.mapV(regionStartY / (float) this.texture.getHeight());
+        val u1 = this.texture.mapU((regionStartX + regionWidth) / (float) this.texture.getWidth());
+        val v1 = this.texture.mapV((regionStartY + regionHeight) / (float) this.texture.getHeight());
+
+        putVertex(color, x + 0, y + 0, u0, v0);
+        putVertex(color, x + w, y + 0, u1, v0);
+        putVertex(color, x + w, y + h, u1, v1);
+        putVertex(color, x + 0, y + h, u0, v1);
+        this.nSprites++;
+    }
+
+    /**
+     * Lataa verkon näytönohjaimen muistiin. Tämän jälkeen verkkoon ei voi enää lisätä kuvia.
+     */
+    public void upload() {
+        if (this.vertices == null) {
+            return;
+        }
+
+        this.vao = glGenVertexArrays();
+        glBindVertexArray(this.vao);
+
+        this.vbo = glGenBuffers();
+        glBindBuffer(GL_ARRAY_BUFFER, this.vbo);
+        this.vertices.flip();
+        glBufferData(GL_ARRAY_BUFFER, this.vertices, GL_STATIC_DRAW);
+        VertexSpriteStream.specifyVertexAttributes();
+
+        this.ebo = glGenBuffers();
+        glBindBuffer(GL_ELEMENT_ARRAY_BUFFER, this.ebo);
+        glBufferData(GL_ELEMENT_ARRAY_BUFFER, VertexSpriteStream.createQuadIndices(this.nSprites), GL_STATIC_DRAW);
+        glBindVertexArray(0);
+
+        // The data lives on the GPU from now on, so the staging buffer is no longer needed
+        MemoryUtil.memFree(this.vertices);
+        this.vertices = null;
+    }
+
+    /**
+     * Vapauttaa verkolle varatut resurssit.
+     */
+    public void destroy() {
+        if (this.vertices != null) {
+            MemoryUtil.memFree(this.vertices);
+            this.vertices = null;
+        }
+
+        if (this.vao != -1) {
+            glDeleteVertexArrays(this.vao);
+            glDeleteBuffers(this.vbo);
+            glDeleteBuffers(this.ebo);
+            this.vao = -1;
+            this.vbo = -1;
+            this.ebo = -1;
+        }
+    }
+
+    void draw() {
+        if (this.vao == -1 || this.nSprites == 0) {
+            return;
+        }
+
+        glBindVertexArray(this.vao);
+        glDrawElements(GL_TRIANGLES, this.nSprites * 6, GL_UNSIGNED_INT, 0);
+    }
+
+    private void putVertex(@NonNull Color color, float x, float y, float u, float v) {
+        this.vertices
+            .put(x).put(y)
+            .put(u).put(v)
+            .put(color.getR()).put(color.getG()).put(color.getB());
+    }
+}
@@ -0,0 +1,143 @@
+package toilari.otlite.view.lwjgl.batch;
+
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.val;
+import org.lwjgl.system.MemoryUtil;
+import toilari.otlite.game.util.Color;
+
+import java.nio.FloatBuffer;
+
+import static org.lwjgl.opengl.GL11.*;
+import static org.lwjgl.opengl.GL15.*;
+import static org.lwjgl.opengl.GL20.glEnableVertexAttribArray;
+import static org.lwjgl.opengl.GL20.glVertexAttribPointer;
+import static org.lwjgl.opengl.GL30.*;
+
+/**
+ * Kuvasäilö joka laajentaa jokaisen kuvan neljäksi verteksiksi. Toimii kaikilla OpenGL 3.2 -yhteensopivilla
+ * näytönohjaimilla.
+ */
+class VertexSpriteStream implements ISpriteStream {
+    static final int FLOATS_PER_VERTEX = 2 + 2 + 3; // 2 pos, 2 uv, 3 color
+    static final int ATTRIBUTES_PER_SPRITE = 4 * FLOATS_PER_VERTEX;
+    private static final int VERTEX_STRIDE_BYTES = FLOATS_PER_VERTEX * Float.BYTES;
+    private static final long VBO_CAPACITY_BYTES = (long) MAX_SPRITES * ATTRIBUTES_PER_SPRITE * Float.BYTES;
+
+    @Getter @NonNull private final BatchShader shader;
+    private FloatBuffer vertices;
+
+    private int vao;
+    private int vbo;
+    private int ebo;
+
+    /**
+     * Luo uuden säilön ja varaa sille näytönohjaimen puskurit.
+     *
+     * @param shader sävytin jolla kuvat piirretään
+     */
+    VertexSpriteStream(@NonNull BatchShader shader) {
+        this.shader = shader;
+
+        this.vao = glGenVertexArrays();
+        glBindVertexArray(this.vao);
+
+        // Vertex data is staged off-heap and only the queued part is uploaded on flush
+        this.vertices = MemoryUtil.memAllocFloat(MAX_SPRITES * ATTRIBUTES_PER_SPRITE);
+        this.vbo = glGenBuffers();
+        glBindBuffer(GL_ARRAY_BUFFER, this.vbo);
+        glBufferData(GL_ARRAY_BUFFER, VBO_CAPACITY_BYTES, GL_STREAM_DRAW);
+
+        // The attribute layout is recorded in the VAO, so it only needs to be specified once
+        specifyVertexAttributes();
+
+        this.ebo = glGenBuffers();
+        glBindBuffer(GL_ELEMENT_ARRAY_BUFFER, this.ebo);
+        glBufferData(GL_ELEMENT_ARRAY_BUFFER, createQuadIndices(MAX_SPRITES), GL_STATIC_DRAW);
+        glBindVertexArray(0);
+    }
+
+    /**
+     * Määrittää sprite-verteksien attribuuttien asettelun tällä hetkellä sidotulle VAO:lle ja VBO:lle.
+     */
+    static void specifyVertexAttributes() {
+        glEnableVertexAttribArray(0);
+        glVertexAttribPointer(0, 2, GL_FLOAT, false, VERTEX_STRIDE_BYTES, 0);
+        glEnableVertexAttribArray(1);
+        glVertexAttribPointer(1, 2, GL_FLOAT, false, VERTEX_STRIDE_BYTES, 2 * Float.BYTES);
+        glEnableVertexAttribArray(2);
+        glVertexAttribPointer(2, 3, GL_FLOAT, false, VERTEX_STRIDE_BYTES, 4 * Float.BYTES);
+    }
+
+    /**
+     * Luo indeksit annetulle määrälle nelikulmioita. Jokainen nelikulmio piirretään kahtena kolmiona.
+     *
+     * @param nQuads nelikulmioiden lukumäärä
+     * @return indeksitaulukko jossa kuusi indeksiä jokaista nelikulmiota kohden
+     */
+    static int[] createQuadIndices(int nQuads) {
+        val indices = new int[nQuads * 6];
+        int j = 0;
+        for (int i = 0; i < indices.length; i += 6, j += 4) {
+            indices[i + 0] = j + 0;
+            indices[i + 1] = j + 1;
+            indices[i + 2] = j + 2;
+            indices[i + 3] = j + 2;
+            indices[i + 4] = j + 3;
+            indices[i + 5] = j + 0;
+        }
+        return indices;
+    }
+
+    @Override
+    public void put(@NonNull Color color, float x, float y, float w, float h, float u0, float v0, float u1, float v1) {
+        putVertex(color, x + 0, y + 0, u0, v0);
+        putVertex(color, x + w, y + 0, u1, v0);
+        putVertex(color, x + w, y + h, u1, v1);
+        putVertex(color, x + 0, y + h, u0, v1);
+    }
+
+    private void putVertex(@NonNull Color color, float x, float y, float u, float v) {
+        this.vertices
+            .put(x).put(y)
+            .put(u).put(v)
+            .put(color.getR()).put(color.getG()).put(color.getB());
+    }
+
+    @Override
+    public void draw(int nSprites) {
+        glBindVertexArray(this.vao);
+        glBindBuffer(GL_ARRAY_BUFFER, this.vbo);
+
+        // Orphan the previous storage so that the driver does not have to wait for draws still using it, then upload
+        // only the part of the staging buffer that was actually written to
+        glBufferData(GL_ARRAY_BUFFER, VBO_CAPACITY_BYTES, GL_STREAM_DRAW);
+        this.vertices.flip();
+        glBufferSubData(GL_ARRAY_BUFFER, 0, this.vertices);
+
+        glDrawElements(GL_TRIANGLES, nSprites * 6, GL_UNSIGNED_INT, 0);
+        this.vertices.clear();
+    }
+
+    @Override
+    public void clear() {
+        this.vertices.clear();
+    }
+
+    @Override
+    public void destroy() {
+        if (this.vertices == null) {
+            return;
+        }
+
+        glDeleteVertexArrays(this.vao);
+        glDeleteBuffers(this.vbo);
+        glDeleteBuffers(this.ebo);
+        this.vao = 0;
+        this.vbo = 0;
+        this.ebo = 0;
+
+        MemoryUtil.memFree(this.vertices);
+        this.vertices = null;
+    }
+}
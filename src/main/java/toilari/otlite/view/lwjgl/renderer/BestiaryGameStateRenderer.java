@@ -23,6 +23,7 @@ import toilari.otlite.view.lwjgl.ui.UICharacterEntry;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Piirtäjä bestiaarin piirtämiseen.
@@ -68,6 +69,7 @@ public class BestiaryGameStateRenderer<R extends IGetAllDAO<ILWJGLRenderer> & IG
 
     private StatisticsManager statisticsManager;
     private Profile profile;
+    private Map<Statistics, Double> statisticValues;
 
     private UICharacterEntry activeEntry;
     private List<UIButton> characterButtons = new ArrayList<>();
@@ -94,6 +96,8 @@ public class BestiaryGameStateRenderer<R extends IGetAllDAO<ILWJGLRenderer> & IG
 
         this.statisticsManager = state.getGame().getStatistics();
         this.profile = state.getGame().getActiveProfile();
+        // Statistics cannot change while the bestiary is open, so they are read only once
+        this.statisticValues = this.statisticsManager.getAll(this.profile.getId());
 
         this.previewWorld = new World(new TurnObjectManager() {
             @Override
@@ -225,7 +229,7 @@ public class BestiaryGameStateRenderer<R extends IGetAllDAO<ILWJGLRenderer> & IG
             this.textRenderer.draw(camera, batch, x, y + 10 + (i * rowHeight), STATS_TITLE_COLOR, 4, "Statistics");
 
             for (val statistic : Statistics.values()) {
-                val value = this.statisticsManager.getDouble(statistic, this.profile.getId());
+                val value = this.statisticValues.getOrDefault(statistic, Double.NaN);
                 drawStatEntry(camera, x + 1, y + 16 + (i++ * rowHeight), 3, statistic.getName(), String.format("%.1f", value), STATS_ENTRY_COLOR);
             }
         }
@@ -248,10 +252,12 @@ public class BestiaryGameStateRenderer<R extends IGetAllDAO<ILWJGLRenderer> & IG
     public void destroy(@NonNull BestiaryGameState state) {
         this.statisticsManager = null;
         this.profile = null;
+        this.statisticValues = null;
         this.characterEntries.clear();
         this.characterButtons.clear();
         this.activeEntry = null;
         this.uiTexture.destroy();
         this.textRenderer.destroy();
+        this.batch.destroy();
     }
 }
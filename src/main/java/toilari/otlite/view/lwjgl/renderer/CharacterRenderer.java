@@ -9,6 +9,7 @@ import toilari.otlite.game.input.Input;
 import toilari.otlite.game.util.Color;
 import toilari.otlite.game.world.entities.characters.CharacterObject;
 import toilari.otlite.view.lwjgl.AnimatedSprite;
+import toilari.otlite.view.lwjgl.CachedText;
 import toilari.otlite.view.lwjgl.LWJGLCamera;
 import toilari.otlite.view.lwjgl.TextRenderer;
 import toilari.otlite.view.lwjgl.Texture;
@@ -23,6 +24,7 @@ public class CharacterRenderer implements ILWJGLRenderer<CharacterObject> {
     @Getter(AccessLevel.PROTECTED) @NonNull private final TextRenderer textRenderer;
 
     @Getter private final Context context;
+    private final CachedText healthText = new CachedText("%.1f/%.1f");
 
     @Getter(AccessLevel.PROTECTED) private Texture texture;
     @Getter(AccessLevel.PROTECTED) private AnimatedSprite sprite;
@@ -69,7 +71,7 @@ public class CharacterRenderer implements ILWJGLRenderer<CharacterObject> {
             val size = 3;
             val current = character.getHealth();
             val max = character.getAttributes().getMaxHealth();
-            val str = String.format("%.1f/%.1f", current, max);
+            val str = this.healthText.get(current, max);
 
             val x = character.getX() + this.context.width / 2 - (size * str.length()) / 2;
             val y = character.getY() + this.context.height + 1;
@@ -77,6 +79,17 @@ public class CharacterRenderer implements ILWJGLRenderer<CharacterObject> {
         }
     }
 
+    @Override
+    public float getRedrawDelay(@NonNull CharacterObject character) {
+        val frames = this.context.states.get(character.getState());
+        if (this.context.framesPerSecond == 0 || frames == null || frames.length <= 1) {
+            return Float.POSITIVE_INFINITY;
+        }
+
+        val frameDuration = 1.0f / this.context.framesPerSecond;
+        return frameDuration - (character.getTimeAlive() % frameDuration);
+    }
+
     private int getFrame(CharacterObject character) {
         int frame;
         float time = character.getTimeAlive();
@@ -42,6 +42,18 @@ public interface ILWJGLRenderer<T> {
     default void postDraw(@NonNull LWJGLCamera camera, @NonNull T renderable, @NonNull SpriteBatch batch) {
     }
 
+    /**
+     * Hakee ajan jonka kuluttua objektin piirtämä kuva muuttuu seuraavan kerran itsestään, esimerkiksi animaation
+     * edetessä. Oletuksena objektin kuva ei muutu itsestään.
+     *
+     * @param renderable objekti joka piirretään
+     * @return aika sekunteina seuraavaan muutokseen, <code>0</code> jos objekti tulee piirtää jatkuvasti tai
+     * {@link Float#POSITIVE_INFINITY} jos kuva ei muutu itsestään
+     */
+    default float getRedrawDelay(@NonNull T renderable) {
+        return Float.POSITIVE_INFINITY;
+    }
+
     /**
      * Vapauttaa allokoidut resurssit.
      */
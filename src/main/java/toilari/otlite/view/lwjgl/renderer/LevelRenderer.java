@@ -7,14 +7,18 @@ import toilari.otlite.game.util.Color;
 import toilari.otlite.game.world.level.Level;
 import toilari.otlite.game.world.level.Tile;
 import toilari.otlite.view.lwjgl.LWJGLCamera;
-import toilari.otlite.view.lwjgl.Sprite;
 import toilari.otlite.view.lwjgl.Texture;
 import toilari.otlite.view.lwjgl.batch.SpriteBatch;
+import toilari.otlite.view.lwjgl.batch.StaticSpriteMesh;
 
 /**
- * Piirtää pelin kartan.
+ * Piirtää pelin kartan. Kartta ei muutu pelin aikana, joten sen ruudut kootaan kartan vaihtuessa paloittain
+ * staattisiksi verkoiksi. Piirrettäessä piirretään vain kameran näkyvissä olevat palat.
  */
 public class LevelRenderer implements ILWJGLRenderer<Level> {
+    private static final int CHUNK_SIZE = 32;
+    private static final float CHUNK_SIZE_IN_WORLD = CHUNK_SIZE * Tile.SIZE_IN_WORLD;
+
     private final @NonNull IGetDAO<Texture, String> textureDAO;
     @NonNull private final String textureFilename;
 
@@ -22,7 +26,12 @@ public class LevelRenderer implements ILWJGLRenderer<Level> {
     private final int tilesetColumns;
 
     private Texture tileset;
-    private Sprite[] tileSprites;
+    private int tileWidth;
+    private int tileHeight;
+
+    private Level chunkedLevel;
+    private StaticSpriteMesh[] chunks = new StaticSpriteMesh[0];
+    private int chunksX;
 
     /**
      * Luo uuden karttapiirtäjän.
@@ -44,42 +53,71 @@ public class LevelRenderer implements ILWJGLRenderer<Level> {
     @Override
     public boolean init() {
         this.tileset = this.textureDAO.get(this.textureFilename);
-        int tileWidth = this.tileset.getWidth() / tilesetColumns;
-        int tileHeight = this.tileset.getHeight() / tilesetRows;
-
-        this.tileSprites = new Sprite[this.tilesetRows * this.tilesetColumns];
-        for (int y = 0; y < tilesetRows; y++) {
-            for (int x = 0; x < tilesetColumns; x++) {
-                this.tileSprites[y * tilesetColumns + x] = new Sprite(
-                    this.tileset,
-                    tileWidth * x,
-                    tileHeight * y,
-                    tileWidth,
-                    tileHeight);
-            }
-        }
+        this.tileWidth = this.tileset.getWidth() / tilesetColumns;
+        this.tileHeight = this.tileset.getHeight() / tilesetRows;
 
         return false;
     }
 
     @Override
     public void draw(@NonNull LWJGLCamera camera, @NonNull Level level, @NonNull SpriteBatch batch) {
-        this.tileset.bind();
-
-        for (int y = 0; y < level.getHeight(); y++) {
-            for (int x = 0; x < level.getWidth(); x++) {
-                val tile = level.getTileAt(x, y);
-                val index = tile.getTileIndex();
+        if (level != this.chunkedLevel) {
+            buildChunks(level);
+        }
 
-                this.tileSprites[index].draw(camera, batch, x * Tile.SIZE_IN_WORLD, y * Tile.SIZE_IN_WORLD, Tile.SIZE_IN_WORLD, Tile.SIZE_IN_WORLD, Color.WHITE);
+        for (int i = 0; i < this.chunks.length; i++) {
+            val chunkX = (i % this.chunksX) * CHUNK_SIZE_IN_WORLD;
+            val chunkY = (i / this.chunksX) * CHUNK_SIZE_IN_WORLD;
+            if (camera.overlapsViewport(chunkX, chunkY, CHUNK_SIZE_IN_WORLD, CHUNK_SIZE_IN_WORLD)) {
+                batch.draw(camera, this.chunks[i]);
             }
         }
-
-        this.tileset.release();
     }
 
     @Override
     public void destroy() {
+        destroyChunks();
         this.tileset.destroy();
     }
+
+    private void buildChunks(@NonNull Level level) {
+        destroyChunks();
+
+        this.chunkedLevel = level;
+        this.chunksX = (level.getWidth() + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        val chunksY = (level.getHeight() + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        this.chunks = new StaticSpriteMesh[this.chunksX * chunksY];
+
+        for (int i = 0; i < this.chunks.length; i++) {
+            val startX = (i % this.chunksX) * CHUNK_SIZE;
+            val startY = (i / this.chunksX) * CHUNK_SIZE;
+            val endX = Math.min(startX + CHUNK_SIZE, level.getWidth());
+            val endY = Math.min(startY + CHUNK_SIZE, level.getHeight());
+
+            val chunk = new StaticSpriteMesh(this.tileset, (endX - startX) * (endY - startY));
+            for (int y = startY; y < endY; y++) {
+                for (int x = startX; x < endX; x++) {
+                    val index = level.getTileAt(x, y).getTileIndex();
+                    val column = index % this.tilesetColumns;
+                    val row = index / this.tilesetColumns;
+
+                    chunk.add(Color.WHITE,
+                        x * Tile.SIZE_IN_WORLD, y * Tile.SIZE_IN_WORLD,
+                        Tile.SIZE_IN_WORLD, Tile.SIZE_IN_WORLD,
+                        column * this.tileWidth, row * this.tileHeight,
+                        this.tileWidth, this.tileHeight);
+                }
+            }
+            chunk.upload();
+            this.chunks[i] = chunk;
+        }
+    }
+
+    private void destroyChunks() {
+        for (val chunk : this.chunks) {
+            chunk.destroy();
+        }
+        this.chunks = new StaticSpriteMesh[0];
+        this.chunkedLevel = null;
+    }
 }
@@ -132,8 +132,15 @@ public class MainMenuGameStateRenderer implements ILWJGLGameStateRenderer<MainMe
         }
     }
 
+    @Override
+    public float getRedrawDelay(@NonNull MainMenuGameState state) {
+        // Menus only change in response to input
+        return Float.POSITIVE_INFINITY;
+    }
+
     @Override
     public void destroy(@NonNull MainMenuGameState state) {
         this.uiTexture.destroy();
+        this.batch.destroy();
     }
 }
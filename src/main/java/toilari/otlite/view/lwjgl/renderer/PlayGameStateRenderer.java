@@ -2,29 +2,38 @@ package toilari.otlite.view.lwjgl.renderer;
 
 import lombok.NonNull;
 import lombok.val;
+import lombok.var;
 import toilari.otlite.dao.IGetAllDAO;
+import toilari.otlite.dao.IGetByHandleDAO;
 import toilari.otlite.dao.IGetDAO;
-import toilari.otlite.dao.serialization.IGetByIDDao;
 import toilari.otlite.game.PlayGameState;
 import toilari.otlite.game.event.PlayEvent;
 import toilari.otlite.game.input.Input;
 import toilari.otlite.game.input.Key;
 import toilari.otlite.game.util.Color;
+import toilari.otlite.game.world.entities.GameObject;
 import toilari.otlite.game.world.entities.characters.abilities.TargetSelectorAbility;
+import toilari.otlite.game.world.level.Tile;
+import toilari.otlite.view.lwjgl.CachedText;
 import toilari.otlite.view.lwjgl.LWJGLCamera;
 import toilari.otlite.view.lwjgl.TextRenderer;
 import toilari.otlite.view.lwjgl.Texture;
 import toilari.otlite.view.lwjgl.batch.SpriteBatch;
 import toilari.otlite.view.lwjgl.ui.UIAbilityBar;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Piirtäjä pelitilan piirtämiseen. Vastaa maailman
  */
-public class PlayGameStateRenderer<R extends IGetAllDAO<ILWJGLRenderer> & IGetByIDDao<ILWJGLRenderer>> implements ILWJGLGameStateRenderer<PlayGameState> {
+public class PlayGameStateRenderer<R extends IGetAllDAO<ILWJGLRenderer> & IGetByHandleDAO<ILWJGLRenderer>> implements ILWJGLGameStateRenderer<PlayGameState> {
     private static final Color DEATH_MESSAGE_COLOR = new Color(0.65f, 0.25f, 0.25f);
     private static final Color RETURN_TO_MENU_MESSAGE_COLOR = Color.WHITE.shade(0.15f);
     private static final Color GAME_INFO_COLOR = new Color(0.25f, 0.65f, 0.25f);
     private static final Color ACTION_LABEL_COLOR = new Color(0.65f, 0.25f, 0.25f);
+    private static final int CULLING_MARGIN_TILES = 2;
+    private static final float DEATH_MESSAGE_FADE_MILLIS = 5000.0f;
     @NonNull private final R renderers;
     @NonNull private final IGetDAO<Texture, String> textureDao;
     @NonNull private final TextRenderer textRenderer;
@@ -37,6 +46,11 @@ public class PlayGameStateRenderer<R extends IGetAllDAO<ILWJGLRenderer> & IGetBy
     private LevelUpMenuRenderer levelUpMenuRenderer;
     private SpriteBatch batch;
 
+    private final List<GameObject> visibleObjects = new ArrayList<>();
+    private final CachedText currentTurnText = new CachedText("Floor: %d Turn: %d");
+    private final CachedText xpStatusText = new CachedText("Level: %d\nXP: %d/%d");
+    private final CachedText actionPointsText = new CachedText("AP: %d/%d");
+
     /**
      * Luo uuden pelitilapiirtäjän.
      *
@@ -77,12 +91,14 @@ public class PlayGameStateRenderer<R extends IGetAllDAO<ILWJGLRenderer> & IGetBy
     public void destroy(@NonNull PlayGameState state) {
         this.levelRenderer.destroy();
         this.abilityBar.destroy();
+        this.batch.destroy();
         this.state = null;
     }
 
     @Override
     public void draw(@NonNull LWJGLCamera camera, @NonNull PlayGameState state) {
         makeCameraFollowPlayer(camera, state);
+        collectVisibleObjects(camera, state);
 
         this.batch.begin();
         drawWorld(camera, state);
@@ -105,6 +121,32 @@ public class PlayGameStateRenderer<R extends IGetAllDAO<ILWJGLRenderer> & IGetBy
         this.batch.end(camera);
     }
 
+    @Override
+    public float getRedrawDelay(@NonNull PlayGameState state) {
+        val manager = state.getManager();
+        val player = manager.getPlayer();
+
+        // Other characters act on their own during their turns, so draw continuously until it is the player's turn
+        if (!manager.isCharactersTurn(player) || this.popupTextRenderer.isAnimating()) {
+            return 0.0f;
+        }
+
+        if (player.isDead() && System.currentTimeMillis() - player.getDeathTime() < DEATH_MESSAGE_FADE_MILLIS) {
+            return 0.0f;
+        }
+
+        var delay = Float.POSITIVE_INFINITY;
+        for (int i = 0; i < this.visibleObjects.size(); i++) {
+            val object = this.visibleObjects.get(i);
+            val renderer = resolveRenderer(object);
+            if (renderer != null) {
+                delay = Math.min(delay, renderer.getRedrawDelay(object));
+            }
+        }
+
+        return delay;
+    }
+
     private void makeCameraFollowPlayer(@NonNull LWJGLCamera camera, @NonNull PlayGameState state) {
         val player = state.getManager().getPlayer();
         val cameraX = player.getX() - camera.getViewportWidth() / 2;
@@ -112,12 +154,25 @@ public class PlayGameStateRenderer<R extends IGetAllDAO<ILWJGLRenderer> & IGetBy
         camera.setPosition(cameraX, cameraY);
     }
 
+    private void collectVisibleObjects(@NonNull LWJGLCamera camera, @NonNull PlayGameState state) {
+        // Objects are drawn relative to their tile, so a small margin keeps sprites, popups and health labels that
+        // extend past their own tile from popping in and out at the screen edges
+        val minX = (int) Math.floor(camera.getX() / Tile.SIZE_IN_WORLD) - CULLING_MARGIN_TILES;
+        val minY = (int) Math.floor(camera.getY() / Tile.SIZE_IN_WORLD) - CULLING_MARGIN_TILES;
+        val maxX = (int) Math.floor((camera.getX() + camera.getVisibleWidth()) / Tile.SIZE_IN_WORLD) + CULLING_MARGIN_TILES;
+        val maxY = (int) Math.floor((camera.getY() + camera.getVisibleHeight()) / Tile.SIZE_IN_WORLD) + CULLING_MARGIN_TILES;
+
+        this.visibleObjects.clear();
+        state.getWorld().getObjectManager().getObjectsInRect(minX, minY, maxX, maxY, GameObject.class, this.visibleObjects);
+    }
+
     private void drawWorld(@NonNull LWJGLCamera camera, @NonNull PlayGameState state) {
         val world = state.getWorld();
         this.levelRenderer.draw(camera, world.getCurrentLevel(), batch);
 
-        for (val object : world.getObjectManager().getObjects()) {
-            val renderer = this.renderers.getByID(object.getRendererID());
+        for (int i = 0; i < this.visibleObjects.size(); i++) {
+            val object = this.visibleObjects.get(i);
+            val renderer = resolveRenderer(object);
             if (renderer != null) {
                 renderer.draw(camera, object, batch);
             }
@@ -128,14 +183,25 @@ public class PlayGameStateRenderer<R extends IGetAllDAO<ILWJGLRenderer> & IGetBy
         val world = state.getWorld();
         this.levelRenderer.postDraw(camera, world.getCurrentLevel(), batch);
 
-        for (val object : world.getObjectManager().getObjects()) {
-            val renderer = this.renderers.getByID(object.getRendererID());
+        for (int i = 0; i < this.visibleObjects.size(); i++) {
+            val object = this.visibleObjects.get(i);
+            val renderer = resolveRenderer(object);
             if (renderer != null) {
                 renderer.postDraw(camera, object, batch);
             }
         }
     }
 
+    private ILWJGLRenderer resolveRenderer(@NonNull GameObject object) {
+        var handle = object.getRendererHandle();
+        if (handle == IGetByHandleDAO.UNRESOLVED) {
+            handle = this.renderers.getHandle(object.getRendererID());
+            object.setRendererHandle(handle);
+        }
+
+        return this.renderers.getByHandle(handle);
+    }
+
     private void drawUI(@NonNull LWJGLCamera camera, @NonNull PlayGameState state) {
         val screenTopLeftX = camera.getX();
         val screenTopLeftY = camera.getY();
@@ -157,7 +223,7 @@ public class PlayGameStateRenderer<R extends IGetAllDAO<ILWJGLRenderer> & IGetBy
     }
 
     private void drawCurrentTurn(@NonNull LWJGLCamera camera, @NonNull PlayGameState state, float x, float y) {
-        val str = String.format("Floor: %d Turn: %d", state.getWorld().getFloor(), state.getManager().getPlayer().getTurnsTaken());
+        val str = this.currentTurnText.get(state.getWorld().getFloor(), state.getManager().getPlayer().getTurnsTaken());
         this.textRenderer.draw(camera, batch, x, y, GAME_INFO_COLOR, 3, str);
     }
 
@@ -173,7 +239,7 @@ public class PlayGameStateRenderer<R extends IGetAllDAO<ILWJGLRenderer> & IGetBy
         val currentExperience = levels.getExperience();
         val progressTowardsNextLevel = currentExperience - requiredForCurrent;
 
-        val str = String.format("Level: %d\nXP: %d/%d", currentLevel, progressTowardsNextLevel, actualRequiredExperience);
+        val str = this.xpStatusText.get(currentLevel, progressTowardsNextLevel, actualRequiredExperience);
         this.textRenderer.draw(camera, batch, x, y, GAME_INFO_COLOR, 3, str);
     }
 
@@ -197,7 +263,7 @@ public class PlayGameStateRenderer<R extends IGetAllDAO<ILWJGLRenderer> & IGetBy
                 if (targetSelector != null && targetSelector.getTarget() != null) {
                     apStr = "Press <SPACE> to attack\nPress <ESC> to cancel";
                 } else {
-                    apStr = "AP: " + remaining + "/" + total;
+                    apStr = this.actionPointsText.get(remaining, total);
                 }
             }
         }
@@ -212,7 +278,7 @@ public class PlayGameStateRenderer<R extends IGetAllDAO<ILWJGLRenderer> & IGetBy
         val w = camera.getViewportWidth();
         val h = camera.getViewportHeight();
 
-        val dt = Math.min(1, (System.currentTimeMillis() - state.getManager().getPlayer().getDeathTime()) / 5000.0f);
+        val dt = Math.min(1, (System.currentTimeMillis() - state.getManager().getPlayer().getDeathTime()) / DEATH_MESSAGE_FADE_MILLIS);
         this.textRenderer.draw(camera,
             batch, x + (w / 2f) - (len * size) / 2f,
             y + (h / 2f) - (size / 2f) + ((h / 2f + size) - dt * (h / 2f + size)),
@@ -74,11 +74,15 @@ public class PlayerRenderer extends CharacterRenderer {
             val active = component.getActive();
             if (active instanceof IAreaOfEffectAbility) {
                 val range = ((IAreaOfEffectAbility) active).getAreaExtent();
+                val shape = ((IAreaOfEffectAbility) active).getAreaShape();
 
                 val x = character.getTileX();
                 val y = character.getTileY();
                 for (var dx = -range; dx <= range; dx++) {
                     for (var dy = -range; dy <= range; dy++) {
+                        if (!shape.contains(dx, dy, range)) {
+                            continue;
+                        }
                         drawAreaAbilityVisualizerTile(camera, batch, character, (IAreaOfEffectAbility) active, x, y, dx, dy);
                     }
                 }
@@ -95,7 +99,7 @@ public class PlayerRenderer extends CharacterRenderer {
             color = AREA_ABILITY_VISUALIZER_COLOR_WITH_TARGET;
         }
 
-        if (!character.getWorld().getTileAt(tileX, tileY).isWall()) {
+        if (!character.getWorld().isWallAt(tileX, tileY)) {
             this.largeIcons.draw(camera, batch, tileX * Tile.SIZE_IN_WORLD + 0.5f, tileY * Tile.SIZE_IN_WORLD + 0.5f, LARGE_ICON_WIDTH, LARGE_ICON_HEIGHT, 6, color);
         }
     }
@@ -122,6 +126,17 @@ public class PlayerRenderer extends CharacterRenderer {
         }
     }
 
+    @Override
+    public float getRedrawDelay(@NonNull CharacterObject character) {
+        // The target selector bobs up and down continuously while a target is selected
+        val targetSelector = character.getAbilities().getComponent(TargetSelectorAbility.class);
+        if (targetSelector != null && targetSelector.getTarget() != null) {
+            return 0.0f;
+        }
+
+        return super.getRedrawDelay(character);
+    }
+
     private void drawTargetSelector(LWJGLCamera camera, GameObject target, SpriteBatch batch) {
         if (target == null) {
             return;
@@ -143,7 +158,7 @@ public class PlayerRenderer extends CharacterRenderer {
         } else if (!canMove) {
             frame = 4;
         }
-        val isDangerous = (canMove && character.getWorld().getTileAt(targetX, targetY).isDangerous());
+        val isDangerous = (canMove && character.getWorld().isDangerousAt(targetX, targetY));
 
         val color = canAttack || isDangerous ? MOVE_COLOR_DANGEROUS : MOVE_COLOR_NORMAL;
         this.smallIcons.draw(camera, batch, targetX * Tile.SIZE_IN_WORLD + 2, targetY * Tile.SIZE_IN_WORLD + 2, SMALL_ICON_WIDTH, SMALL_ICON_HEIGHT, frame, color);
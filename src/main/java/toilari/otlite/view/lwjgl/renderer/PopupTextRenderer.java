@@ -14,12 +14,14 @@ import toilari.otlite.view.lwjgl.LWJGLCamera;
 import toilari.otlite.view.lwjgl.TextRenderer;
 import toilari.otlite.view.lwjgl.batch.SpriteBatch;
 
-import java.util.ArrayList;
-import java.util.List;
 import java.util.Random;
 
 /**
  * Piirtää "pop-up" tekstejä kuten vahinkopisteindikaattoreita yms.
+ * <p>
+ * Indikaattorit säilötään kiinteän kokoiseen pooliin, jonka kentät ovat rinnakkaisissa taulukoissa. Jokaisella
+ * paikalla on valmiiksi varattu merkkipuskuri, johon luvut muotoillaan suoraan, joten taisteluiden aikana syntyvät
+ * indikaattoripurskeet eivät luo roskaa.
  */
 public class PopupTextRenderer {
     private static final float HEALTH_LABEL_START_OFFSET_X = 2.0f;
@@ -47,6 +49,10 @@ public class PopupTextRenderer {
     private static final int DEATH_LABEL_DURATION = 1500;
     private static final int DEATH_LABEL_FONTSIZE = 2;
     private static final Color DEATH_LABEL_COLOR = Color.RED.shade(0.15f);
+    private static final int POOL_CAPACITY = 256;
+    private static final int MAX_TEXT_LENGTH = 16;
+    private static final float MAX_FRAME_DELTA = 0.1f;
+
     private static final String[] DEATH_MESSAGES = {
         "REKT",
         "pwnd",
@@ -55,17 +61,37 @@ public class PopupTextRenderer {
     };
 
 
-    private List<PopupText> popupTexts, popupTextsSwap;
+    private final float[] startX = new float[POOL_CAPACITY];
+    private final float[] startY = new float[POOL_CAPACITY];
+    private final float[] targetX = new float[POOL_CAPACITY];
+    private final float[] targetY = new float[POOL_CAPACITY];
+    private final float[] elapsed = new float[POOL_CAPACITY];
+    private final float[] duration = new float[POOL_CAPACITY];
+    private final int[] fontsize = new int[POOL_CAPACITY];
+    private final Color[] color = new Color[POOL_CAPACITY];
+    private final StringBuilder[] text = new StringBuilder[POOL_CAPACITY];
+    private int count;
+
+    private long lastDrawNanos = -1;
     private Random random = new Random();
 
+    /**
+     * Luo uuden piirtäjän.
+     */
+    public PopupTextRenderer() {
+        for (int i = 0; i < POOL_CAPACITY; i++) {
+            this.text[i] = new StringBuilder(MAX_TEXT_LENGTH);
+        }
+    }
+
     /**
      * Alustaa piirtäjän.
      *
      * @param state pelitila jonka viestejä kuunnellaan
      */
     public void init(@NonNull PlayGameState state) {
-        this.popupTexts = new ArrayList<>();
-        this.popupTextsSwap = new ArrayList<>();
+        this.count = 0;
+        this.lastDrawNanos = -1;
         state.getEventSystem().subscribeTo(CharacterEvent.Damage.class, (e) -> onCharacterHealthChange(e.getTarget(), -e.getAmount(), e.isCritical()));
         state.getEventSystem().subscribeTo(CharacterEvent.Heal.class, (e) -> onCharacterHealthChange(e.getCharacter(), e.getAmount(), false));
         state.getEventSystem().subscribeTo(CharacterEvent.MissedAttack.class, this::onAttackMiss);
@@ -80,30 +106,47 @@ public class PopupTextRenderer {
      * @param batch        sarjapiirtäjä jonka jonoon piirtokomennot asetetaan
      */
     public void draw(@NonNull LWJGLCamera camera, @NonNull TextRenderer textRenderer, @NonNull SpriteBatch batch) {
-        this.popupTextsSwap.clear();
-        for (val instance : this.popupTexts) {
-            if (System.currentTimeMillis() > instance.timestamp + instance.duration) {
+        val delta = advanceFrame();
+
+        var i = 0;
+        while (i < this.count) {
+            this.elapsed[i] += delta;
+            if (this.elapsed[i] > this.duration[i]) {
+                release(i);
                 continue;
             }
 
-            this.popupTextsSwap.add(instance);
-            drawPopupText(camera, textRenderer, instance, batch);
+            drawPopupText(camera, textRenderer, i, batch);
+            i++;
         }
+    }
 
-        val tmp = this.popupTexts;
-        this.popupTexts = this.popupTextsSwap;
-        this.popupTextsSwap = tmp;
+    /**
+     * Tarkistaa onko yksikään indikaattori vielä näkyvissä.
+     *
+     * @return <code>true</code> jos indikaattoreita on näkyvissä, muulloin <code>false</code>
+     */
+    public boolean isAnimating() {
+        return this.count > 0;
     }
 
-    private void drawPopupText(@NonNull LWJGLCamera camera, @NonNull TextRenderer textRenderer, PopupText instance, @NonNull SpriteBatch batch) {
+    private float advanceFrame() {
+        val now = System.nanoTime();
+        val delta = this.lastDrawNanos < 0 ? 0.0f : (now - this.lastDrawNanos) / 1_000_000_000.0f;
+        this.lastDrawNanos = now;
+
+        // Frames may be skipped while nothing is animating, so labels spawned during the gap must not age by it
+        return Math.min(delta, MAX_FRAME_DELTA);
+    }
 
-        float dt = (System.currentTimeMillis() - instance.timestamp) / (float) instance.duration;
-        var x = MathUtil.lerp(instance.startX, instance.targetX, dt);
-        var y = MathUtil.lerp(instance.startY, instance.targetY, dt);
+    private void drawPopupText(@NonNull LWJGLCamera camera, @NonNull TextRenderer textRenderer, int index, @NonNull SpriteBatch batch) {
+        val dt = this.elapsed[index] / this.duration[index];
+        val x = MathUtil.lerp(this.startX[index], this.targetX[index], dt);
+        val y = MathUtil.lerp(this.startY[index], this.targetY[index], dt);
 
-        var offsetY = 0.0f;
-        var offsetX = instance.centered ? ((instance.text.length() - 1) * instance.fontsize) / -2.0f : 0.0f;
-        textRenderer.draw(camera, batch, x + offsetX, y + offsetY, instance.color, instance.fontsize, instance.text);
+        val size = this.fontsize[index];
+        val offsetX = ((this.text[index].length() - 1) * size) / -2.0f;
+        textRenderer.draw(camera, batch, x + offsetX, y, this.color[index], size, this.text[index]);
     }
 
     private void onCharacterHealthChange(@NonNull GameObject target, float amount, boolean critical) {
@@ -111,17 +154,16 @@ public class PopupTextRenderer {
             return;
         }
 
-        var color = amount < 0 ? (critical ? DAMAGE_LABEL_COLOR_CRITICAL : DAMAGE_LABEL_COLOR) : HEAL_LABEL_COLOR;
-        var prefix = amount > 0 ? "+" : "";
-
-        this.popupTexts.add(new PopupText(
+        val color = amount < 0 ? (critical ? DAMAGE_LABEL_COLOR_CRITICAL : DAMAGE_LABEL_COLOR) : HEAL_LABEL_COLOR;
+        val index = spawn(
             target.getX() + HEALTH_LABEL_START_OFFSET_X,
             target.getY() + HEALTH_LABEL_START_OFFSET_Y,
             target.getX() + HEALTH_LABEL_TARGET_OFFSET_X,
             target.getY() + HEALTH_LABEL_TARGET_OFFSET_Y,
             HEALTH_LABEL_DURATION,
-            String.format("%s%.1f", prefix, amount),
-            color, HEALTH_LABEL_FONTSIZE + (critical ? 1 : 0), true));
+            color, HEALTH_LABEL_FONTSIZE + (critical ? 1 : 0));
+
+        appendAmount(this.text[index], amount);
     }
 
     private void onAttackMiss(@NonNull CharacterEvent.MissedAttack event) {
@@ -130,26 +172,28 @@ public class PopupTextRenderer {
             return;
         }
 
-        this.popupTexts.add(new PopupText(
+        val index = spawn(
             target.getX() + MISS_LABEL_START_OFFSET_X,
             target.getY() + MISS_LABEL_START_OFFSET_Y,
             target.getX() + MISS_LABEL_TARGET_OFFSET_X,
             target.getY() + MISS_LABEL_TARGET_OFFSET_Y,
             MISS_LABEL_DURATION,
-            "MISSED",
-            MISS_LABEL_COLOR, MISS_LABEL_FONTSIZE, true));
+            MISS_LABEL_COLOR, MISS_LABEL_FONTSIZE);
+
+        appendMessage(this.text[index], "MISSED");
     }
 
     private void onCharacterDeath(@NonNull CharacterEvent.Death event) {
         val target = event.getCharacter();
-        this.popupTexts.add(new PopupText(
+        val index = spawn(
             target.getX() + DEATH_LABEL_START_OFFSET_X,
             target.getY() + DEATH_LABEL_START_OFFSET_Y,
             target.getX() + DEATH_LABEL_TARGET_OFFSET_X,
             target.getY() + DEATH_LABEL_TARGET_OFFSET_Y,
             DEATH_LABEL_DURATION,
-            resolveDeathMessage(target, event.getCause()),
-            DEATH_LABEL_COLOR, DEATH_LABEL_FONTSIZE, true));
+            DEATH_LABEL_COLOR, DEATH_LABEL_FONTSIZE);
+
+        appendMessage(this.text[index], resolveDeathMessage(target, event.getCause()));
     }
 
     private String resolveDeathMessage(CharacterObject target, CharacterEvent.Death.Cause cause) {
@@ -160,26 +204,72 @@ public class PopupTextRenderer {
         return DEATH_MESSAGES[this.random.nextInt(DEATH_MESSAGES.length)];
     }
 
-    private static class PopupText {
-        @NonNull private final String text;
-        @NonNull private final Color color;
-        private final long timestamp, duration;
-        private final float startX, startY;
-        private final float targetX, targetY;
-        private final int fontsize;
-        private final boolean centered;
-
-        PopupText(float startX, float startY, float targetX, float targetY, int duration, @NonNull String text, @NonNull Color color, int fontsize, boolean centered) {
-            this.startX = startX;
-            this.startY = startY;
-            this.targetX = targetX;
-            this.targetY = targetY;
-            this.timestamp = System.currentTimeMillis();
-            this.duration = duration;
-            this.text = text;
-            this.color = color;
-            this.fontsize = fontsize;
-            this.centered = centered;
+    private int spawn(float startX, float startY, float targetX, float targetY, int durationMillis, @NonNull Color color, int fontsize) {
+        val index = this.count < POOL_CAPACITY ? this.count++ : findOldest();
+
+        this.startX[index] = startX;
+        this.startY[index] = startY;
+        this.targetX[index] = targetX;
+        this.targetY[index] = targetY;
+        this.elapsed[index] = 0.0f;
+        this.duration[index] = durationMillis / 1000.0f;
+        this.color[index] = color;
+        this.fontsize[index] = fontsize;
+        this.text[index].setLength(0);
+        return index;
+    }
+
+    private int findOldest() {
+        var oldest = 0;
+        for (int i = 1; i < this.count; i++) {
+            if (this.duration[i] - this.elapsed[i] < this.duration[oldest] - this.elapsed[oldest]) {
+                oldest = i;
+            }
+        }
+
+        return oldest;
+    }
+
+    private void release(int index) {
+        val last = --this.count;
+        if (index != last) {
+            this.startX[index] = this.startX[last];
+            this.startY[index] = this.startY[last];
+            this.targetX[index] = this.targetX[last];
+            this.targetY[index] = this.targetY[last];
+            this.elapsed[index] = this.elapsed[last];
+            this.duration[index] = this.duration[last];
+            this.color[index] = this.color[last];
+            this.fontsize[index] = this.fontsize[last];
+
+            // Buffers are swapped rather than copied so that every slot keeps owning exactly one buffer
+            val tmp = this.text[index];
+            this.text[index] = this.text[last];
+            this.text[last] = tmp;
         }
+        this.color[last] = null;
+    }
+
+    /**
+     * Muotoilee luvun yhden desimaalin tarkkuudella etumerkin kanssa, esim. <code>+1.5</code> tai <code>-12.0</code>.
+     *
+     * @param out    puskuri johon luku kirjoitetaan
+     * @param amount muotoiltava luku
+     */
+    static void appendAmount(@NonNull StringBuilder out, float amount) {
+        val tenths = Math.round(Math.abs(amount) * 10.0f);
+        if (amount < 0) {
+            out.append('-');
+        } else if (amount > 0) {
+            out.append('+');
+        }
+
+        out.append(tenths / 10)
+            .append('.')
+            .append(tenths % 10);
+    }
+
+    private static void appendMessage(@NonNull StringBuilder out, @NonNull String message) {
+        out.append(message, 0, Math.min(message.length(), MAX_TEXT_LENGTH));
     }
 }
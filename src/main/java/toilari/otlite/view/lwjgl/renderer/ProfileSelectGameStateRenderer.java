@@ -180,8 +180,15 @@ public class ProfileSelectGameStateRenderer implements ILWJGLGameStateRenderer<P
         this.profileIds.add(profile.getId());
     }
 
+    @Override
+    public float getRedrawDelay(@NonNull ProfileSelectGameState state) {
+        // Menus only change in response to input
+        return Float.POSITIVE_INFINITY;
+    }
+
     @Override
     public void destroy(@NonNull ProfileSelectGameState state) {
         this.uiTexture.destroy();
+        this.batch.destroy();
     }
 }
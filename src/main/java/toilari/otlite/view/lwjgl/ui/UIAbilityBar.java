@@ -87,18 +87,18 @@ public class UIAbilityBar {
         this.abilityBackground.draw(camera, batch, x, y, ABILITY_SIZE, ABILITY_SIZE, color);
 
         // Ability name (above the icon)
-        this.textRenderer.draw(camera, batch, x, y - (ABILITY_LABEL_OFFSET_Y + ability.getName().chars().filter(c -> c == '\n').count() * ABILITY_LABEL_FONTSIZE), ABILITY_LABEL_COLOR, ABILITY_LABEL_FONTSIZE, ability.getName());
+        this.textRenderer.draw(camera, batch, x, y - (ABILITY_LABEL_OFFSET_Y + (TextRenderer.countLines(ability.getName()) - 1) * ABILITY_LABEL_FONTSIZE), ABILITY_LABEL_COLOR, ABILITY_LABEL_FONTSIZE, ability.getName());
 
         // Ability index (left bottom)
-        this.textRenderer.draw(camera, batch, x + INDEX_OFFSET_X, y + ABILITY_SIZE - (INFO_FONTSIZE + INFO_OFFSET_Y), ABILITY_INDEX_COLOR, INFO_FONTSIZE, String.valueOf(index + 1));
+        this.textRenderer.draw(camera, batch, x + INDEX_OFFSET_X, y + ABILITY_SIZE - (INFO_FONTSIZE + INFO_OFFSET_Y), ABILITY_INDEX_COLOR, INFO_FONTSIZE, index + 1);
 
         // AP cost (right bottom)
         val apColor = ability.getCost() > remainingAp ? ABILITY_COST_COLOR_CANNOT_AFFORD : ABILITY_COST_COLOR_CAN_AFFORD;
-        this.textRenderer.draw(camera, batch, x + ABILITY_SIZE - (INFO_FONTSIZE + INDEX_OFFSET_X), y + ABILITY_SIZE - (INFO_FONTSIZE + INFO_OFFSET_Y), apColor, INFO_FONTSIZE, String.valueOf(ability.getCost()));
+        this.textRenderer.draw(camera, batch, x + ABILITY_SIZE - (INFO_FONTSIZE + INDEX_OFFSET_X), y + ABILITY_SIZE - (INFO_FONTSIZE + INFO_OFFSET_Y), apColor, INFO_FONTSIZE, ability.getCost());
 
         // Cooldown (overdraw the whole thing)
         if (ability.isOnCooldown()) {
-            this.textRenderer.draw(camera, batch, x + 1, y + 1, ABILITY_COOLDOWN_COLOR, 14, String.valueOf(ability.getRemainingCooldown()));
+            this.textRenderer.draw(camera, batch, x + 1, y + 1, ABILITY_COOLDOWN_COLOR, 14, ability.getRemainingCooldown());
         }
     }
 
@@ -106,10 +106,10 @@ public class UIAbilityBar {
         this.abilityBackground.draw(camera, batch, x, y, ABILITY_SIZE, ABILITY_SIZE, ABILITY_INDEX_COLOR);
 
         // Ability name (above the icon)
-        this.textRenderer.draw(camera, batch, x, y - (ABILITY_LABEL_OFFSET_Y + ability.getName().chars().filter(c -> c == '\n').count() * ABILITY_LABEL_FONTSIZE), ABILITY_LABEL_COLOR, ABILITY_LABEL_FONTSIZE, ability.getName());
+        this.textRenderer.draw(camera, batch, x, y - (ABILITY_LABEL_OFFSET_Y + (TextRenderer.countLines(ability.getName()) - 1) * ABILITY_LABEL_FONTSIZE), ABILITY_LABEL_COLOR, ABILITY_LABEL_FONTSIZE, ability.getName());
 
         // Ability index (left bottom)
-        this.textRenderer.draw(camera, batch, x + INDEX_OFFSET_X, y + ABILITY_SIZE - (INFO_FONTSIZE + INFO_OFFSET_Y), ABILITY_INDEX_COLOR, INFO_FONTSIZE, String.valueOf(index + 1));
+        this.textRenderer.draw(camera, batch, x + INDEX_OFFSET_X, y + ABILITY_SIZE - (INFO_FONTSIZE + INFO_OFFSET_Y), ABILITY_INDEX_COLOR, INFO_FONTSIZE, index + 1);
 
         // AP cost (right bottom)
         this.textRenderer.draw(camera, batch, x + ABILITY_SIZE - (INFO_FONTSIZE + INDEX_OFFSET_X), y + ABILITY_SIZE - (INFO_FONTSIZE + INFO_OFFSET_Y), ABILITY_INDEX_COLOR, INFO_FONTSIZE, "-");
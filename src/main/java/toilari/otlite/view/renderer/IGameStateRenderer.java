@@ -28,6 +28,18 @@ public interface IGameStateRenderer<T extends GameState, TCamera extends Camera>
      */
     void draw(@NonNull TCamera camera, @NonNull T state);
 
+    /**
+     * Hakee ajan jonka kuluttua pelitilan kuva muuttuu seuraavan kerran itsestään, esimerkiksi animaatioiden
+     * edetessä. Käytetään kun peli piirretään vain tarvittaessa. Oletuksena pelitila piirretään jatkuvasti.
+     *
+     * @param state pelitila joka piirretään
+     * @return aika sekunteina seuraavaan muutokseen, <code>0</code> jos tila tulee piirtää jatkuvasti tai
+     * {@link Float#POSITIVE_INFINITY} jos kuva muuttuu vain syötteen seurauksena
+     */
+    default float getRedrawDelay(@NonNull T state) {
+        return 0.0f;
+    }
+
     /**
      * Vapauttaa allokoidut resurssit.
      *
@@ -17,6 +17,7 @@ import java.nio.file.StandardCopyOption;
 import java.sql.SQLException;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeFalse;
 
 class PlayerStatisticDAOTest {
     private static final Path PERSISTENT_ROOT = Paths.get("src/test/resources/");
@@ -189,4 +190,69 @@ class PlayerStatisticDAOTest {
             assertEquals(1.0, result.getDouble("value_koira"));
         }
     }
+
+    @Test
+    void incrementAllIncreasesEveryGivenValue() throws SQLException {
+        val database = new Database(ROOT.resolve("test.db").toString());
+        val profile = new ProfileDAO(database, new SettingsDAO(ROOT.toString())).findByName("Kissa");
+        val dao = new PlayerStatisticDAO(database);
+        dao.addButDoNotReplace(profile.getId(), Statistics.TURNS_PLAYED.getId(), 1.0);
+
+        dao.incrementAll(profile.getId(),
+            new int[]{Statistics.KILLS.getId(), Statistics.TURNS_PLAYED.getId()},
+            new double[]{2.0, 5.0});
+
+        assertEquals(4.0, dao.get(profile.getId(), Statistics.KILLS.getId()));
+        assertEquals(6.0, dao.get(profile.getId(), Statistics.TURNS_PLAYED.getId()));
+    }
+
+    @Test
+    void incrementAllThrowsIfArrayLengthsDiffer() throws SQLException {
+        val database = new Database(ROOT.resolve("test.db").toString());
+        val dao = new PlayerStatisticDAO(database);
+
+        assertThrows(IllegalArgumentException.class, () -> dao.incrementAll(1, new int[]{1, 2}, new double[]{1.0}));
+    }
+
+    @Test
+    void addAllButDoNotReplaceAddsMissingRowsAndKeepsExistingOnes() throws SQLException {
+        val database = new Database(ROOT.resolve("test.db").toString());
+        val profile = new ProfileDAO(database, new SettingsDAO(ROOT.toString())).findByName("Kissa");
+        val dao = new PlayerStatisticDAO(database);
+
+        dao.addAllButDoNotReplace(profile.getId(),
+            new int[]{Statistics.KILLS.getId(), Statistics.BUTTONS_CLICKED.getId()},
+            new double[]{100.0, 7.0});
+
+        assertEquals(2.0, dao.get(profile.getId(), Statistics.KILLS.getId()));
+        assertEquals(7.0, dao.get(profile.getId(), Statistics.BUTTONS_CLICKED.getId()));
+    }
+
+    @Test
+    void incrementAllAddsMissingRows() throws SQLException {
+        val database = new Database(ROOT.resolve("test.db").toString());
+        val profile = new ProfileDAO(database, new SettingsDAO(ROOT.toString())).createNew("Hevonen");
+        val dao = new PlayerStatisticDAO(database);
+        assumeFalse(dao.getAll(profile.getId()).containsKey(Statistics.BUTTONS_CLICKED.getId()));
+
+        dao.incrementAll(profile.getId(),
+            new int[]{Statistics.BUTTONS_CLICKED.getId()},
+            new double[]{3.0});
+
+        assertEquals(3.0, (double) dao.getAll(profile.getId()).get(Statistics.BUTTONS_CLICKED.getId()));
+    }
+
+    @Test
+    void getAllReturnsEveryStoredValueOfProfile() throws SQLException {
+        val database = new Database(ROOT.resolve("test.db").toString());
+        val profile = new ProfileDAO(database, new SettingsDAO(ROOT.toString())).findByName("Kissa");
+        val dao = new PlayerStatisticDAO(database);
+
+        val values = dao.getAll(profile.getId());
+
+        assertEquals(2.0, (double) values.get(Statistics.KILLS.getId()));
+        for (val entry : values.entrySet()) {
+            assertEquals(dao.get(profile.getId(), entry.getKey()), (double) entry.getValue());
+        }
+    }
 }
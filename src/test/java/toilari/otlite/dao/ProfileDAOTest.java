@@ -49,6 +49,18 @@ class ProfileDAOTest {
         assertThrows(NullPointerException.class, () -> new ProfileDAO(null, new SettingsDAO(ROOT.toString())));
     }
 
+    @Test
+    void findByNameDoesNotReadSettingsUntilRequested() throws SQLException {
+        val database = new Database(ROOT.resolve("test.db").toString());
+        val dao = new ProfileDAO(database, new SettingsDAO(ROOT.toString()));
+
+        val profile = dao.findByName("Kissa");
+        assertFalse(FileHelper.fileExists(ROOT.resolve("Kissa.settings").toString()));
+
+        assertNotNull(profile.getSettings());
+        assertTrue(FileHelper.fileExists(ROOT.resolve("Kissa.settings").toString()));
+    }
+
     @Test
     void findAllFindsExistingEntries() throws SQLException {
         val database = new Database(ROOT.resolve("test.db").toString());
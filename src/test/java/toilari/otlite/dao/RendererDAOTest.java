@@ -0,0 +1,49 @@
+package toilari.otlite.dao;
+
+import lombok.val;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testaa RendererDAO-luokan kahvojen toimintaa.
+ */
+class RendererDAOTest {
+    private static final String ROOT = "content/renderers/";
+
+    @Test
+    void getHandleReturnsSameHandleForSameID() {
+        val dao = new RendererDAO(ROOT, new TextureDAO("content/textures/"));
+        val first = dao.getHandle("sheep");
+        assertNotEquals(IGetByHandleDAO.UNRESOLVED, first);
+        assertNotEquals(IGetByHandleDAO.MISSING, first);
+        assertEquals(first, dao.getHandle("sheep"));
+    }
+
+    @Test
+    void getHandleReturnsDifferentHandlesForDifferentIDs() {
+        val dao = new RendererDAO(ROOT, new TextureDAO("content/textures/"));
+        assertNotEquals(dao.getHandle("sheep"), dao.getHandle("player"));
+    }
+
+    @Test
+    void getByHandleReturnsSameRendererAsGetByID() {
+        val dao = new RendererDAO(ROOT, new TextureDAO("content/textures/"));
+        assertSame(dao.getByID("sheep"), dao.getByHandle(dao.getHandle("sheep")));
+    }
+
+    @Test
+    void getHandleReturnsMissingForUnknownOrNullID() {
+        val dao = new RendererDAO(ROOT, new TextureDAO("content/textures/"));
+        assertEquals(IGetByHandleDAO.MISSING, dao.getHandle("this_renderer_does_not_exist"));
+        assertEquals(IGetByHandleDAO.MISSING, dao.getHandle(null));
+    }
+
+    @Test
+    void getByHandleReturnsNullForInvalidHandles() {
+        val dao = new RendererDAO(ROOT, new TextureDAO("content/textures/"));
+        assertNull(dao.getByHandle(IGetByHandleDAO.UNRESOLVED));
+        assertNull(dao.getByHandle(IGetByHandleDAO.MISSING));
+        assertNull(dao.getByHandle(1234));
+    }
+}
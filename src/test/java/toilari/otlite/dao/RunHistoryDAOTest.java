@@ -0,0 +1,167 @@
+package toilari.otlite.dao;
+
+import lombok.val;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import toilari.otlite.dao.database.Database;
+import toilari.otlite.dao.util.FileHelper;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RunHistoryDAOTest {
+    private static final Path ROOT = Paths.get("target/test-temp/");
+    private static final int KILLS = 0;
+    private static final int FLOORS = 5;
+
+    private Database database;
+    private RunHistoryDAO dao;
+
+    @BeforeEach
+    void beforeEach() throws IOException, SQLException {
+        Files.createDirectories(ROOT);
+        this.database = new Database(ROOT.resolve("runs.db").toString());
+        this.dao = new RunHistoryDAO(this.database);
+    }
+
+    @AfterEach
+    void afterEach() {
+        this.database.close();
+        FileHelper.deleteDirectoryAndChildren(ROOT);
+    }
+
+    @AfterAll
+    static void afterAll() {
+        FileHelper.deleteDirectoryAndChildren(ROOT);
+    }
+
+    @Test
+    @SuppressWarnings("ConstantConditions")
+    void constructorThrowsIfDatabaseIsNull() {
+        assertThrows(NullPointerException.class, () -> new RunHistoryDAO(null));
+    }
+
+    @Test
+    void constructorCreatesRequiredIndexes() throws SQLException {
+        try (val connection = this.database.getConnection();
+             val statement = connection.prepareStatement("SELECT COUNT(*) FROM sqlite_master WHERE type = 'index' AND name LIKE 'Run%'");
+             val result = statement.executeQuery()) {
+            assertTrue(result.next());
+            assertEquals(3, result.getInt(1));
+        }
+    }
+
+    @Test
+    void leaderboardAndPercentileQueriesUseCoveringIndexes() throws SQLException {
+        assertUsesCoveringIndex("SELECT run_id, profile_id, value FROM RunStatistics WHERE statistic_id = 0 ORDER BY value DESC LIMIT 10");
+        assertUsesCoveringIndex("SELECT value FROM RunStatistics WHERE profile_id = 1 AND statistic_id = 0 ORDER BY value");
+    }
+
+    @Test
+    void recordRunReturnsDistinctIds() throws SQLException {
+        val first = record(1, 1.0, 1.0);
+        val second = record(1, 2.0, 1.0);
+        assertNotEquals(first, second);
+    }
+
+    @Test
+    void recordRunThrowsIfArrayLengthsDiffer() {
+        assertThrows(IllegalArgumentException.class, () -> this.dao.recordRun(1, 0, 1, true, new int[]{KILLS}, new double[0]));
+    }
+
+    @Test
+    void getRunCountCountsOnlyRunsOfGivenProfile() throws SQLException {
+        record(1, 1.0, 1.0);
+        record(1, 1.0, 1.0);
+        record(2, 1.0, 1.0);
+
+        assertEquals(2, this.dao.getRunCount(1));
+        assertEquals(1, this.dao.getRunCount(2));
+        assertEquals(0, this.dao.getRunCount(3));
+    }
+
+    @Test
+    void getAverageAndBestAggregateRunsOfProfile() throws SQLException {
+        record(1, 2.0, 1.0);
+        record(1, 4.0, 3.0);
+        record(2, 100.0, 100.0);
+
+        assertEquals(3.0, this.dao.getAverage(1, KILLS));
+        assertEquals(2.0, this.dao.getAverage(1, FLOORS));
+        assertEquals(4.0, this.dao.getBest(1, KILLS));
+    }
+
+    @Test
+    void aggregatesAreNaNWithoutRuns() throws SQLException {
+        assertTrue(Double.isNaN(this.dao.getAverage(1, KILLS)));
+        assertTrue(Double.isNaN(this.dao.getBest(1, KILLS)));
+        assertTrue(Double.isNaN(this.dao.getPercentile(1, KILLS, 0.5)));
+        assertTrue(Double.isNaN(this.dao.getPercentile(KILLS, 0.5)));
+    }
+
+    @Test
+    void getPercentileUsesNearestRank() throws SQLException {
+        for (int i = 1; i <= 5; i++) {
+            record(1, i * 10.0, 0.0);
+        }
+        record(2, 1000.0, 0.0);
+
+        assertEquals(10.0, this.dao.getPercentile(1, KILLS, 0.0));
+        assertEquals(30.0, this.dao.getPercentile(1, KILLS, 0.5));
+        assertEquals(50.0, this.dao.getPercentile(1, KILLS, 1.0));
+        assertEquals(1000.0, this.dao.getPercentile(KILLS, 1.0));
+    }
+
+    @Test
+    void getPercentileThrowsIfPercentileIsOutOfRange() {
+        assertThrows(IllegalArgumentException.class, () -> this.dao.getPercentile(1, KILLS, 1.5));
+        assertThrows(IllegalArgumentException.class, () -> this.dao.getPercentile(KILLS, -0.1));
+    }
+
+    @Test
+    void getLeaderboardOrdersRunsByValueAcrossProfiles() throws SQLException {
+        record(1, 5.0, 0.0);
+        val best = record(2, 9.0, 0.0);
+        record(1, 7.0, 0.0);
+
+        val leaderboard = this.dao.getLeaderboard(KILLS, 2);
+        assertEquals(2, leaderboard.size());
+        assertEquals(best, leaderboard.get(0).getRunId());
+        assertEquals(2, leaderboard.get(0).getProfileId());
+        assertEquals(9.0, leaderboard.get(0).getValue());
+        assertEquals(7.0, leaderboard.get(1).getValue());
+    }
+
+    @Test
+    void removeByProfileRemovesOnlyThatProfilesRuns() throws SQLException {
+        record(1, 5.0, 0.0);
+        record(2, 9.0, 0.0);
+
+        this.dao.removeByProfile(2);
+        assertEquals(0, this.dao.getRunCount(2));
+        assertEquals(1, this.dao.getRunCount(1));
+        assertEquals(5.0, this.dao.getPercentile(KILLS, 1.0));
+    }
+
+    private void assertUsesCoveringIndex(String sql) throws SQLException {
+        try (val connection = this.database.acquire();
+             val result = connection.prepare("EXPLAIN QUERY PLAN " + sql).executeQuery()) {
+            val plan = new StringBuilder();
+            while (result.next()) {
+                plan.append(result.getString("detail")).append('\n');
+            }
+            assertTrue(plan.toString().contains("COVERING INDEX"), plan.toString());
+        }
+    }
+
+    private int record(int profileId, double kills, double floors) throws SQLException {
+        return this.dao.recordRun(profileId, 0, 1, true, new int[]{KILLS, FLOORS}, new double[]{kills, floors});
+    }
+}
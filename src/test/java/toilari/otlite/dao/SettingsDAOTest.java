@@ -0,0 +1,99 @@
+package toilari.otlite.dao;
+
+import lombok.val;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import toilari.otlite.dao.util.FileHelper;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SettingsDAOTest {
+    private static final Path ROOT = Paths.get("target/test-temp/");
+
+    @BeforeEach
+    void beforeEach() throws IOException {
+        Files.createDirectories(ROOT);
+    }
+
+    @AfterEach
+    void afterEach() {
+        FileHelper.deleteDirectoryAndChildren(ROOT);
+    }
+
+    @AfterAll
+    static void afterAll() {
+        FileHelper.deleteDirectoryAndChildren(ROOT);
+    }
+
+    @Test
+    void loadByProfileNameCreatesMissingSettingsFile() {
+        val dao = new SettingsDAO(ROOT.toString());
+        assertNotNull(dao.loadByProfileName("Kissa"));
+        assertTrue(FileHelper.fileExists(ROOT.resolve("Kissa.settings").toString()));
+    }
+
+    @Test
+    void loadByProfileNameReturnsCachedInstance() {
+        val dao = new SettingsDAO(ROOT.toString());
+        assertSame(dao.loadByProfileName("Kissa"), dao.loadByProfileName("Kissa"));
+    }
+
+    @Test
+    void removeByNameEvictsCachedSettings() {
+        val dao = new SettingsDAO(ROOT.toString());
+        val settings = dao.loadByProfileName("Kissa");
+        dao.removeByName("Kissa");
+
+        assertFalse(FileHelper.fileExists(ROOT.resolve("Kissa.settings").toString()));
+        assertNotSame(settings, dao.loadByProfileName("Kissa"));
+    }
+
+    @Test
+    void preloadAsyncDoesNotCreateMissingFiles() {
+        val dao = new SettingsDAO(ROOT.toString());
+        dao.preloadAsync(Arrays.asList("Kissa", "Koira")).join();
+
+        assertFalse(FileHelper.fileExists(ROOT.resolve("Kissa.settings").toString()));
+        assertFalse(FileHelper.fileExists(ROOT.resolve("Koira.settings").toString()));
+    }
+
+    @Test
+    void preloadAsyncReadsExistingFilesToCache() {
+        new SettingsDAO(ROOT.toString()).loadByProfileName("Kissa");
+
+        val dao = new SettingsDAO(ROOT.toString());
+        dao.preloadAsync(Arrays.asList("Kissa")).join();
+        FileHelper.deleteFile(ROOT.resolve("Kissa.settings"));
+
+        // Served from the cache, so the deleted file is not re-created
+        assertNotNull(dao.loadByProfileName("Kissa"));
+        assertFalse(FileHelper.fileExists(ROOT.resolve("Kissa.settings").toString()));
+    }
+
+    @Test
+    void preloadAsyncDoesNotRecreateRemovedSettings() {
+        val dao = new SettingsDAO(ROOT.toString());
+        dao.loadByProfileName("Kissa");
+        dao.removeByName("Kissa");
+
+        dao.preloadAsync(Arrays.asList("Kissa")).join();
+
+        assertFalse(FileHelper.fileExists(ROOT.resolve("Kissa.settings").toString()));
+    }
+
+    @Test
+    void preloadAsyncCompletesImmediatelyWhenEverythingIsCached() {
+        val dao = new SettingsDAO(ROOT.toString());
+        dao.loadByProfileName("Kissa");
+
+        assertTrue(dao.preloadAsync(Arrays.asList("Kissa")).isDone());
+    }
+}
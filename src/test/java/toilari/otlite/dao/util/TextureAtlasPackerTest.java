@@ -0,0 +1,106 @@
+package toilari.otlite.dao.util;
+
+import lombok.val;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testaa TextureAtlasPacker-luokan toimintaa.
+ */
+class TextureAtlasPackerTest {
+    @Test
+    void constructorThrowsIfPageSizeIsNotPositive() {
+        assertThrows(IllegalArgumentException.class, () -> new TextureAtlasPacker(0, 1));
+    }
+
+    @Test
+    void constructorThrowsIfPaddingIsNegative() {
+        assertThrows(IllegalArgumentException.class, () -> new TextureAtlasPacker(64, -1));
+    }
+
+    @Test
+    void addRejectsImagesThatDoNotFitOnAPage() {
+        val packer = new TextureAtlasPacker(64, 1);
+        assertFalse(packer.add("large", 63, 8));
+        assertTrue(packer.add("small", 62, 8));
+    }
+
+    @Test
+    void packingWithoutImagesProducesNoPages() {
+        val packer = new TextureAtlasPacker(64, 1);
+        packer.pack();
+        assertEquals(0, packer.getPageCount());
+    }
+
+    @Test
+    void packedRegionsKeepImageDimensions() {
+        val packer = new TextureAtlasPacker(1024, 1);
+        packer.add("font", 400, 8);
+        packer.add("tileset", 64, 64);
+        packer.pack();
+
+        val font = packer.getRegion("font");
+        assertEquals(400, font.getWidth());
+        assertEquals(8, font.getHeight());
+        val tileset = packer.getRegion("tileset");
+        assertEquals(64, tileset.getWidth());
+        assertEquals(64, tileset.getHeight());
+    }
+
+    @Test
+    void packedRegionsDoNotOverlapIncludingPadding() {
+        val padding = 1;
+        val packer = new TextureAtlasPacker(128, padding);
+        val keys = new ArrayList<String>();
+        for (int i = 0; i < 40; i++) {
+            val key = "image" + i;
+            keys.add(key);
+            packer.add(key, 4 + (i * 7) % 28, 4 + (i * 5) % 20);
+        }
+        packer.pack();
+
+        for (int i = 0; i < keys.size(); i++) {
+            val a = packer.getRegion(keys.get(i));
+            assertTrue(a.getX() >= padding && a.getY() >= padding);
+            assertTrue(a.getX() + a.getWidth() + padding <= packer.getPageWidth(a.getPage()));
+            assertTrue(a.getY() + a.getHeight() + padding <= packer.getPageHeight(a.getPage()));
+
+            for (int j = i + 1; j < keys.size(); j++) {
+                val b = packer.getRegion(keys.get(j));
+                val overlaps = a.getPage() == b.getPage()
+                    && a.getX() - padding < b.getX() + b.getWidth() + padding
+                    && b.getX() - padding < a.getX() + a.getWidth() + padding
+                    && a.getY() - padding < b.getY() + b.getHeight() + padding
+                    && b.getY() - padding < a.getY() + a.getHeight() + padding;
+                assertFalse(overlaps, keys.get(i) + " overlaps " + keys.get(j));
+            }
+        }
+    }
+
+    @Test
+    void imagesSpillOverToNewPagesWhenPageIsFull() {
+        val packer = new TextureAtlasPacker(32, 0);
+        for (int i = 0; i < 5; i++) {
+            packer.add("image" + i, 16, 16);
+        }
+        packer.pack();
+
+        assertEquals(2, packer.getPageCount());
+        assertEquals(1, packer.getRegion("image4").getPage());
+    }
+
+    @Test
+    void pagesAreTrimmedToPowerOfTwoSizes() {
+        val packer = new TextureAtlasPacker(1024, 1);
+        packer.add("a", 20, 10);
+        packer.add("b", 20, 10);
+        packer.pack();
+
+        assertEquals(1, packer.getPageCount());
+        assertEquals(64, packer.getPageWidth(0));
+        assertEquals(16, packer.getPageHeight(0));
+    }
+}
@@ -6,6 +6,7 @@ import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import toilari.otlite.dao.database.Database;
+import toilari.otlite.dao.database.PooledConnection;
 import toilari.otlite.dao.util.FileHelper;
 
 import java.io.IOException;
@@ -13,6 +14,7 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
+import java.sql.SQLException;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -73,6 +75,61 @@ class DatabaseTest {
         );
     }
 
+    /**
+     * Testaa että suljettu yhteys palautuu pooliin ja annetaan seuraavalle lainaajalle.
+     */
+    @Test
+    void closedConnectionIsReusedByNextAcquire() throws SQLException {
+        try (val db = new Database(ROOT.resolve("test.db").toString())) {
+            PooledConnection first;
+            try (val connection = db.acquire()) {
+                first = connection;
+            }
+
+            try (val connection = db.acquire()) {
+                assertSame(first, connection);
+            }
+        }
+    }
+
+    /**
+     * Testaa että samanaikaisesti lainatut yhteydet ovat eri yhteyksiä.
+     */
+    @Test
+    void concurrentlyAcquiredConnectionsAreDistinct() throws SQLException {
+        try (val db = new Database(ROOT.resolve("test.db").toString());
+             val a = db.acquire();
+             val b = db.acquire()) {
+            assertNotSame(a, b);
+        }
+    }
+
+    /**
+     * Testaa että sama kysely valmistellaan vain kerran.
+     */
+    @Test
+    void prepareReturnsCachedStatementForSameQuery() throws SQLException {
+        try (val db = new Database(ROOT.resolve("test.db").toString());
+             val connection = db.acquire()) {
+            val statement = connection.prepare("SELECT 1");
+            assertSame(statement, connection.prepare("SELECT 1"));
+            assertNotSame(statement, connection.prepare("SELECT 2"));
+        }
+    }
+
+    /**
+     * Testaa että tietokanta käyttää WAL-lokia.
+     */
+    @Test
+    void connectionsUseWriteAheadLogging() throws SQLException {
+        try (val db = new Database(ROOT.resolve("test.db").toString());
+             val connection = db.acquire();
+             val result = connection.prepare("PRAGMA journal_mode").executeQuery()) {
+            assertTrue(result.next());
+            assertEquals("wal", result.getString(1).toLowerCase());
+        }
+    }
+
     @AfterEach
     void afterEach() {
         FileHelper.deleteDirectoryAndChildren(ROOT);
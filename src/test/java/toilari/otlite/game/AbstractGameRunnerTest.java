@@ -0,0 +1,211 @@
+package toilari.otlite.game;
+
+import lombok.NonNull;
+import lombok.val;
+import org.junit.jupiter.api.Test;
+import toilari.otlite.dao.PlayerStatisticDAO;
+import toilari.otlite.dao.ProfileDAO;
+import toilari.otlite.dao.SettingsDAO;
+import toilari.otlite.dao.database.Database;
+import toilari.otlite.fake.FakeInputHandler;
+import toilari.otlite.game.input.IInputHandler;
+import toilari.otlite.game.profile.statistics.StatisticsManager;
+import toilari.otlite.game.world.entities.TurnObjectManager;
+import toilari.otlite.view.Camera;
+import toilari.otlite.view.renderer.IGameStateRenderer;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AbstractGameRunnerTest {
+    @Test
+    void setTicksPerSecondThrowsIfRateIsNotPositive() {
+        val runner = new TestRunner(createGame(new CountingGameState(1)));
+        assertThrows(IllegalArgumentException.class, () -> runner.setTicksPerSecond(0));
+        assertThrows(IllegalArgumentException.class, () -> runner.setTicksPerSecond(-60));
+    }
+
+    @Test
+    void runUpdatesWithFixedDelta() {
+        val state = new CountingGameState(20);
+        val runner = new TestRunner(createGame(state));
+        runner.setTicksPerSecond(500);
+
+        assertTimeout(Duration.ofSeconds(5), runner::run);
+
+        assertEquals(20, state.deltas.size());
+        for (val delta : state.deltas) {
+            assertEquals(1.0f / 500, delta, 0.00001f);
+        }
+    }
+
+    @Test
+    void runDisplaysOnlyAfterSimulationHasAdvanced() {
+        val state = new CountingGameState(20);
+        val runner = new TestRunner(createGame(state));
+        runner.setTicksPerSecond(500);
+
+        assertTimeout(Duration.ofSeconds(5), runner::run);
+
+        assertTrue(runner.frames > 0);
+        assertTrue(runner.frames <= state.deltas.size());
+    }
+
+    @Test
+    void runDisplaysAtDisplayRateWhenDisplayIsSynchronized() {
+        val state = new CountingGameState(10);
+        val runner = new SynchronizedTestRunner(createGame(state));
+        runner.setTicksPerSecond(50);
+
+        assertTimeout(Duration.ofSeconds(5), runner::run);
+
+        assertTrue(runner.frames > 2 * state.deltas.size(), "drew " + runner.frames + " frames");
+    }
+
+    @Test
+    void runDoesNotRunFasterThanTickRate() {
+        val state = new CountingGameState(10);
+        val runner = new TestRunner(createGame(state));
+        runner.setTicksPerSecond(100);
+
+        val start = System.nanoTime();
+        runner.run();
+        val elapsedMillis = (System.nanoTime() - start) / 1_000_000L;
+
+        // 10 ticks at 100 Hz take at least ~100ms, allow some slack for the first tick
+        assertTrue(elapsedMillis >= 80, "elapsed " + elapsedMillis + "ms");
+    }
+
+    @Test
+    void renderOnDemandSkipsFramesWhenNothingChanges() {
+        val state = new CountingGameState(600);
+        val renderers = new HashMap<Class, IGameStateRenderer>();
+        renderers.put(CountingGameState.class, new StaticStateRenderer());
+        val runner = new TestRunner(createGame(state), renderers);
+        runner.setTicksPerSecond(1000);
+        runner.setRenderOnDemand(true);
+
+        assertTimeout(Duration.ofSeconds(5), runner::run);
+
+        // Only the short grace period after the initial state change should have been drawn
+        assertTrue(runner.frames > 0);
+        assertTrue(runner.frames < 400, "drew " + runner.frames + " frames");
+    }
+
+    private static Game createGame(GameState state) {
+        try {
+            val database = new Database("target/test-temp/game.db");
+            return new Game(state, "",
+                () -> null,
+                id -> null,
+                id -> null,
+                new ProfileDAO(database, new SettingsDAO("")),
+                new StatisticsManager(new PlayerStatisticDAO(database)),
+                TurnObjectManager::new);
+        } catch (SQLException ignored) {
+            throw new IllegalStateException("Invalid database path");
+        }
+    }
+
+    private static class TestRunner extends AbstractGameRunner<Camera> {
+        int frames;
+
+        TestRunner(Game game) {
+            super(game);
+        }
+
+        TestRunner(Game game, Map<Class, IGameStateRenderer> renderers) {
+            super(game, renderers);
+        }
+
+        @Override
+        protected void display(Camera camera) {
+            super.display(camera);
+            this.frames++;
+        }
+
+        @Override
+        protected IInputHandler createInputHandler() {
+            return new FakeInputHandler();
+        }
+
+        @Override
+        protected Camera createCamera() {
+            return new Camera();
+        }
+    }
+
+    private static class SynchronizedTestRunner extends TestRunner {
+        SynchronizedTestRunner(Game game) {
+            super(game);
+        }
+
+        @Override
+        protected boolean isDisplaySynchronized() {
+            return true;
+        }
+
+        @Override
+        protected void display(Camera camera) {
+            super.display(camera);
+            // Stands in for waiting on the vertical blank of a display several times faster than the tick rate
+            try {
+                Thread.sleep(2);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static class StaticStateRenderer implements IGameStateRenderer<CountingGameState, Camera> {
+        @Override
+        public boolean init(@NonNull CountingGameState state) {
+            return false;
+        }
+
+        @Override
+        public void draw(@NonNull Camera camera, @NonNull CountingGameState state) {
+        }
+
+        @Override
+        public float getRedrawDelay(@NonNull CountingGameState state) {
+            return Float.POSITIVE_INFINITY;
+        }
+
+        @Override
+        public void destroy(@NonNull CountingGameState state) {
+        }
+    }
+
+    private static class CountingGameState extends GameState {
+        final List<Float> deltas = new ArrayList<>();
+        final int maxUpdates;
+
+        CountingGameState(int maxUpdates) {
+            this.maxUpdates = maxUpdates;
+        }
+
+        @Override
+        public boolean init() {
+            return false;
+        }
+
+        @Override
+        public void update(float delta) {
+            this.deltas.add(delta);
+            if (this.deltas.size() >= this.maxUpdates) {
+                getGame().setRunning(false);
+            }
+        }
+
+        @Override
+        public void destroy() {
+        }
+    }
+}
@@ -15,6 +15,7 @@ import java.nio.file.Paths;
 import java.sql.SQLException;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
 
 class GameTest {
     @Test
@@ -186,6 +187,25 @@ class GameTest {
         assertTrue(state.destroy);
     }
 
+    @Test
+    void destroyClosesTheDatabase() throws SQLException {
+        val path = "target/test-temp/game-destroy.db";
+        val database = new Database(path);
+        val game = new Game(new TestGameState(), "",
+            () -> null,
+            id -> null,
+            id -> null,
+            new ProfileDAO(database, new SettingsDAO("")),
+            new StatisticsManager(new PlayerStatisticDAO(database)),
+            TurnObjectManager::new);
+        game.setDatabase(database);
+        assumeTrue(FileHelper.fileExists(path + "-wal"));
+
+        game.init();
+        game.destroy();
+        assertFalse(FileHelper.fileExists(path + "-wal"));
+    }
+
     @AfterAll
     static void afterAll() {
         FileHelper.deleteDirectoryAndChildren(Paths.get("target/test-temp"));
@@ -193,7 +213,7 @@ class GameTest {
 
     private static Game createGame(GameState state) {
         try {
-            val database = new Database("src/test/resources/test.db");
+            val database = new Database("target/test-temp/game.db");
             return new Game(state, "",
                 () -> null,
                 id -> null,
@@ -0,0 +1,154 @@
+package toilari.otlite.game.profile.statistics;
+
+import lombok.val;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import toilari.otlite.dao.PlayerStatisticDAO;
+import toilari.otlite.dao.ProfileDAO;
+import toilari.otlite.dao.RunHistoryDAO;
+import toilari.otlite.dao.SettingsDAO;
+import toilari.otlite.dao.database.Database;
+import toilari.otlite.dao.util.FileHelper;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StatisticsManagerTest {
+    private static final Path PERSISTENT_ROOT = Paths.get("src/test/resources/");
+    private static final Path ROOT = Paths.get("target/test-temp/");
+
+    private Database database;
+    private PlayerStatisticDAO dao;
+    private int profileId;
+
+    @BeforeEach
+    void beforeEach() throws IOException, SQLException {
+        Files.createDirectories(ROOT);
+        Files.copy(PERSISTENT_ROOT.resolve("test.db"), ROOT.resolve("test.db"), StandardCopyOption.REPLACE_EXISTING);
+
+        this.database = new Database(ROOT.resolve("test.db").toString());
+        this.dao = new PlayerStatisticDAO(this.database);
+        this.profileId = new ProfileDAO(this.database, new SettingsDAO(ROOT.toString())).findByName("Kissa").getId();
+    }
+
+    @AfterEach
+    void afterEach() {
+        this.database.close();
+        FileHelper.deleteDirectoryAndChildren(ROOT);
+    }
+
+    @AfterAll
+    static void afterAll() {
+        FileHelper.deleteDirectoryAndChildren(ROOT);
+    }
+
+    @Test
+    void incrementIsNotWrittenBeforeFlush() throws SQLException {
+        val manager = new StatisticsManager(this.dao);
+        manager.increment(Statistics.KILLS, this.profileId);
+
+        assertEquals(2.0, this.dao.get(this.profileId, Statistics.KILLS.getId()));
+        manager.close();
+    }
+
+    @Test
+    void getIncludesPendingIncrements() {
+        val manager = new StatisticsManager(this.dao);
+        manager.increment(Statistics.KILLS, this.profileId);
+        manager.incrementBy(Statistics.KILLS, 2.0, this.profileId);
+
+        assertEquals(5, manager.getLong(Statistics.KILLS, this.profileId));
+        manager.close();
+    }
+
+    @Test
+    void flushWritesPendingIncrements() throws SQLException {
+        val manager = new StatisticsManager(this.dao);
+        manager.increment(Statistics.KILLS, this.profileId);
+        manager.flush();
+
+        assertEquals(3.0, this.dao.get(this.profileId, Statistics.KILLS.getId()));
+        assertEquals(3, manager.getLong(Statistics.KILLS, this.profileId));
+        manager.close();
+    }
+
+    @Test
+    void closeWritesPendingIncrements() throws SQLException {
+        val manager = new StatisticsManager(this.dao);
+        manager.startTrackingProfile(this.profileId);
+        val before = this.dao.get(this.profileId, Statistics.TILES_MOVED.getId());
+        for (int i = 0; i < 10; i++) {
+            manager.increment(Statistics.TILES_MOVED, this.profileId);
+        }
+        manager.close();
+
+        assertEquals(before + 10.0, this.dao.get(this.profileId, Statistics.TILES_MOVED.getId()));
+    }
+
+    @Test
+    void setDiscardsPendingIncrements() throws SQLException {
+        val manager = new StatisticsManager(this.dao);
+        manager.increment(Statistics.KILLS, this.profileId);
+        manager.set(Statistics.KILLS, this.profileId, 10.0);
+        manager.close();
+
+        assertEquals(10.0, this.dao.get(this.profileId, Statistics.KILLS.getId()));
+    }
+
+    @Test
+    void getAllIncludesPendingIncrements() {
+        val manager = new StatisticsManager(this.dao);
+        manager.incrementBy(Statistics.KILLS, 3.0, this.profileId);
+
+        val values = manager.getAll(this.profileId);
+        assertEquals(Statistics.values().length, values.size());
+        assertEquals(5.0, (double) values.get(Statistics.KILLS));
+        manager.close();
+    }
+
+    @Test
+    void startTrackingProfileAddsEveryStatistic() throws SQLException {
+        val manager = new StatisticsManager(this.dao);
+        manager.startTrackingProfile(this.profileId);
+
+        assertEquals(Statistics.values().length, this.dao.getAll(this.profileId).size());
+        manager.close();
+    }
+
+    @Test
+    void endRunRecordsIncrementsMadeDuringTheRun() throws SQLException {
+        val runs = new RunHistoryDAO(this.database);
+        val manager = new StatisticsManager(this.dao, runs);
+        manager.increment(Statistics.KILLS, this.profileId);
+
+        manager.startRun(this.profileId);
+        manager.incrementBy(Statistics.KILLS, 3.0, this.profileId);
+        manager.endRun(true);
+        manager.increment(Statistics.KILLS, this.profileId);
+
+        assertEquals(1, runs.getRunCount(this.profileId));
+        assertEquals(3.0, runs.getBest(this.profileId, Statistics.KILLS.getId()));
+        assertEquals(0.0, runs.getBest(this.profileId, Statistics.TILES_MOVED.getId()));
+        manager.close();
+    }
+
+    @Test
+    void endRunWithoutActiveRunDoesNothing() throws SQLException {
+        val runs = new RunHistoryDAO(this.database);
+        val manager = new StatisticsManager(this.dao, runs);
+        manager.startRun(this.profileId);
+        manager.endRun(false);
+        manager.endRun(false);
+
+        assertEquals(1, runs.getRunCount(this.profileId));
+        manager.close();
+    }
+}
@@ -0,0 +1,146 @@
+package toilari.otlite.game.simulation;
+
+import lombok.val;
+import org.junit.jupiter.api.Test;
+import toilari.otlite.dao.CharacterDAO;
+import toilari.otlite.dao.LevelDAO;
+import toilari.otlite.dao.TileDAO;
+import toilari.otlite.fake.FakeInputHandler;
+import toilari.otlite.game.input.IInputHandler;
+import toilari.otlite.game.input.Input;
+import toilari.otlite.game.world.World;
+import toilari.otlite.game.world.entities.TurnObjectManager;
+import toilari.otlite.view.headless.ScriptedInputHandler;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParallelWorldSimulatorTest {
+    @Test
+    void runReturnsResultForEachWorldInOrder() {
+        val results = createSimulator().run(8, "1", 200, 1.0f / 60.0f, ScriptedInputHandler::randomWalk);
+
+        assertEquals(8, results.size());
+        for (int i = 0; i < results.size(); i++) {
+            assertEquals(i, results.get(i).getIndex());
+            assertTrue(results.get(i).getTicks() > 0);
+            assertTrue(results.get(i).getFloor() >= 1);
+        }
+    }
+
+    @Test
+    void runStopsEachWorldAfterMaxTicks() {
+        val results = createSimulator().run(4, "1", 50, 1.0f / 60.0f, i -> new FakeInputHandler());
+
+        for (val result : results) {
+            assertEquals(50, result.getTicks());
+            assertTrue(result.isPlayerAlive());
+        }
+    }
+
+    @Test
+    void runWithZeroWorldsReturnsEmptyList() {
+        assertTrue(createSimulator().run(0, "1", 50, 1.0f / 60.0f, i -> new FakeInputHandler()).isEmpty());
+    }
+
+    @Test
+    void runThrowsIfCountsAreNegative() {
+        val simulator = createSimulator();
+        assertThrows(IllegalArgumentException.class, () -> simulator.run(-1, "1", 50, 1.0f, i -> new FakeInputHandler()));
+        assertThrows(IllegalArgumentException.class, () -> simulator.run(1, "1", -1, 1.0f, i -> new FakeInputHandler()));
+    }
+
+    @Test
+    void eachWorldReadsItsOwnInputHandler() {
+        val seen = new IInputHandler[4];
+        val global = new FakeInputHandler();
+        Input.init(global);
+
+        createSimulator().run(4, "1", 1, 1.0f, i -> new FakeInputHandler() {
+            @Override
+            public void update() {
+                seen[i] = Input.getHandler();
+            }
+        });
+
+        for (int i = 0; i < seen.length; i++) {
+            assertNotNull(seen[i]);
+            assertNotSame(global, seen[i]);
+            for (int j = i + 1; j < seen.length; j++) {
+                assertNotSame(seen[i], seen[j]);
+            }
+        }
+        assertSame(global, Input.getHandler());
+    }
+
+    @Test
+    void runRestoresThreadHandlerOfCallerWhichRunsSimulationsItself() {
+        val simulator = new ParallelWorldSimulator(
+            new TileDAO("content/tiles/"),
+            new CharacterDAO("content/characters/"),
+            new LevelDAO("content/levels/"),
+            TurnObjectManager::new,
+            new CallerRunsPool());
+
+        val callerHandler = new FakeInputHandler();
+        Input.setThreadHandler(callerHandler);
+        try {
+            simulator.run(4, "1", 1, 1.0f, i -> new FakeInputHandler());
+            assertSame(callerHandler, Input.getThreadHandler());
+        } finally {
+            Input.setThreadHandler(null);
+        }
+    }
+
+    @Test
+    void nextLevelIsTrackedPerWorld() {
+        val tiles = new TileDAO("content/tiles/");
+        val characters = new CharacterDAO("content/characters/");
+        val levels = new LevelDAO("content/levels/");
+        val worldA = new World(new TurnObjectManager(), tiles, levels, characters);
+        val worldB = new World(new TurnObjectManager(), tiles, levels, characters);
+        worldA.init();
+        worldB.init();
+        worldA.getObjectManager().setPlayer(worldA.getObjectManager().spawnTemplate(characters.getByID("player")));
+        worldB.getObjectManager().setPlayer(worldB.getObjectManager().spawnTemplate(characters.getByID("player")));
+
+        worldA.changeLevel("1");
+        worldB.changeLevel("2");
+
+        assertEquals("2", worldA.getNextLevelId());
+        assertEquals("1", worldB.getNextLevelId());
+    }
+
+    /**
+     * Säiejoukko joka suorittaa tehtävät kutsuvassa säikeessä, kuten yhteinen säiejoukko voi tehdä kun kutsuja jää
+     * odottamaan tuloksia.
+     */
+    private static class CallerRunsPool extends ForkJoinPool {
+        @Override
+        public <T> List<Future<T>> invokeAll(Collection<? extends Callable<T>> tasks) {
+            val futures = new ArrayList<Future<T>>(tasks.size());
+            for (val task : tasks) {
+                val future = new FutureTask<T>(task);
+                future.run();
+                futures.add(future);
+            }
+            return futures;
+        }
+    }
+
+    private static ParallelWorldSimulator createSimulator() {
+        return new ParallelWorldSimulator(
+            new TileDAO("content/tiles/"),
+            new CharacterDAO("content/characters/"),
+            new LevelDAO("content/levels/"),
+            TurnObjectManager::new,
+            new ForkJoinPool(4));
+    }
+}
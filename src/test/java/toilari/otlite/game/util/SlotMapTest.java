@@ -0,0 +1,107 @@
+package toilari.otlite.game.util;
+
+import lombok.val;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SlotMapTest {
+    @Test
+    void getReturnsInsertedValue() {
+        val map = new SlotMap<String>();
+        val handle = map.insert("foo");
+
+        assertEquals("foo", map.get(handle));
+        assertTrue(map.contains(handle));
+    }
+
+    @Test
+    void nullHandleIsNeverValid() {
+        val map = new SlotMap<String>();
+        map.insert("foo");
+
+        assertNull(map.get(SlotMap.NULL_HANDLE));
+        assertFalse(map.contains(SlotMap.NULL_HANDLE));
+    }
+
+    @Test
+    @SuppressWarnings("ConstantConditions")
+    void insertingNullThrows() {
+        assertThrows(NullPointerException.class, () -> new SlotMap<String>().insert(null));
+    }
+
+    @Test
+    void removeReturnsRemovedValueAndInvalidatesHandle() {
+        val map = new SlotMap<String>();
+        val handle = map.insert("foo");
+
+        assertEquals("foo", map.remove(handle));
+        assertNull(map.get(handle));
+        assertNull(map.remove(handle));
+        assertEquals(0, map.size());
+    }
+
+    @Test
+    void staleHandlesAreDetectedWhenSlotIsReused() {
+        val map = new SlotMap<String>();
+        val stale = map.insert("foo");
+        map.remove(stale);
+        val fresh = map.insert("bar");
+
+        assertNotEquals(stale, fresh);
+        assertNull(map.get(stale));
+        assertEquals("bar", map.get(fresh));
+    }
+
+    @Test
+    void clearInvalidatesAllHandles() {
+        val map = new SlotMap<String>();
+        val a = map.insert("a");
+        val b = map.insert("b");
+        map.clear();
+
+        assertTrue(map.isEmpty());
+        assertFalse(map.contains(a));
+        assertFalse(map.contains(b));
+    }
+
+    @Test
+    void iterationVisitsAllRemainingValuesAfterRemovals() {
+        val map = new SlotMap<Integer>();
+        val handles = new ArrayList<Long>();
+        for (int i = 0; i < 1000; i++) {
+            handles.add(map.insert(i));
+        }
+
+        for (int i = 0; i < 1000; i += 3) {
+            map.remove(handles.get(i));
+        }
+
+        val remaining = new HashSet<Integer>();
+        for (val value : map) {
+            remaining.add(value);
+        }
+
+        assertEquals(map.size(), remaining.size());
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i % 3 != 0, remaining.contains(i));
+            assertEquals(i % 3 != 0, map.contains(handles.get(i)));
+        }
+    }
+
+    @Test
+    void listViewReflectsChanges() {
+        val map = new SlotMap<String>();
+        val list = map.asList();
+        val handle = map.insert("foo");
+        assertEquals(1, list.size());
+        assertEquals("foo", list.get(0));
+
+        map.remove(handle);
+        assertTrue(list.isEmpty());
+        assertThrows(UnsupportedOperationException.class, () -> list.add("bar"));
+    }
+}
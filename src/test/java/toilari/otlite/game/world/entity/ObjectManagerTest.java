@@ -2,12 +2,21 @@ package toilari.otlite.game.world.entity;
 
 import lombok.val;
 import org.junit.jupiter.api.Test;
+import toilari.otlite.fake.FakeCharacterObject;
 import toilari.otlite.fake.FakeWorld;
 import toilari.otlite.game.GameState;
+import toilari.otlite.game.util.AreaShape;
+import toilari.otlite.game.world.World;
 import toilari.otlite.game.world.entities.GameObject;
 import toilari.otlite.game.world.entities.ObjectManager;
+import toilari.otlite.game.world.entities.characters.CharacterObject;
+import toilari.otlite.game.world.level.Level;
+import toilari.otlite.game.world.level.NormalTile;
+import toilari.otlite.game.world.level.TileMapping;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -84,6 +93,30 @@ class ObjectManagerTest {
         }
     }
 
+    @Test
+    void getObjectReturnsObjectByHandle() {
+        val world = FakeWorld.create();
+
+        val obj = new TestGameObject();
+        world.getObjectManager().spawn(obj);
+
+        assertEquals(obj, world.getObjectManager().getObject(obj.getHandle()));
+    }
+
+    @Test
+    void handlesOfDeletedObjectsAreDetectedAsStale() {
+        val world = FakeWorld.create();
+
+        val obj = new TestGameObject();
+        world.getObjectManager().spawn(obj);
+        val handle = obj.getHandle();
+        obj.remove();
+        world.update(1.0f);
+        world.getObjectManager().spawn(new TestGameObject());
+
+        assertNull(world.getObjectManager().getObject(handle));
+    }
+
     @Test
     @SuppressWarnings("ConstantConditions")
     void spawnThrowsIfObjectIsNull() {
@@ -117,6 +150,211 @@ class ObjectManagerTest {
         assertEquals(state, manager.getGameState());
     }
 
+    @Test
+    void getObjectAtFindsSpawnedObject() {
+        val world = FakeWorld.createWithLevel(createLevel());
+
+        val obj = new TestGameObject();
+        obj.setTilePos(2, 3);
+        world.getObjectManager().spawn(obj);
+
+        assertEquals(obj, world.getObjectManager().getObjectAt(2, 3));
+    }
+
+    @Test
+    void getObjectAtFindsObjectAfterItHasMoved() {
+        val world = FakeWorld.createWithLevel(createLevel());
+
+        val obj = new TestGameObject();
+        obj.setTilePos(2, 3);
+        world.getObjectManager().spawn(obj);
+        obj.setTilePos(5, 1);
+
+        assertNull(world.getObjectManager().getObjectAt(2, 3));
+        assertEquals(obj, world.getObjectManager().getObjectAt(5, 1));
+    }
+
+    @Test
+    void getObjectAtFindsObjectsOutsideLevelBounds() {
+        val world = FakeWorld.createWithLevel(createLevel());
+
+        val obj = new TestGameObject();
+        obj.setTilePos(42, 3);
+        world.getObjectManager().spawn(obj);
+
+        assertEquals(obj, world.getObjectManager().getObjectAt(42, 3));
+    }
+
+    @Test
+    void getObjectAtDoesNotFindRemovedObjectsAfterNextUpdate() {
+        val world = FakeWorld.createWithLevel(createLevel());
+
+        val obj = new TestGameObject();
+        obj.setTilePos(2, 3);
+        world.getObjectManager().spawn(obj);
+        obj.remove();
+        world.update(1.0f);
+
+        assertNull(world.getObjectManager().getObjectAt(2, 3));
+    }
+
+    @Test
+    void getObjectAtPrefersObjectsNotFlaggedAsRemoved() {
+        val world = FakeWorld.createWithLevel(createLevel());
+
+        val removed = new TestGameObject();
+        removed.setTilePos(2, 3);
+        world.getObjectManager().spawn(removed);
+        removed.remove();
+
+        val obj = new TestGameObject();
+        obj.setTilePos(2, 3);
+        world.getObjectManager().spawn(obj);
+
+        assertEquals(obj, world.getObjectManager().getObjectAt(2, 3));
+    }
+
+    @Test
+    void getObjectAtFindsObjectsSpawnedBeforeLevelChange() {
+        val world = FakeWorld.create();
+        val player = FakeCharacterObject.createAt(2, 3);
+        world.getObjectManager().setPlayer(player);
+        world.getObjectManager().spawn(player);
+
+        world.changeLevel(createLevel());
+
+        assertEquals(player, world.getObjectManager().getObjectAt(2, 3));
+    }
+
+    @Test
+    void getObjectsInRangeFindsObjectsWithinSquare() {
+        val world = FakeWorld.createWithLevel(createLevel());
+        val inside = spawnAt(world, 3, 3);
+        val corner = spawnAt(world, 5, 5);
+        spawnAt(world, 6, 3);
+
+        val found = world.getObjectsInRange(4, 4, 1, AreaShape.SQUARE);
+
+        assertEquals(Arrays.asList(inside, corner), found);
+    }
+
+    @Test
+    void getObjectsInRangeRespectsManhattanShape() {
+        val world = FakeWorld.createWithLevel(createLevel());
+        val adjacent = spawnAt(world, 4, 3);
+        spawnAt(world, 5, 5);
+
+        val found = world.getObjectsInRange(4, 4, 1, AreaShape.MANHATTAN);
+
+        assertEquals(Collections.singletonList(adjacent), found);
+    }
+
+    @Test
+    void getObjectsInRangeFiltersByType() {
+        val world = FakeWorld.createWithLevel(createLevel());
+        spawnAt(world, 3, 3);
+        val character = FakeCharacterObject.createAt(4, 3);
+        world.getObjectManager().spawn(character);
+
+        val found = world.getObjectsInRange(4, 4, 2, AreaShape.SQUARE, CharacterObject.class);
+
+        assertEquals(Collections.singletonList(character), found);
+    }
+
+    @Test
+    void getObjectsInRangeDoesNotFindRemovedObjects() {
+        val world = FakeWorld.createWithLevel(createLevel());
+        spawnAt(world, 3, 3).remove();
+
+        assertTrue(world.getObjectsInRange(4, 4, 2, AreaShape.SQUARE).isEmpty());
+    }
+
+    @Test
+    void getObjectsInRangeFindsSameObjectsWhenAreaIsLargerThanPopulation() {
+        val world = FakeWorld.createWithLevel(createLevel());
+        val a = spawnAt(world, 1, 6);
+        val b = spawnAt(world, 1, 2);
+        val c = spawnAt(world, 20, 2);
+
+        val found = world.getObjectsInRange(4, 4, 100, AreaShape.SQUARE);
+
+        assertEquals(Arrays.asList(b, a, c), found);
+    }
+
+    @Test
+    void getObjectsInRectFindsObjectsInsideRectInclusive() {
+        val world = FakeWorld.createWithLevel(createLevel());
+        val topLeft = spawnAt(world, 2, 1);
+        val bottomRight = spawnAt(world, 5, 3);
+        spawnAt(world, 6, 3);
+        spawnAt(world, 2, 4);
+        spawnFillerObjects(world);
+
+        val found = new ArrayList<GameObject>();
+        world.getObjectManager().getObjectsInRect(2, 1, 5, 3, GameObject.class, found);
+
+        assertEquals(2, found.size());
+        assertTrue(found.containsAll(Arrays.asList(topLeft, bottomRight)));
+    }
+
+    @Test
+    void getObjectsInRectDoesNotFindRemovedObjects() {
+        val world = FakeWorld.createWithLevel(createLevel());
+        spawnAt(world, 3, 3).remove();
+
+        val found = new ArrayList<GameObject>();
+        world.getObjectManager().getObjectsInRect(0, 0, 7, 7, GameObject.class, found);
+
+        assertTrue(found.isEmpty());
+    }
+
+    @Test
+    void getObjectsInRectFindsObjectsOutsideTheLevel() {
+        val world = FakeWorld.createWithLevel(createLevel());
+        val outside = spawnAt(world, 20, 2);
+        spawnAt(world, 30, 2);
+        spawnFillerObjects(world);
+
+        val found = new ArrayList<GameObject>();
+        world.getObjectManager().getObjectsInRect(19, 0, 21, 1, GameObject.class, found);
+        world.getObjectManager().getObjectsInRect(19, 2, 21, 2, GameObject.class, found);
+
+        assertEquals(Collections.singletonList(outside), found);
+    }
+
+    @Test
+    void getObjectsInRectFindsSameObjectsWhenAreaIsLargerThanPopulation() {
+        val world = FakeWorld.createWithLevel(createLevel());
+        val a = spawnAt(world, 1, 6);
+        val b = spawnAt(world, 1, 2);
+        val c = spawnAt(world, 20, 2);
+
+        val found = new ArrayList<GameObject>();
+        world.getObjectManager().getObjectsInRect(-100, -100, 100, 100, GameObject.class, found);
+
+        assertEquals(3, found.size());
+        assertTrue(found.containsAll(Arrays.asList(a, b, c)));
+    }
+
+    private static void spawnFillerObjects(World world) {
+        // Enough objects that small rectangles are looked up from the occupancy grid instead of a linear scan
+        for (int i = 0; i < 16; i++) {
+            spawnAt(world, i % 8, 7);
+        }
+    }
+
+    private static GameObject spawnAt(World world, int x, int y) {
+        val obj = new TestGameObject();
+        obj.setTilePos(x, y);
+        world.getObjectManager().spawn(obj);
+        return obj;
+    }
+
+    private static Level createLevel() {
+        val tileMappings = new TileMapping(() -> Collections.singletonList(new NormalTile(false, false, 0, "floor")));
+        return new Level(8, 8, tileMappings, new byte[8 * 8]);
+    }
+
     private static class TestGameObject extends GameObject {
         private boolean called;
 
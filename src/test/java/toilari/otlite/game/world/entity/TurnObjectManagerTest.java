@@ -2,11 +2,14 @@ package toilari.otlite.game.world.entity;
 
 import lombok.val;
 import org.junit.jupiter.api.Test;
+import toilari.otlite.fake.AbilityEntry;
 import toilari.otlite.fake.FakeCharacterObject;
 import toilari.otlite.fake.FakeWorld;
 import toilari.otlite.game.world.entities.TurnObjectManager;
 import toilari.otlite.game.world.entities.characters.CharacterAttributes;
 import toilari.otlite.game.world.entities.characters.CharacterObject;
+import toilari.otlite.game.world.entities.characters.abilities.EndTurnAbility;
+import toilari.otlite.game.world.entities.characters.abilities.components.PerformIfNothingElseToDoEndTurnControllerComponent;
 
 import java.util.Random;
 
@@ -309,4 +312,72 @@ class TurnObjectManagerTest {
 
         assertTrue(world.getObjectManager().isCharactersTurn(b));
     }
+
+    @Test
+    void updateResolvesAllNonPlayerTurnsWhenBatchingIsEnabled() {
+        val world = FakeWorld.create();
+        val manager = world.getObjectManager();
+        manager.setTurnBatchBudgetNanos(Long.MAX_VALUE / 2);
+
+        val player = FakeCharacterObject.create();
+        manager.setPlayer(player);
+        manager.spawn(player);
+        for (int i = 0; i < 10; i++) {
+            manager.spawn(createCharacterWhichEndsTurns());
+        }
+
+        manager.nextTurn();
+        manager.update(1.0f);
+
+        assertTrue(manager.isCharactersTurn(player));
+    }
+
+    @Test
+    void updateResolvesOnlyOneStepWhenBatchingIsDisabled() {
+        val world = FakeWorld.create();
+        val manager = world.getObjectManager();
+
+        val player = FakeCharacterObject.create();
+        manager.setPlayer(player);
+        manager.spawn(player);
+        for (int i = 0; i < 10; i++) {
+            manager.spawn(createCharacterWhichEndsTurns());
+        }
+
+        manager.nextTurn();
+        manager.update(1.0f);
+
+        assertFalse(manager.isCharactersTurn(player));
+    }
+
+    @Test
+    void playerTurnIsNotHandedBackWithinTheUpdateInWhichPlayerEndsTheirTurn() {
+        val world = FakeWorld.create();
+        val manager = world.getObjectManager();
+        manager.setTurnBatchBudgetNanos(Long.MAX_VALUE / 2);
+
+        val player = createCharacterWhichEndsTurns();
+        manager.setPlayer(player);
+        manager.spawn(player);
+        manager.spawn(createCharacterWhichEndsTurns());
+        assertTrue(manager.isCharactersTurn(player));
+
+        for (int i = 0; i < 10 && manager.isCharactersTurn(player); i++) {
+            val turnBefore = manager.getTotalTurn();
+            manager.update(1.0f);
+            if (manager.getTotalTurn() != turnBefore) {
+                assertFalse(manager.isCharactersTurn(player));
+            }
+        }
+
+        assertFalse(manager.isCharactersTurn(player));
+        manager.update(1.0f);
+        assertTrue(manager.isCharactersTurn(player));
+    }
+
+    private static CharacterObject createCharacterWhichEndsTurns() {
+        return FakeCharacterObject.createWithAbilities(
+            new AbilityEntry<>(0, new EndTurnAbility(), new PerformIfNothingElseToDoEndTurnControllerComponent())
+        );
+    }
 }
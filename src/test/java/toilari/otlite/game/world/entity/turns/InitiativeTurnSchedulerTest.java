@@ -0,0 +1,136 @@
+package toilari.otlite.game.world.entity.turns;
+
+import lombok.val;
+import org.junit.jupiter.api.Test;
+import toilari.otlite.fake.FakeCharacterObject;
+import toilari.otlite.fake.FakeWorld;
+import toilari.otlite.game.world.entities.TurnObjectManager;
+import toilari.otlite.game.world.entities.characters.CharacterObject;
+import toilari.otlite.game.world.entities.turns.InitiativeTurnScheduler;
+
+import java.util.HashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InitiativeTurnSchedulerTest {
+    @Test
+    void charactersWithEqualSpeedTakeTurnsInTheOrderTheyAreAdded() {
+        val scheduler = new InitiativeTurnScheduler(c -> 1);
+        val a = FakeCharacterObject.create();
+        val b = FakeCharacterObject.create();
+        val c = FakeCharacterObject.create();
+        scheduler.add(a);
+        scheduler.add(b);
+        scheduler.add(c);
+
+        for (int i = 0; i < 100; i++) {
+            assertEquals(a, scheduler.getActive());
+            scheduler.advance();
+            assertEquals(b, scheduler.getActive());
+            scheduler.advance();
+            assertEquals(c, scheduler.getActive());
+            scheduler.advance();
+        }
+    }
+
+    @Test
+    void fasterCharactersGetMoreTurns() {
+        val fast = FakeCharacterObject.create();
+        val slow = FakeCharacterObject.create();
+        val scheduler = new InitiativeTurnScheduler(c -> c == fast ? 3 : 1);
+        scheduler.add(slow);
+        scheduler.add(fast);
+
+        val turns = new HashMap<CharacterObject, Integer>();
+        for (int i = 0; i < 400; i++) {
+            turns.merge(scheduler.getActive(), 1, Integer::sum);
+            scheduler.advance();
+        }
+
+        assertEquals(300, turns.get(fast), 1);
+        assertEquals(100, turns.get(slow), 1);
+    }
+
+    @Test
+    void removedCharactersAreSkipped() {
+        val world = FakeWorld.create();
+        val scheduler = new InitiativeTurnScheduler(c -> 1);
+        val a = FakeCharacterObject.create();
+        val b = FakeCharacterObject.create();
+        val c = FakeCharacterObject.create();
+        world.getObjectManager().spawn(a);
+        world.getObjectManager().spawn(b);
+        world.getObjectManager().spawn(c);
+        scheduler.add(a);
+        scheduler.add(b);
+        scheduler.add(c);
+
+        b.remove();
+        scheduler.advance();
+
+        assertEquals(c, scheduler.getActive());
+    }
+
+    @Test
+    void removingActiveCharacterActivatesNextCharacter() {
+        val scheduler = new InitiativeTurnScheduler(c -> 1);
+        val a = FakeCharacterObject.create();
+        val b = FakeCharacterObject.create();
+        scheduler.add(a);
+        scheduler.add(b);
+
+        scheduler.remove(a);
+
+        assertEquals(b, scheduler.getActive());
+    }
+
+    @Test
+    void removingLastCharacterEmptiesTheScheduler() {
+        val scheduler = new InitiativeTurnScheduler(c -> 1);
+        val a = FakeCharacterObject.create();
+        scheduler.add(a);
+
+        scheduler.remove(a);
+
+        assertTrue(scheduler.isEmpty());
+        assertNull(scheduler.getActive());
+    }
+
+    @Test
+    void massRemovalKeepsRemainingOrder() {
+        val scheduler = new InitiativeTurnScheduler(c -> 1);
+        val characters = new CharacterObject[1000];
+        for (int i = 0; i < characters.length; i++) {
+            characters[i] = FakeCharacterObject.create();
+            scheduler.add(characters[i]);
+        }
+
+        for (int i = 1; i < characters.length; i += 2) {
+            scheduler.remove(characters[i]);
+        }
+
+        for (int i = 0; i < characters.length; i += 2) {
+            assertEquals(characters[i], scheduler.getActive());
+            scheduler.advance();
+        }
+        assertEquals(characters[0], scheduler.getActive());
+    }
+
+    @Test
+    void turnObjectManagerUsesGivenScheduler() {
+        val manager = new TurnObjectManager(new InitiativeTurnScheduler(c -> c.getAttributes().getActionPoints()));
+        val world = FakeWorld.create();
+        manager.init(world);
+
+        val a = FakeCharacterObject.create();
+        val b = FakeCharacterObject.create();
+        manager.spawn(a);
+        manager.spawn(b);
+
+        assertTrue(manager.isCharactersTurn(a));
+        manager.nextTurn();
+        assertTrue(manager.isCharactersTurn(b));
+        manager.nextTurn();
+        assertTrue(manager.isCharactersTurn(a));
+    }
+}
@@ -0,0 +1,219 @@
+package toilari.otlite.game.world.entity.turns;
+
+import lombok.val;
+import org.junit.jupiter.api.Test;
+import toilari.otlite.fake.FakeCharacterObject;
+import toilari.otlite.fake.FakeWorld;
+import toilari.otlite.game.world.entities.turns.RoundRobinTurnScheduler;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RoundRobinTurnSchedulerTest {
+    @Test
+    void emptySchedulerHasNoActiveCharacter() {
+        val scheduler = new RoundRobinTurnScheduler();
+        scheduler.advance();
+
+        assertTrue(scheduler.isEmpty());
+        assertNull(scheduler.getActive());
+    }
+
+    @Test
+    void firstAddedCharacterBecomesActive() {
+        val scheduler = new RoundRobinTurnScheduler();
+        val a = FakeCharacterObject.create();
+        scheduler.add(a);
+
+        assertFalse(scheduler.isEmpty());
+        assertEquals(a, scheduler.getActive());
+    }
+
+    @Test
+    void onlyCharacterGetsTurnsInfinitely() {
+        val scheduler = new RoundRobinTurnScheduler();
+        val a = FakeCharacterObject.create();
+        scheduler.add(a);
+
+        for (int i = 0; i < 100; i++) {
+            scheduler.advance();
+            assertEquals(a, scheduler.getActive());
+        }
+    }
+
+    @Test
+    void turnsWrapAroundInTheOrderCharactersAreAdded() {
+        val scheduler = new RoundRobinTurnScheduler();
+        val a = FakeCharacterObject.create();
+        val b = FakeCharacterObject.create();
+        val c = FakeCharacterObject.create();
+        scheduler.add(a);
+        scheduler.add(b);
+        scheduler.add(c);
+
+        for (int i = 0; i < 100; i++) {
+            assertEquals(a, scheduler.getActive());
+            scheduler.advance();
+            assertEquals(b, scheduler.getActive());
+            scheduler.advance();
+            assertEquals(c, scheduler.getActive());
+            scheduler.advance();
+        }
+    }
+
+    @Test
+    void addingSameCharacterTwiceDoesNothing() {
+        val scheduler = new RoundRobinTurnScheduler();
+        val a = FakeCharacterObject.create();
+        val b = FakeCharacterObject.create();
+        scheduler.add(a);
+        scheduler.add(b);
+        scheduler.add(b);
+
+        scheduler.advance();
+        assertEquals(b, scheduler.getActive());
+        scheduler.advance();
+        assertEquals(a, scheduler.getActive());
+    }
+
+    @Test
+    void characterAddedMidRoundIsInsertedJustBeforeTheActiveCharacter() {
+        val scheduler = new RoundRobinTurnScheduler();
+        val a = FakeCharacterObject.create();
+        val b = FakeCharacterObject.create();
+        val c = FakeCharacterObject.create();
+        scheduler.add(a);
+        scheduler.add(b);
+        scheduler.advance();
+
+        scheduler.add(c);
+
+        assertEquals(b, scheduler.getActive());
+        scheduler.advance();
+        assertEquals(a, scheduler.getActive());
+        scheduler.advance();
+        assertEquals(c, scheduler.getActive());
+        scheduler.advance();
+        assertEquals(b, scheduler.getActive());
+    }
+
+    @Test
+    void removingActiveCharacterActivatesNextCharacter() {
+        val scheduler = new RoundRobinTurnScheduler();
+        val a = FakeCharacterObject.create();
+        val b = FakeCharacterObject.create();
+        val c = FakeCharacterObject.create();
+        scheduler.add(a);
+        scheduler.add(b);
+        scheduler.add(c);
+        scheduler.advance();
+
+        scheduler.remove(b);
+
+        assertEquals(c, scheduler.getActive());
+        scheduler.advance();
+        assertEquals(a, scheduler.getActive());
+        scheduler.advance();
+        assertEquals(c, scheduler.getActive());
+    }
+
+    @Test
+    void removingActiveCharacterAtEndOfRoundWrapsAround() {
+        val scheduler = new RoundRobinTurnScheduler();
+        val a = FakeCharacterObject.create();
+        val b = FakeCharacterObject.create();
+        scheduler.add(a);
+        scheduler.add(b);
+        scheduler.advance();
+
+        scheduler.remove(b);
+
+        assertEquals(a, scheduler.getActive());
+        scheduler.advance();
+        assertEquals(a, scheduler.getActive());
+    }
+
+    @Test
+    void removingInactiveCharacterDoesNotChangeActiveCharacter() {
+        val scheduler = new RoundRobinTurnScheduler();
+        val a = FakeCharacterObject.create();
+        val b = FakeCharacterObject.create();
+        val c = FakeCharacterObject.create();
+        scheduler.add(a);
+        scheduler.add(b);
+        scheduler.add(c);
+
+        scheduler.remove(b);
+
+        assertEquals(a, scheduler.getActive());
+        scheduler.advance();
+        assertEquals(c, scheduler.getActive());
+    }
+
+    @Test
+    void removingLastCharacterEmptiesTheScheduler() {
+        val scheduler = new RoundRobinTurnScheduler();
+        val a = FakeCharacterObject.create();
+        scheduler.add(a);
+
+        scheduler.remove(a);
+
+        assertTrue(scheduler.isEmpty());
+        assertNull(scheduler.getActive());
+    }
+
+    @Test
+    void removedCharactersAreSkipped() {
+        val world = FakeWorld.create();
+        val scheduler = new RoundRobinTurnScheduler();
+        val a = FakeCharacterObject.create();
+        val b = FakeCharacterObject.create();
+        val c = FakeCharacterObject.create();
+        world.getObjectManager().spawn(a);
+        world.getObjectManager().spawn(b);
+        world.getObjectManager().spawn(c);
+        scheduler.add(a);
+        scheduler.add(b);
+        scheduler.add(c);
+
+        b.remove();
+        scheduler.advance();
+
+        assertEquals(c, scheduler.getActive());
+        scheduler.advance();
+        assertEquals(a, scheduler.getActive());
+    }
+
+    @Test
+    void removingActiveCharacterSkipsFollowingRemovedCharacters() {
+        val world = FakeWorld.create();
+        val scheduler = new RoundRobinTurnScheduler();
+        val a = FakeCharacterObject.create();
+        val b = FakeCharacterObject.create();
+        val c = FakeCharacterObject.create();
+        world.getObjectManager().spawn(a);
+        world.getObjectManager().spawn(b);
+        world.getObjectManager().spawn(c);
+        scheduler.add(a);
+        scheduler.add(b);
+        scheduler.add(c);
+
+        b.remove();
+        scheduler.remove(a);
+
+        assertEquals(c, scheduler.getActive());
+        scheduler.advance();
+        assertEquals(c, scheduler.getActive());
+    }
+
+    @Test
+    void clearEmptiesTheScheduler() {
+        val scheduler = new RoundRobinTurnScheduler();
+        scheduler.add(FakeCharacterObject.create());
+        scheduler.add(FakeCharacterObject.create());
+
+        scheduler.clear();
+
+        assertTrue(scheduler.isEmpty());
+        assertNull(scheduler.getActive());
+    }
+}
@@ -0,0 +1,74 @@
+package toilari.otlite.game.world.level;
+
+import lombok.val;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LevelTest {
+    private static final Tile WALL = new NormalTile(true, false, 0, "wall");
+    private static final Tile FLOOR = new NormalTile(false, false, 1, "floor");
+    private static final Tile HOLE = new NormalTile(false, true, 2, "hole");
+
+    @Test
+    void getTileAtReturnsMappedTiles() {
+        val level = createLevel();
+
+        assertEquals(WALL, level.getTileAt(0, 0));
+        assertEquals(FLOOR, level.getTileAt(1, 1));
+        assertEquals(HOLE, level.getTileAt(2, 1));
+    }
+
+    @Test
+    void isWallAndIsDangerousMatchTileTypes() {
+        val level = createLevel();
+
+        for (int y = 0; y < level.getHeight(); y++) {
+            for (int x = 0; x < level.getWidth(); x++) {
+                assertEquals(level.getTileAt(x, y).isWall(), level.isWall(x, y));
+                assertEquals(level.getTileAt(x, y).isDangerous(), level.isDangerous(x, y));
+            }
+        }
+    }
+
+    @Test
+    void coordinatesOutOfBoundsAreWallsAndDangerous() {
+        val level = createLevel();
+
+        assertTrue(level.isWall(-1, 0));
+        assertTrue(level.isWall(0, 100));
+        assertTrue(level.isDangerous(100, 0));
+        assertTrue(level.isDangerous(0, -1));
+    }
+
+    @Test
+    void unknownTileIndicesAreTreatedAsWalkable() {
+        val mapping = new TileMapping(() -> Arrays.asList(WALL, FLOOR));
+        val level = new Level(1, 1, mapping, new byte[]{(byte) 200});
+
+        assertNotNull(level.getTileAt(0, 0));
+        assertFalse(level.isWall(0, 0));
+        assertFalse(level.isDangerous(0, 0));
+    }
+
+    private static Level createLevel() {
+        val mapping = new TileMapping(() -> Arrays.asList(WALL, FLOOR, HOLE));
+        val w = mapping.getIndex("wall");
+        val f = mapping.getIndex("floor");
+        val h = mapping.getIndex("hole");
+
+        // Width of 9 makes the level span multiple 64-bit words
+        return new Level(9, 8, mapping, new byte[]{
+            w, w, w, w, w, w, w, w, w,
+            w, f, h, f, f, f, f, f, w,
+            w, f, h, f, w, f, f, f, w,
+            w, f, f, f, w, f, h, f, w,
+            w, f, f, f, w, f, h, f, w,
+            w, h, h, f, f, f, f, f, w,
+            w, f, f, f, f, f, f, h, w,
+            w, w, w, w, w, w, w, w, w,
+        });
+    }
+}
@@ -0,0 +1,113 @@
+package toilari.otlite.game.world.pathing;
+
+import lombok.val;
+import org.junit.jupiter.api.Test;
+import toilari.otlite.game.world.level.Level;
+import toilari.otlite.game.world.level.NormalTile;
+import toilari.otlite.game.world.level.Tile;
+import toilari.otlite.game.world.level.TileMapping;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FlowFieldTest {
+    @Test
+    void getDistanceReturnsUnreachableBeforeUpdate() {
+        val field = new FlowField();
+        assertEquals(FlowField.UNREACHABLE, field.getDistance(1, 1));
+    }
+
+    @Test
+    void getDistanceReturnsZeroAtTarget() {
+        val field = new FlowField();
+        field.update(createLevel(), 1, 1);
+        assertEquals(0, field.getDistance(1, 1));
+    }
+
+    @Test
+    void getDistanceReturnsUnreachableOutOfBounds() {
+        val field = new FlowField();
+        field.update(createLevel(), 1, 1);
+        assertEquals(FlowField.UNREACHABLE, field.getDistance(-1, 1));
+        assertEquals(FlowField.UNREACHABLE, field.getDistance(1, 8));
+    }
+
+    @Test
+    void getDistanceReturnsUnreachableForWalls() {
+        val field = new FlowField();
+        field.update(createLevel(), 1, 1);
+        assertEquals(FlowField.UNREACHABLE, field.getDistance(0, 1));
+        assertEquals(FlowField.UNREACHABLE, field.getDistance(4, 2));
+    }
+
+    @Test
+    void getDistanceReturnsUnreachableForDangerousTiles() {
+        val field = new FlowField();
+        field.update(createLevel(), 1, 1);
+        assertEquals(FlowField.UNREACHABLE, field.getDistance(1, 3));
+        assertEquals(FlowField.UNREACHABLE, field.getDistance(3, 5));
+    }
+
+    @Test
+    void getDistanceReturnsStepCountOnStraightPath() {
+        val field = new FlowField();
+        field.update(createLevel(), 1, 1);
+        assertEquals(5, field.getDistance(6, 1));
+        assertEquals(3, field.getDistance(3, 2));
+    }
+
+    @Test
+    void getDistanceRoutesAroundWallsAndHoles() {
+        val field = new FlowField();
+        field.update(createLevel(), 1, 1);
+
+        // Holes at (1,3) and (2,3) block the direct route down, path goes around through (3,3)
+        assertEquals(6, field.getDistance(2, 4));
+    }
+
+    @Test
+    void getDistanceReturnsUnreachableForEnclosedTiles() {
+        val field = new FlowField();
+        field.update(createLevel(), 1, 1);
+        assertEquals(FlowField.UNREACHABLE, field.getDistance(0, 0));
+        assertEquals(FlowField.UNREACHABLE, field.getDistance(7, 7));
+    }
+
+    @Test
+    void updateRebuildsWhenTargetChanges() {
+        val field = new FlowField();
+        val level = createLevel();
+        field.update(level, 1, 1);
+        field.update(level, 6, 1);
+
+        assertEquals(6, field.getTargetX());
+        assertEquals(1, field.getTargetY());
+        assertEquals(0, field.getDistance(6, 1));
+        assertEquals(5, field.getDistance(1, 1));
+    }
+
+    private static Level createLevel() {
+        val tileMappings = new TileMapping(() -> Arrays.asList(new Tile[]{
+            new NormalTile(true, false, 0, "wall"),
+            new NormalTile(false, false, 1, "floor"),
+            new NormalTile(false, true, 2, "hole"),
+        }));
+
+        val w = tileMappings.getIndex("wall");
+        val f = tileMappings.getIndex("floor");
+        val h = tileMappings.getIndex("hole");
+
+        val indices = new byte[]{
+            f, w, w, w, w, w, w, w,
+            w, f, f, f, f, f, f, w,
+            w, f, f, f, w, w, f, w,
+            w, h, h, f, f, f, w, w,
+            w, h, f, f, f, f, f, w,
+            w, f, f, h, h, f, f, w,
+            w, f, f, f, f, f, f, w,
+            w, w, w, w, w, w, w, f};
+
+        return new Level(8, 8, tileMappings, indices);
+    }
+}
@@ -0,0 +1,103 @@
+package toilari.otlite.view.headless;
+
+import lombok.val;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import toilari.otlite.dao.CharacterDAO;
+import toilari.otlite.dao.LevelDAO;
+import toilari.otlite.dao.PlayerStatisticDAO;
+import toilari.otlite.dao.ProfileDAO;
+import toilari.otlite.dao.SettingsDAO;
+import toilari.otlite.dao.TileDAO;
+import toilari.otlite.dao.database.Database;
+import toilari.otlite.dao.util.FileHelper;
+import toilari.otlite.game.Game;
+import toilari.otlite.game.ProfileSelectGameState;
+import toilari.otlite.game.input.Key;
+import toilari.otlite.game.profile.statistics.StatisticsManager;
+import toilari.otlite.game.world.entities.TurnObjectManager;
+
+import java.nio.file.Paths;
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HeadlessGameRunnerTest {
+    @AfterEach
+    void afterEach() {
+        FileHelper.deleteDirectoryAndChildren(Paths.get("target/test-temp"));
+    }
+
+    @Test
+    void runStopsAfterMaxTicks() throws SQLException {
+        val runner = new HeadlessGameRunner(createGame(), ScriptedInputHandler.randomWalk(1337), "headless", 1337);
+        runner.setMaxTicks(500);
+        runner.run();
+
+        assertFalse(runner.getGame().isRunning());
+        assertEquals(500, runner.getStatistics().getTicks());
+    }
+
+    @Test
+    void runSkipsMenusAndPlaysTheGame() throws SQLException {
+        val runner = new HeadlessGameRunner(createGame(), ScriptedInputHandler.randomWalk(1337), "headless", 1337);
+        runner.setMaxTicks(5000);
+        runner.run();
+
+        assertTrue(runner.getStatistics().getGames() >= 1);
+        assertTrue(runner.getStatistics().getTurns() > 0);
+        assertTrue(runner.getStatistics().getTurnsPerSecond() > 0.0);
+    }
+
+    @Test
+    void runDoesNotStartMoreThanMaxGames() throws SQLException {
+        val runner = new HeadlessGameRunner(createGame(), ScriptedInputHandler.randomWalk(1337), "headless", 1337);
+        runner.setMaxGames(1);
+        runner.setMaxTicks(3000);
+        runner.run();
+
+        assertFalse(runner.getGame().isRunning());
+        assertEquals(1, runner.getStatistics().getGames());
+    }
+
+    @Test
+    void scriptedInputRegistersPressOnlyOnFirstTick() {
+        val input = new ScriptedInputHandler(tick -> tick < 2 ? new Key[]{Key.SPACE} : null);
+        input.update();
+        assertTrue(input.isKeyPressed(Key.SPACE));
+        input.update();
+        assertFalse(input.isKeyPressed(Key.SPACE));
+        assertTrue(input.isKeyDown(Key.SPACE));
+        input.update();
+        assertFalse(input.isKeyDown(Key.SPACE));
+    }
+
+    @Test
+    void existingProfileIsReused() throws SQLException {
+        val first = new HeadlessGameRunner(createGame(), ScriptedInputHandler.randomWalk(1), "headless", 1);
+        first.setMaxTicks(10);
+        first.run();
+
+        val second = new HeadlessGameRunner(createGame(), ScriptedInputHandler.randomWalk(2), "headless", 2);
+        second.setMaxTicks(10);
+        second.run();
+
+        assertEquals(1, new ProfileDAO(new Database("target/test-temp/profiles.db"), new SettingsDAO("target/test-temp/")).findAll().size());
+        assertTrue(second.getStatistics().getGames() >= 1);
+    }
+
+    private static Game createGame() throws SQLException {
+        val database = new Database("target/test-temp/profiles.db");
+        val profiles = new ProfileDAO(database, new SettingsDAO("target/test-temp/"));
+        val statistics = new StatisticsManager(new PlayerStatisticDAO(database));
+        return new Game(
+            new ProfileSelectGameState(),
+            "1",
+            new TileDAO("content/tiles/"),
+            new CharacterDAO("content/characters/"),
+            new LevelDAO("content/levels/"),
+            profiles,
+            statistics,
+            TurnObjectManager::new);
+    }
+}
@@ -0,0 +1,68 @@
+package toilari.otlite.view.lwjgl;
+
+import lombok.val;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testaa CachedText- ja TextRenderer-luokkien merkkijonojen käsittelyä.
+ */
+class CachedTextTest {
+    @Test
+    void constructorThrowsIfFormatIsNull() {
+        assertThrows(NullPointerException.class, () -> new CachedText(null));
+    }
+
+    @Test
+    void getFormatsIntegerValues() {
+        val text = new CachedText("Floor: %d Turn: %d");
+        assertEquals("Floor: 1 Turn: 42", text.get(1, 42));
+    }
+
+    @Test
+    void getFormatsDecimalValues() {
+        val text = new CachedText("%.1f/%.1f");
+        assertEquals(String.format("%.1f/%.1f", 2.5f, 10.0f), text.get(2.5f, 10.0f));
+    }
+
+    @Test
+    void getReturnsSameInstanceWhileValuesDoNotChange() {
+        val text = new CachedText("Level: %d\nXP: %d/%d");
+        val first = text.get(1, 2, 3);
+        assertSame(first, text.get(1, 2, 3));
+    }
+
+    @Test
+    void getRebuildsTextWhenValuesChange() {
+        val text = new CachedText("AP: %d/%d");
+        text.get(1, 2);
+        assertEquals("AP: 2/2", text.get(2, 2));
+    }
+
+    @Test
+    void switchingBetweenIntegerAndDecimalValuesRebuildsText() {
+        val text = new CachedText("%s");
+        assertEquals("0", text.get(0, 0));
+        assertEquals("0.0", text.get(0.0, 0.0));
+        assertEquals("0", text.get(0, 0));
+    }
+
+    @Test
+    void glyphFrameIgnoresCase() {
+        assertEquals(TextRenderer.glyphFrame('A'), TextRenderer.glyphFrame('a'));
+        assertEquals(TextRenderer.glyphFrame('Z'), TextRenderer.glyphFrame('z'));
+    }
+
+    @Test
+    void glyphFrameReturnsNegativeForUnknownCharacters() {
+        assertEquals(-1, TextRenderer.glyphFrame('#'));
+        assertEquals(-1, TextRenderer.glyphFrame('ä'));
+    }
+
+    @Test
+    void countLinesCountsNewlines() {
+        assertEquals(1, TextRenderer.countLines("Attack"));
+        assertEquals(3, TextRenderer.countLines("a\nb\nc"));
+    }
+}
@@ -0,0 +1,34 @@
+package toilari.otlite.view.lwjgl.batch;
+
+import lombok.val;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SpriteBatchTest {
+    @Test
+    void newBatchIsNotInitialized() {
+        assertFalse(new SpriteBatch().isInitialized());
+    }
+
+    @Test
+    void destroyDoesNothingIfBatchIsNotInitialized() {
+        val batch = new SpriteBatch();
+        assertDoesNotThrow(batch::destroy);
+        assertDoesNotThrow(batch::destroy);
+        assertFalse(batch.isInitialized());
+    }
+
+    @Test
+    void beginThrowsIfBatchIsNotInitialized() {
+        val batch = new SpriteBatch();
+        assertThrows(IllegalStateException.class, batch::begin);
+    }
+
+    @Test
+    void beginThrowsAfterDestroy() {
+        val batch = new SpriteBatch();
+        batch.destroy();
+        assertThrows(IllegalStateException.class, batch::begin);
+    }
+}
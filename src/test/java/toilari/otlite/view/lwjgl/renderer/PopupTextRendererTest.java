@@ -0,0 +1,46 @@
+package toilari.otlite.view.lwjgl.renderer;
+
+import lombok.val;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testaa PopupTextRenderer-luokan lukujen muotoilua.
+ */
+class PopupTextRendererTest {
+    @Test
+    void appendAmountPrefixesPositiveValuesWithPlus() {
+        assertEquals("+1.5", format(1.5f));
+    }
+
+    @Test
+    void appendAmountPrefixesNegativeValuesWithMinus() {
+        assertEquals("-12.0", format(-12.0f));
+    }
+
+    @Test
+    void appendAmountWritesZeroWithoutSign() {
+        assertEquals("0.0", format(0.0f));
+    }
+
+    @Test
+    void appendAmountRoundsToOneDecimal() {
+        assertEquals("-3.3", format(-10.0f / 3.0f));
+        assertEquals("+0.7", format(0.66f));
+        assertEquals("+2.0", format(1.96f));
+    }
+
+    @Test
+    void appendAmountAppendsToExistingContent() {
+        val out = new StringBuilder("HP ");
+        PopupTextRenderer.appendAmount(out, 4.25f);
+        assertEquals("HP +4.3", out.toString());
+    }
+
+    private static String format(float amount) {
+        val out = new StringBuilder();
+        PopupTextRenderer.appendAmount(out, amount);
+        return out.toString();
+    }
+}